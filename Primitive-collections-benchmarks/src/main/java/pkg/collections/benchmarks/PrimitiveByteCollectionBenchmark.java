@@ -0,0 +1,456 @@
+package pkg.collections.benchmarks;
+
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pkg.collections.PrimitiveByteCollection;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PrimitiveByteCollectionBenchmark {
+    private static final int RANDOM_READS = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Size {
+        @Param({"1000", "100000", "10000000", "100000000"})
+        int size;
+
+        int[] randomIndexes;
+
+        void prepare() {
+            final Random random = new Random(42);
+            randomIndexes = new int[RANDOM_READS];
+            for (int i = 0; i < RANDOM_READS; i++) {
+                randomIndexes[i] = random.nextInt(size);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Chunked extends Size {
+        PrimitiveByteCollection collection;
+
+        @Setup
+        public void setup() {
+            prepare();
+            collection = new PrimitiveByteCollection();
+            for (int i = 0; i < size; i++) {
+                collection.add((byte) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Boxed extends Size {
+        ArrayList<Byte> list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                list.add((byte) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Array extends Size {
+        byte[] array;
+
+        @Setup
+        public void setup() {
+            prepare();
+            array = new byte[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = (byte) i;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Fastutil extends Size {
+        ByteArrayList list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new ByteArrayList();
+            for (int i = 0; i < size; i++) {
+                list.add((byte) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Eclipse extends Size {
+        org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList();
+            for (int i = 0; i < size; i++) {
+                list.add((byte) i);
+            }
+        }
+    }
+
+    // add
+
+    @Benchmark
+    public PrimitiveByteCollection chunkedAdd(final Size state) {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        for (int i = 0; i < state.size; i++) {
+            collection.add((byte) i);
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public ArrayList<Byte> boxedAdd(final Size state) {
+        final ArrayList<Byte> list = new ArrayList<>();
+        for (int i = 0; i < state.size; i++) {
+            list.add((byte) i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public byte[] arrayAdd(final Size state) {
+        final byte[] array = new byte[state.size];
+        for (int i = 0; i < state.size; i++) {
+            array[i] = (byte) i;
+        }
+        return array;
+    }
+
+    @Benchmark
+    public ByteArrayList fastutilAdd(final Size state) {
+        final ByteArrayList list = new ByteArrayList();
+        for (int i = 0; i < state.size; i++) {
+            list.add((byte) i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList eclipseAdd(final Size state) {
+        final org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList list =
+                new org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList();
+        for (int i = 0; i < state.size; i++) {
+            list.add((byte) i);
+        }
+        return list;
+    }
+
+    // sequential get
+
+    @Benchmark
+    public void chunkedGetSequential(final Chunked state, final Blackhole blackhole) {
+        final PrimitiveByteCollection collection = state.collection;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(collection.get(i));
+        }
+    }
+
+    @Benchmark
+    public void boxedGetSequential(final Boxed state, final Blackhole blackhole) {
+        final ArrayList<Byte> list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume((byte) list.get(i));
+        }
+    }
+
+    @Benchmark
+    public void arrayGetSequential(final Array state, final Blackhole blackhole) {
+        final byte[] array = state.array;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(array[i]);
+        }
+    }
+
+    @Benchmark
+    public void fastutilGetSequential(final Fastutil state, final Blackhole blackhole) {
+        final ByteArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(list.getByte(i));
+        }
+    }
+
+    @Benchmark
+    public void eclipseGetSequential(final Eclipse state, final Blackhole blackhole) {
+        final org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(list.get(i));
+        }
+    }
+
+    // random get
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void chunkedGetRandom(final Chunked state, final Blackhole blackhole) {
+        final PrimitiveByteCollection collection = state.collection;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(collection.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void boxedGetRandom(final Boxed state, final Blackhole blackhole) {
+        final ArrayList<Byte> list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume((byte) list.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void arrayGetRandom(final Array state, final Blackhole blackhole) {
+        final byte[] array = state.array;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(array[index]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void fastutilGetRandom(final Fastutil state, final Blackhole blackhole) {
+        final ByteArrayList list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(list.getByte(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void eclipseGetRandom(final Eclipse state, final Blackhole blackhole) {
+        final org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(list.get(index));
+        }
+    }
+
+    // set
+
+    @Benchmark
+    public void chunkedSet(final Chunked state) {
+        final PrimitiveByteCollection collection = state.collection;
+        for (int i = 0; i < state.size; i++) {
+            collection.set(i, (byte) (i + 1));
+        }
+    }
+
+    @Benchmark
+    public void boxedSet(final Boxed state) {
+        final ArrayList<Byte> list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, (byte) (i + 1));
+        }
+    }
+
+    @Benchmark
+    public void arraySet(final Array state) {
+        final byte[] array = state.array;
+        for (int i = 0; i < state.size; i++) {
+            array[i] = (byte) (i + 1);
+        }
+    }
+
+    @Benchmark
+    public void fastutilSet(final Fastutil state) {
+        final ByteArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, (byte) (i + 1));
+        }
+    }
+
+    @Benchmark
+    public void eclipseSet(final Eclipse state) {
+        final org.eclipse.collections.impl.list.mutable.primitive.ByteArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, (byte) (i + 1));
+        }
+    }
+
+    // sum
+
+    @Benchmark
+    public double chunkedSum(final Chunked state) {
+        return state.collection.sum();
+    }
+
+    @Benchmark
+    public double boxedSum(final Boxed state) {
+        double sum = 0;
+        for (final Byte v : state.list) {
+            sum = sum + v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double arraySum(final Array state) {
+        double sum = 0;
+        for (final byte v : state.array) {
+            sum = sum + v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double fastutilSum(final Fastutil state) {
+        final ByteArrayList list = state.list;
+        double sum = 0;
+        for (int i = 0; i < state.size; i++) {
+            sum = sum + list.getByte(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double eclipseSum(final Eclipse state) {
+        return state.list.sum();
+    }
+
+    // average
+
+    @Benchmark
+    public double chunkedAverage(final Chunked state) {
+        return state.collection.average();
+    }
+
+    @Benchmark
+    public double boxedAverage(final Boxed state) {
+        return boxedSum(state) / state.size;
+    }
+
+    @Benchmark
+    public double arrayAverage(final Array state) {
+        return arraySum(state) / state.size;
+    }
+
+    @Benchmark
+    public double fastutilAverage(final Fastutil state) {
+        return fastutilSum(state) / state.size;
+    }
+
+    @Benchmark
+    public double eclipseAverage(final Eclipse state) {
+        return state.list.average();
+    }
+
+    // max
+
+    @Benchmark
+    public byte chunkedMax(final Chunked state) {
+        return state.collection.max();
+    }
+
+    @Benchmark
+    public byte boxedMax(final Boxed state) {
+        byte max = state.list.get(0);
+        for (final Byte v : state.list) {
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public byte arrayMax(final Array state) {
+        byte max = state.array[0];
+        for (final byte v : state.array) {
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public byte fastutilMax(final Fastutil state) {
+        final ByteArrayList list = state.list;
+        byte max = list.getByte(0);
+        for (int i = 1; i < state.size; i++) {
+            final byte v = list.getByte(i);
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public byte eclipseMax(final Eclipse state) {
+        return state.list.max();
+    }
+
+    // min
+
+    @Benchmark
+    public byte chunkedMin(final Chunked state) {
+        return state.collection.min();
+    }
+
+    @Benchmark
+    public byte boxedMin(final Boxed state) {
+        byte min = state.list.get(0);
+        for (final Byte v : state.list) {
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public byte arrayMin(final Array state) {
+        byte min = state.array[0];
+        for (final byte v : state.array) {
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public byte fastutilMin(final Fastutil state) {
+        final ByteArrayList list = state.list;
+        byte min = list.getByte(0);
+        for (int i = 1; i < state.size; i++) {
+            final byte v = list.getByte(i);
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public byte eclipseMin(final Eclipse state) {
+        return state.list.min();
+    }
+}
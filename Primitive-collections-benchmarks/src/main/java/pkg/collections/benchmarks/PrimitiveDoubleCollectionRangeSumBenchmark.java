@@ -0,0 +1,98 @@
+package pkg.collections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pkg.collections.PrimitiveDoubleCollection;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random range sums, alone and mixed with random set() calls: a naive scan, the per chunk statistics and
+ * the prefix sum index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PrimitiveDoubleCollectionRangeSumBenchmark {
+    private static final int QUERIES = 1 << 10;
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"100000", "10000000"})
+        int size;
+
+        @Param({"scan", "statistics", "prefixSums"})
+        String mode;
+
+        PrimitiveDoubleCollection collection;
+        int[] froms;
+        int[] tos;
+        int[] setIndexes;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(42);
+            collection = new PrimitiveDoubleCollection();
+            for (int i = 0; i < size; i++) {
+                collection.add(random.nextDouble());
+            }
+            if ("statistics".equals(mode)) {
+                collection.enableStatistics();
+            } else if ("prefixSums".equals(mode)) {
+                collection.enablePrefixSums();
+            }
+            froms = new int[QUERIES];
+            tos = new int[QUERIES];
+            setIndexes = new int[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                final int from = random.nextInt(size);
+                froms[i] = from;
+                tos[i] = from + random.nextInt(size - from + 1);
+                setIndexes[i] = random.nextInt(size);
+            }
+        }
+
+        double rangeSum(final int from, final int to) {
+            if ("scan".equals(mode)) {
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum = sum + collection.get(i);
+                }
+                return sum;
+            }
+            return collection.rangeSum(from, to);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void rangeSum(final Data state, final Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            blackhole.consume(state.rangeSum(state.froms[i], state.tos[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void setAndRangeSum(final Data state, final Blackhole blackhole) {
+        final PrimitiveDoubleCollection collection = state.collection;
+        for (int i = 0; i < QUERIES; i++) {
+            collection.set(state.setIndexes[i], i);
+            blackhole.consume(state.rangeSum(state.froms[i], state.tos[i]));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package pkg.collections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pkg.collections.PrimitiveDoubleCollection;
+import pkg.collections.PrimitiveDoubleStampedCollection;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-heavy mix: 7 readers calling get() and sum() against one writer calling set(), with a synchronized
+ * PrimitiveDoubleCollection and with the StampedLock variant.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PrimitiveDoubleStampedCollectionBenchmark {
+
+    @State(Scope.Group)
+    public static class Data {
+        @Param({"100000"})
+        int size;
+
+        PrimitiveDoubleCollection locked;
+        PrimitiveDoubleStampedCollection stamped;
+
+        @Setup
+        public void setup() {
+            locked = new PrimitiveDoubleCollection();
+            stamped = new PrimitiveDoubleStampedCollection();
+            for (int i = 0; i < size; i++) {
+                locked.add(i);
+                stamped.add(i);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("synchronizedGet")
+    @GroupThreads(7)
+    public double synchronizedGetReader(final Data state) {
+        final int index = ThreadLocalRandom.current().nextInt(state.size);
+        synchronized (state.locked) {
+            return state.locked.get(index);
+        }
+    }
+
+    @Benchmark
+    @Group("synchronizedGet")
+    @GroupThreads(1)
+    public void synchronizedGetWriter(final Data state) {
+        final int index = ThreadLocalRandom.current().nextInt(state.size);
+        synchronized (state.locked) {
+            state.locked.set(index, index);
+        }
+    }
+
+    @Benchmark
+    @Group("stampedGet")
+    @GroupThreads(7)
+    public double stampedGetReader(final Data state) {
+        return state.stamped.get(ThreadLocalRandom.current().nextInt(state.size));
+    }
+
+    @Benchmark
+    @Group("stampedGet")
+    @GroupThreads(1)
+    public void stampedGetWriter(final Data state) {
+        final int index = ThreadLocalRandom.current().nextInt(state.size);
+        state.stamped.set(index, index);
+    }
+
+    @Benchmark
+    @Group("synchronizedSum")
+    @GroupThreads(7)
+    public double synchronizedSumReader(final Data state) {
+        synchronized (state.locked) {
+            return state.locked.sum();
+        }
+    }
+
+    @Benchmark
+    @Group("synchronizedSum")
+    @GroupThreads(1)
+    public void synchronizedSumWriter(final Data state) {
+        final int index = ThreadLocalRandom.current().nextInt(state.size);
+        synchronized (state.locked) {
+            state.locked.set(index, index);
+        }
+    }
+
+    @Benchmark
+    @Group("stampedSum")
+    @GroupThreads(7)
+    public double stampedSumReader(final Data state) {
+        return state.stamped.sum();
+    }
+
+    @Benchmark
+    @Group("stampedSum")
+    @GroupThreads(1)
+    public void stampedSumWriter(final Data state) {
+        final int index = ThreadLocalRandom.current().nextInt(state.size);
+        state.stamped.set(index, index);
+    }
+}
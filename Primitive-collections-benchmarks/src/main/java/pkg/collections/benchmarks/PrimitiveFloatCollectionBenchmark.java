@@ -0,0 +1,456 @@
+package pkg.collections.benchmarks;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pkg.collections.PrimitiveFloatCollection;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PrimitiveFloatCollectionBenchmark {
+    private static final int RANDOM_READS = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Size {
+        @Param({"1000", "100000", "10000000", "100000000"})
+        int size;
+
+        int[] randomIndexes;
+
+        void prepare() {
+            final Random random = new Random(42);
+            randomIndexes = new int[RANDOM_READS];
+            for (int i = 0; i < RANDOM_READS; i++) {
+                randomIndexes[i] = random.nextInt(size);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Chunked extends Size {
+        PrimitiveFloatCollection collection;
+
+        @Setup
+        public void setup() {
+            prepare();
+            collection = new PrimitiveFloatCollection();
+            for (int i = 0; i < size; i++) {
+                collection.add((float) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Boxed extends Size {
+        ArrayList<Float> list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                list.add((float) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Array extends Size {
+        float[] array;
+
+        @Setup
+        public void setup() {
+            prepare();
+            array = new float[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = (float) i;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Fastutil extends Size {
+        FloatArrayList list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new FloatArrayList();
+            for (int i = 0; i < size; i++) {
+                list.add((float) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Eclipse extends Size {
+        org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList();
+            for (int i = 0; i < size; i++) {
+                list.add((float) i);
+            }
+        }
+    }
+
+    // add
+
+    @Benchmark
+    public PrimitiveFloatCollection chunkedAdd(final Size state) {
+        final PrimitiveFloatCollection collection = new PrimitiveFloatCollection();
+        for (int i = 0; i < state.size; i++) {
+            collection.add((float) i);
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public ArrayList<Float> boxedAdd(final Size state) {
+        final ArrayList<Float> list = new ArrayList<>();
+        for (int i = 0; i < state.size; i++) {
+            list.add((float) i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public float[] arrayAdd(final Size state) {
+        final float[] array = new float[state.size];
+        for (int i = 0; i < state.size; i++) {
+            array[i] = (float) i;
+        }
+        return array;
+    }
+
+    @Benchmark
+    public FloatArrayList fastutilAdd(final Size state) {
+        final FloatArrayList list = new FloatArrayList();
+        for (int i = 0; i < state.size; i++) {
+            list.add((float) i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList eclipseAdd(final Size state) {
+        final org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList list =
+                new org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList();
+        for (int i = 0; i < state.size; i++) {
+            list.add((float) i);
+        }
+        return list;
+    }
+
+    // sequential get
+
+    @Benchmark
+    public void chunkedGetSequential(final Chunked state, final Blackhole blackhole) {
+        final PrimitiveFloatCollection collection = state.collection;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(collection.get(i));
+        }
+    }
+
+    @Benchmark
+    public void boxedGetSequential(final Boxed state, final Blackhole blackhole) {
+        final ArrayList<Float> list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume((float) list.get(i));
+        }
+    }
+
+    @Benchmark
+    public void arrayGetSequential(final Array state, final Blackhole blackhole) {
+        final float[] array = state.array;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(array[i]);
+        }
+    }
+
+    @Benchmark
+    public void fastutilGetSequential(final Fastutil state, final Blackhole blackhole) {
+        final FloatArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(list.getFloat(i));
+        }
+    }
+
+    @Benchmark
+    public void eclipseGetSequential(final Eclipse state, final Blackhole blackhole) {
+        final org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(list.get(i));
+        }
+    }
+
+    // random get
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void chunkedGetRandom(final Chunked state, final Blackhole blackhole) {
+        final PrimitiveFloatCollection collection = state.collection;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(collection.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void boxedGetRandom(final Boxed state, final Blackhole blackhole) {
+        final ArrayList<Float> list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume((float) list.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void arrayGetRandom(final Array state, final Blackhole blackhole) {
+        final float[] array = state.array;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(array[index]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void fastutilGetRandom(final Fastutil state, final Blackhole blackhole) {
+        final FloatArrayList list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(list.getFloat(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void eclipseGetRandom(final Eclipse state, final Blackhole blackhole) {
+        final org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(list.get(index));
+        }
+    }
+
+    // set
+
+    @Benchmark
+    public void chunkedSet(final Chunked state) {
+        final PrimitiveFloatCollection collection = state.collection;
+        for (int i = 0; i < state.size; i++) {
+            collection.set(i, (float) (i + 1));
+        }
+    }
+
+    @Benchmark
+    public void boxedSet(final Boxed state) {
+        final ArrayList<Float> list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, (float) (i + 1));
+        }
+    }
+
+    @Benchmark
+    public void arraySet(final Array state) {
+        final float[] array = state.array;
+        for (int i = 0; i < state.size; i++) {
+            array[i] = (float) (i + 1);
+        }
+    }
+
+    @Benchmark
+    public void fastutilSet(final Fastutil state) {
+        final FloatArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, (float) (i + 1));
+        }
+    }
+
+    @Benchmark
+    public void eclipseSet(final Eclipse state) {
+        final org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, (float) (i + 1));
+        }
+    }
+
+    // sum
+
+    @Benchmark
+    public double chunkedSum(final Chunked state) {
+        return state.collection.sum();
+    }
+
+    @Benchmark
+    public double boxedSum(final Boxed state) {
+        double sum = 0;
+        for (final Float v : state.list) {
+            sum = sum + v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double arraySum(final Array state) {
+        double sum = 0;
+        for (final float v : state.array) {
+            sum = sum + v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double fastutilSum(final Fastutil state) {
+        final FloatArrayList list = state.list;
+        double sum = 0;
+        for (int i = 0; i < state.size; i++) {
+            sum = sum + list.getFloat(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double eclipseSum(final Eclipse state) {
+        return state.list.sum();
+    }
+
+    // average
+
+    @Benchmark
+    public double chunkedAverage(final Chunked state) {
+        return state.collection.average();
+    }
+
+    @Benchmark
+    public double boxedAverage(final Boxed state) {
+        return boxedSum(state) / state.size;
+    }
+
+    @Benchmark
+    public double arrayAverage(final Array state) {
+        return arraySum(state) / state.size;
+    }
+
+    @Benchmark
+    public double fastutilAverage(final Fastutil state) {
+        return fastutilSum(state) / state.size;
+    }
+
+    @Benchmark
+    public double eclipseAverage(final Eclipse state) {
+        return state.list.average();
+    }
+
+    // max
+
+    @Benchmark
+    public float chunkedMax(final Chunked state) {
+        return state.collection.max();
+    }
+
+    @Benchmark
+    public float boxedMax(final Boxed state) {
+        float max = state.list.get(0);
+        for (final Float v : state.list) {
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public float arrayMax(final Array state) {
+        float max = state.array[0];
+        for (final float v : state.array) {
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public float fastutilMax(final Fastutil state) {
+        final FloatArrayList list = state.list;
+        float max = list.getFloat(0);
+        for (int i = 1; i < state.size; i++) {
+            final float v = list.getFloat(i);
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public float eclipseMax(final Eclipse state) {
+        return state.list.max();
+    }
+
+    // min
+
+    @Benchmark
+    public float chunkedMin(final Chunked state) {
+        return state.collection.min();
+    }
+
+    @Benchmark
+    public float boxedMin(final Boxed state) {
+        float min = state.list.get(0);
+        for (final Float v : state.list) {
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public float arrayMin(final Array state) {
+        float min = state.array[0];
+        for (final float v : state.array) {
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public float fastutilMin(final Fastutil state) {
+        final FloatArrayList list = state.list;
+        float min = list.getFloat(0);
+        for (int i = 1; i < state.size; i++) {
+            final float v = list.getFloat(i);
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public float eclipseMin(final Eclipse state) {
+        return state.list.min();
+    }
+}
@@ -0,0 +1,456 @@
+package pkg.collections.benchmarks;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pkg.collections.PrimitiveIntCollection;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PrimitiveIntCollectionBenchmark {
+    private static final int RANDOM_READS = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Size {
+        @Param({"1000", "100000", "10000000", "100000000"})
+        int size;
+
+        int[] randomIndexes;
+
+        void prepare() {
+            final Random random = new Random(42);
+            randomIndexes = new int[RANDOM_READS];
+            for (int i = 0; i < RANDOM_READS; i++) {
+                randomIndexes[i] = random.nextInt(size);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Chunked extends Size {
+        PrimitiveIntCollection collection;
+
+        @Setup
+        public void setup() {
+            prepare();
+            collection = new PrimitiveIntCollection();
+            for (int i = 0; i < size; i++) {
+                collection.add(i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Boxed extends Size {
+        ArrayList<Integer> list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                list.add(i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Array extends Size {
+        int[] array;
+
+        @Setup
+        public void setup() {
+            prepare();
+            array = new int[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = i;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Fastutil extends Size {
+        IntArrayList list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new IntArrayList();
+            for (int i = 0; i < size; i++) {
+                list.add(i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Eclipse extends Size {
+        org.eclipse.collections.impl.list.mutable.primitive.IntArrayList list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new org.eclipse.collections.impl.list.mutable.primitive.IntArrayList();
+            for (int i = 0; i < size; i++) {
+                list.add(i);
+            }
+        }
+    }
+
+    // add
+
+    @Benchmark
+    public PrimitiveIntCollection chunkedAdd(final Size state) {
+        final PrimitiveIntCollection collection = new PrimitiveIntCollection();
+        for (int i = 0; i < state.size; i++) {
+            collection.add(i);
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public ArrayList<Integer> boxedAdd(final Size state) {
+        final ArrayList<Integer> list = new ArrayList<>();
+        for (int i = 0; i < state.size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public int[] arrayAdd(final Size state) {
+        final int[] array = new int[state.size];
+        for (int i = 0; i < state.size; i++) {
+            array[i] = i;
+        }
+        return array;
+    }
+
+    @Benchmark
+    public IntArrayList fastutilAdd(final Size state) {
+        final IntArrayList list = new IntArrayList();
+        for (int i = 0; i < state.size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public org.eclipse.collections.impl.list.mutable.primitive.IntArrayList eclipseAdd(final Size state) {
+        final org.eclipse.collections.impl.list.mutable.primitive.IntArrayList list =
+                new org.eclipse.collections.impl.list.mutable.primitive.IntArrayList();
+        for (int i = 0; i < state.size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    // sequential get
+
+    @Benchmark
+    public void chunkedGetSequential(final Chunked state, final Blackhole blackhole) {
+        final PrimitiveIntCollection collection = state.collection;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(collection.get(i));
+        }
+    }
+
+    @Benchmark
+    public void boxedGetSequential(final Boxed state, final Blackhole blackhole) {
+        final ArrayList<Integer> list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume((int) list.get(i));
+        }
+    }
+
+    @Benchmark
+    public void arrayGetSequential(final Array state, final Blackhole blackhole) {
+        final int[] array = state.array;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(array[i]);
+        }
+    }
+
+    @Benchmark
+    public void fastutilGetSequential(final Fastutil state, final Blackhole blackhole) {
+        final IntArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(list.getInt(i));
+        }
+    }
+
+    @Benchmark
+    public void eclipseGetSequential(final Eclipse state, final Blackhole blackhole) {
+        final org.eclipse.collections.impl.list.mutable.primitive.IntArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(list.get(i));
+        }
+    }
+
+    // random get
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void chunkedGetRandom(final Chunked state, final Blackhole blackhole) {
+        final PrimitiveIntCollection collection = state.collection;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(collection.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void boxedGetRandom(final Boxed state, final Blackhole blackhole) {
+        final ArrayList<Integer> list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume((int) list.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void arrayGetRandom(final Array state, final Blackhole blackhole) {
+        final int[] array = state.array;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(array[index]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void fastutilGetRandom(final Fastutil state, final Blackhole blackhole) {
+        final IntArrayList list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(list.getInt(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void eclipseGetRandom(final Eclipse state, final Blackhole blackhole) {
+        final org.eclipse.collections.impl.list.mutable.primitive.IntArrayList list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(list.get(index));
+        }
+    }
+
+    // set
+
+    @Benchmark
+    public void chunkedSet(final Chunked state) {
+        final PrimitiveIntCollection collection = state.collection;
+        for (int i = 0; i < state.size; i++) {
+            collection.set(i, i + 1);
+        }
+    }
+
+    @Benchmark
+    public void boxedSet(final Boxed state) {
+        final ArrayList<Integer> list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, i + 1);
+        }
+    }
+
+    @Benchmark
+    public void arraySet(final Array state) {
+        final int[] array = state.array;
+        for (int i = 0; i < state.size; i++) {
+            array[i] = i + 1;
+        }
+    }
+
+    @Benchmark
+    public void fastutilSet(final Fastutil state) {
+        final IntArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, i + 1);
+        }
+    }
+
+    @Benchmark
+    public void eclipseSet(final Eclipse state) {
+        final org.eclipse.collections.impl.list.mutable.primitive.IntArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, i + 1);
+        }
+    }
+
+    // sum
+
+    @Benchmark
+    public double chunkedSum(final Chunked state) {
+        return state.collection.sum();
+    }
+
+    @Benchmark
+    public double boxedSum(final Boxed state) {
+        double sum = 0;
+        for (final Integer v : state.list) {
+            sum = sum + v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double arraySum(final Array state) {
+        double sum = 0;
+        for (final int v : state.array) {
+            sum = sum + v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double fastutilSum(final Fastutil state) {
+        final IntArrayList list = state.list;
+        double sum = 0;
+        for (int i = 0; i < state.size; i++) {
+            sum = sum + list.getInt(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double eclipseSum(final Eclipse state) {
+        return state.list.sum();
+    }
+
+    // average
+
+    @Benchmark
+    public double chunkedAverage(final Chunked state) {
+        return state.collection.average();
+    }
+
+    @Benchmark
+    public double boxedAverage(final Boxed state) {
+        return boxedSum(state) / state.size;
+    }
+
+    @Benchmark
+    public double arrayAverage(final Array state) {
+        return arraySum(state) / state.size;
+    }
+
+    @Benchmark
+    public double fastutilAverage(final Fastutil state) {
+        return fastutilSum(state) / state.size;
+    }
+
+    @Benchmark
+    public double eclipseAverage(final Eclipse state) {
+        return state.list.average();
+    }
+
+    // max
+
+    @Benchmark
+    public int chunkedMax(final Chunked state) {
+        return state.collection.max();
+    }
+
+    @Benchmark
+    public int boxedMax(final Boxed state) {
+        int max = state.list.get(0);
+        for (final Integer v : state.list) {
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public int arrayMax(final Array state) {
+        int max = state.array[0];
+        for (final int v : state.array) {
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public int fastutilMax(final Fastutil state) {
+        final IntArrayList list = state.list;
+        int max = list.getInt(0);
+        for (int i = 1; i < state.size; i++) {
+            final int v = list.getInt(i);
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public int eclipseMax(final Eclipse state) {
+        return state.list.max();
+    }
+
+    // min
+
+    @Benchmark
+    public int chunkedMin(final Chunked state) {
+        return state.collection.min();
+    }
+
+    @Benchmark
+    public int boxedMin(final Boxed state) {
+        int min = state.list.get(0);
+        for (final Integer v : state.list) {
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public int arrayMin(final Array state) {
+        int min = state.array[0];
+        for (final int v : state.array) {
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public int fastutilMin(final Fastutil state) {
+        final IntArrayList list = state.list;
+        int min = list.getInt(0);
+        for (int i = 1; i < state.size; i++) {
+            final int v = list.getInt(i);
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public int eclipseMin(final Eclipse state) {
+        return state.list.min();
+    }
+}
@@ -0,0 +1,90 @@
+package pkg.collections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pkg.collections.PrimitiveIntCollection;
+import pkg.collections.PrimitiveIntConcurrentCollection;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-producer appends: a synchronized PrimitiveIntCollection against the lock-free concurrent variant.
+ * Run with -t 1, -t 4, ... to see how the throughput scales with the number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PrimitiveIntConcurrentCollectionBenchmark {
+    private static final int BATCH = 1 << 10;
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        PrimitiveIntCollection locked;
+        PrimitiveIntConcurrentCollection concurrent;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            locked = new PrimitiveIntCollection();
+            concurrent = new PrimitiveIntConcurrentCollection();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Source {
+        final int[] values = new int[BATCH];
+
+        @Setup
+        public void setup() {
+            for (int i = 0; i < BATCH; i++) {
+                values[i] = i;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void synchronizedAdd(final Data state, final Source source) {
+        final PrimitiveIntCollection collection = state.locked;
+        for (final int value : source.values) {
+            synchronized (collection) {
+                collection.add(value);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void concurrentAdd(final Data state, final Source source) {
+        final PrimitiveIntConcurrentCollection collection = state.concurrent;
+        for (final int value : source.values) {
+            collection.add(value);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void synchronizedAddAll(final Data state, final Source source) {
+        final PrimitiveIntCollection collection = state.locked;
+        synchronized (collection) {
+            collection.addAll(source.values, 0, BATCH);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void concurrentAddAll(final Data state, final Source source) {
+        state.concurrent.addAll(source.values);
+    }
+}
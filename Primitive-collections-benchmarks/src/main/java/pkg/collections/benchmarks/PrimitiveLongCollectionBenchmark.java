@@ -0,0 +1,456 @@
+package pkg.collections.benchmarks;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pkg.collections.PrimitiveLongCollection;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PrimitiveLongCollectionBenchmark {
+    private static final int RANDOM_READS = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Size {
+        @Param({"1000", "100000", "10000000", "100000000"})
+        int size;
+
+        int[] randomIndexes;
+
+        void prepare() {
+            final Random random = new Random(42);
+            randomIndexes = new int[RANDOM_READS];
+            for (int i = 0; i < RANDOM_READS; i++) {
+                randomIndexes[i] = random.nextInt(size);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Chunked extends Size {
+        PrimitiveLongCollection collection;
+
+        @Setup
+        public void setup() {
+            prepare();
+            collection = new PrimitiveLongCollection();
+            for (int i = 0; i < size; i++) {
+                collection.add((long) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Boxed extends Size {
+        ArrayList<Long> list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                list.add((long) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Array extends Size {
+        long[] array;
+
+        @Setup
+        public void setup() {
+            prepare();
+            array = new long[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = (long) i;
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Fastutil extends Size {
+        LongArrayList list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new LongArrayList();
+            for (int i = 0; i < size; i++) {
+                list.add((long) i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Eclipse extends Size {
+        org.eclipse.collections.impl.list.mutable.primitive.LongArrayList list;
+
+        @Setup
+        public void setup() {
+            prepare();
+            list = new org.eclipse.collections.impl.list.mutable.primitive.LongArrayList();
+            for (int i = 0; i < size; i++) {
+                list.add((long) i);
+            }
+        }
+    }
+
+    // add
+
+    @Benchmark
+    public PrimitiveLongCollection chunkedAdd(final Size state) {
+        final PrimitiveLongCollection collection = new PrimitiveLongCollection();
+        for (int i = 0; i < state.size; i++) {
+            collection.add((long) i);
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public ArrayList<Long> boxedAdd(final Size state) {
+        final ArrayList<Long> list = new ArrayList<>();
+        for (int i = 0; i < state.size; i++) {
+            list.add((long) i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public long[] arrayAdd(final Size state) {
+        final long[] array = new long[state.size];
+        for (int i = 0; i < state.size; i++) {
+            array[i] = (long) i;
+        }
+        return array;
+    }
+
+    @Benchmark
+    public LongArrayList fastutilAdd(final Size state) {
+        final LongArrayList list = new LongArrayList();
+        for (int i = 0; i < state.size; i++) {
+            list.add((long) i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public org.eclipse.collections.impl.list.mutable.primitive.LongArrayList eclipseAdd(final Size state) {
+        final org.eclipse.collections.impl.list.mutable.primitive.LongArrayList list =
+                new org.eclipse.collections.impl.list.mutable.primitive.LongArrayList();
+        for (int i = 0; i < state.size; i++) {
+            list.add((long) i);
+        }
+        return list;
+    }
+
+    // sequential get
+
+    @Benchmark
+    public void chunkedGetSequential(final Chunked state, final Blackhole blackhole) {
+        final PrimitiveLongCollection collection = state.collection;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(collection.get(i));
+        }
+    }
+
+    @Benchmark
+    public void boxedGetSequential(final Boxed state, final Blackhole blackhole) {
+        final ArrayList<Long> list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume((long) list.get(i));
+        }
+    }
+
+    @Benchmark
+    public void arrayGetSequential(final Array state, final Blackhole blackhole) {
+        final long[] array = state.array;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(array[i]);
+        }
+    }
+
+    @Benchmark
+    public void fastutilGetSequential(final Fastutil state, final Blackhole blackhole) {
+        final LongArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(list.getLong(i));
+        }
+    }
+
+    @Benchmark
+    public void eclipseGetSequential(final Eclipse state, final Blackhole blackhole) {
+        final org.eclipse.collections.impl.list.mutable.primitive.LongArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            blackhole.consume(list.get(i));
+        }
+    }
+
+    // random get
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void chunkedGetRandom(final Chunked state, final Blackhole blackhole) {
+        final PrimitiveLongCollection collection = state.collection;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(collection.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void boxedGetRandom(final Boxed state, final Blackhole blackhole) {
+        final ArrayList<Long> list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume((long) list.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void arrayGetRandom(final Array state, final Blackhole blackhole) {
+        final long[] array = state.array;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(array[index]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void fastutilGetRandom(final Fastutil state, final Blackhole blackhole) {
+        final LongArrayList list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(list.getLong(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void eclipseGetRandom(final Eclipse state, final Blackhole blackhole) {
+        final org.eclipse.collections.impl.list.mutable.primitive.LongArrayList list = state.list;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(list.get(index));
+        }
+    }
+
+    // set
+
+    @Benchmark
+    public void chunkedSet(final Chunked state) {
+        final PrimitiveLongCollection collection = state.collection;
+        for (int i = 0; i < state.size; i++) {
+            collection.set(i, (long) (i + 1));
+        }
+    }
+
+    @Benchmark
+    public void boxedSet(final Boxed state) {
+        final ArrayList<Long> list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, (long) (i + 1));
+        }
+    }
+
+    @Benchmark
+    public void arraySet(final Array state) {
+        final long[] array = state.array;
+        for (int i = 0; i < state.size; i++) {
+            array[i] = (long) (i + 1);
+        }
+    }
+
+    @Benchmark
+    public void fastutilSet(final Fastutil state) {
+        final LongArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, (long) (i + 1));
+        }
+    }
+
+    @Benchmark
+    public void eclipseSet(final Eclipse state) {
+        final org.eclipse.collections.impl.list.mutable.primitive.LongArrayList list = state.list;
+        for (int i = 0; i < state.size; i++) {
+            list.set(i, (long) (i + 1));
+        }
+    }
+
+    // sum
+
+    @Benchmark
+    public double chunkedSum(final Chunked state) {
+        return state.collection.sum();
+    }
+
+    @Benchmark
+    public double boxedSum(final Boxed state) {
+        double sum = 0;
+        for (final Long v : state.list) {
+            sum = sum + v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double arraySum(final Array state) {
+        double sum = 0;
+        for (final long v : state.array) {
+            sum = sum + v;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double fastutilSum(final Fastutil state) {
+        final LongArrayList list = state.list;
+        double sum = 0;
+        for (int i = 0; i < state.size; i++) {
+            sum = sum + list.getLong(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double eclipseSum(final Eclipse state) {
+        return state.list.sum();
+    }
+
+    // average
+
+    @Benchmark
+    public double chunkedAverage(final Chunked state) {
+        return state.collection.average();
+    }
+
+    @Benchmark
+    public double boxedAverage(final Boxed state) {
+        return boxedSum(state) / state.size;
+    }
+
+    @Benchmark
+    public double arrayAverage(final Array state) {
+        return arraySum(state) / state.size;
+    }
+
+    @Benchmark
+    public double fastutilAverage(final Fastutil state) {
+        return fastutilSum(state) / state.size;
+    }
+
+    @Benchmark
+    public double eclipseAverage(final Eclipse state) {
+        return state.list.average();
+    }
+
+    // max
+
+    @Benchmark
+    public long chunkedMax(final Chunked state) {
+        return state.collection.max();
+    }
+
+    @Benchmark
+    public long boxedMax(final Boxed state) {
+        long max = state.list.get(0);
+        for (final Long v : state.list) {
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public long arrayMax(final Array state) {
+        long max = state.array[0];
+        for (final long v : state.array) {
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public long fastutilMax(final Fastutil state) {
+        final LongArrayList list = state.list;
+        long max = list.getLong(0);
+        for (int i = 1; i < state.size; i++) {
+            final long v = list.getLong(i);
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public long eclipseMax(final Eclipse state) {
+        return state.list.max();
+    }
+
+    // min
+
+    @Benchmark
+    public long chunkedMin(final Chunked state) {
+        return state.collection.min();
+    }
+
+    @Benchmark
+    public long boxedMin(final Boxed state) {
+        long min = state.list.get(0);
+        for (final Long v : state.list) {
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public long arrayMin(final Array state) {
+        long min = state.array[0];
+        for (final long v : state.array) {
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public long fastutilMin(final Fastutil state) {
+        final LongArrayList list = state.list;
+        long min = list.getLong(0);
+        for (int i = 1; i < state.size; i++) {
+            final long v = list.getLong(i);
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public long eclipseMin(final Eclipse state) {
+        return state.list.min();
+    }
+}
@@ -0,0 +1,154 @@
+package pkg.collections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pkg.collections.PrimitiveLongCollection;
+import pkg.collections.PrimitiveLongCompressedCollection;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raw chunks against compressed chunks. The footprint of both layouts is printed at the end of every fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PrimitiveLongCompressedCollectionBenchmark {
+    private static final int RANDOM_READS = 1 << 16;
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"100000", "10000000"})
+        int size;
+
+        @Param({"ids", "timestamps", "random"})
+        String distribution;
+
+        PrimitiveLongCollection raw;
+        PrimitiveLongCompressedCollection compressed;
+        int[] randomIndexes;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(42);
+            raw = new PrimitiveLongCollection();
+            compressed = new PrimitiveLongCompressedCollection();
+            long time = 1_650_000_000_000L;
+            for (int i = 0; i < size; i++) {
+                final long value;
+                if ("ids".equals(distribution)) {
+                    value = i;
+                } else if ("timestamps".equals(distribution)) {
+                    time = time + 1000 + random.nextInt(50);
+                    value = time;
+                } else {
+                    value = random.nextLong();
+                }
+                raw.add(value);
+                compressed.add(value);
+            }
+            randomIndexes = new int[RANDOM_READS];
+            for (int i = 0; i < RANDOM_READS; i++) {
+                randomIndexes[i] = random.nextInt(size);
+            }
+        }
+
+        @TearDown
+        public void footprint() {
+            final long rawBytes = ((size + 1023L) >> 10) * (16 + 1024L * Long.BYTES);
+            System.out.printf("%n%s, %d values: raw %d bytes, compressed %d bytes (%.2fx)%n", distribution, size,
+                    rawBytes, compressed.sizeInBytes(), rawBytes / (double) compressed.sizeInBytes());
+        }
+    }
+
+    // add
+
+    @Benchmark
+    public PrimitiveLongCollection rawAdd(final Data state) {
+        final PrimitiveLongCollection collection = new PrimitiveLongCollection();
+        final PrimitiveLongCollection source = state.raw;
+        for (int i = 0; i < state.size; i++) {
+            collection.add(source.get(i));
+        }
+        return collection;
+    }
+
+    @Benchmark
+    public PrimitiveLongCompressedCollection compressedAdd(final Data state) {
+        final PrimitiveLongCompressedCollection collection = new PrimitiveLongCompressedCollection();
+        final PrimitiveLongCollection source = state.raw;
+        for (int i = 0; i < state.size; i++) {
+            collection.add(source.get(i));
+        }
+        return collection;
+    }
+
+    // scan
+
+    @Benchmark
+    public void rawScan(final Data state, final Blackhole blackhole) {
+        state.raw.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void compressedScan(final Data state, final Blackhole blackhole) {
+        state.compressed.forEach(blackhole::consume);
+    }
+
+    // random get
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void rawGetRandom(final Data state, final Blackhole blackhole) {
+        final PrimitiveLongCollection collection = state.raw;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(collection.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RANDOM_READS)
+    public void compressedGetRandom(final Data state, final Blackhole blackhole) {
+        final PrimitiveLongCompressedCollection collection = state.compressed;
+        for (final int index : state.randomIndexes) {
+            blackhole.consume(collection.get(index));
+        }
+    }
+
+    // reductions
+
+    @Benchmark
+    public double rawSum(final Data state) {
+        return state.raw.sum();
+    }
+
+    @Benchmark
+    public double compressedSum(final Data state) {
+        return state.compressed.sum();
+    }
+
+    @Benchmark
+    public long rawMax(final Data state) {
+        return state.raw.max();
+    }
+
+    @Benchmark
+    public long compressedMax(final Data state) {
+        return state.compressed.max();
+    }
+}
@@ -0,0 +1,57 @@
+package pkg.collections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pkg.collections.PrimitiveLongCollection;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * insert() followed by remove() at the front and at the back. At the front only the first chunk shifts and the
+ * starts of the later chunks move by one, so the time grows with the number of chunks, not with the size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PrimitiveLongInsertRemoveBenchmark {
+
+    @State(Scope.Thread)
+    public static class Data {
+        @Param({"100000", "1000000", "10000000"})
+        int size;
+
+        PrimitiveLongCollection collection;
+
+        @Setup
+        public void fill() {
+            collection = new PrimitiveLongCollection();
+            for (int i = 0; i < size; i++) {
+                collection.add(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public long front(final Data state) {
+        state.collection.insert(0, -1);
+        return state.collection.remove(0);
+    }
+
+    @Benchmark
+    public long back(final Data state) {
+        final int index = state.collection.getSize() - 1;
+        state.collection.insert(index, -1);
+        return state.collection.remove(index);
+    }
+}
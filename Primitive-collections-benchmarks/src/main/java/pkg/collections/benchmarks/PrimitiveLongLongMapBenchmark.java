@@ -0,0 +1,108 @@
+package pkg.collections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pkg.collections.PrimitiveLongLongMap;
+import pkg.collections.PrimitiveLongSet;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boxed HashMap and HashSet against the open addressing primitive versions: counting keys, lookups and
+ * building a set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PrimitiveLongLongMapBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"10000", "1000000"})
+        int size;
+
+        long[] keys;
+        Map<Long, Long> boxedMap;
+        PrimitiveLongLongMap primitiveMap;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(42);
+            keys = new long[size];
+            boxedMap = new HashMap<>();
+            primitiveMap = new PrimitiveLongLongMap();
+            for (int i = 0; i < size; i++) {
+                keys[i] = random.nextInt(size / 2) * 31L;
+                boxedMap.merge(keys[i], 1L, Long::sum);
+                primitiveMap.addTo(keys[i], 1);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Long> boxedCount(final Data state) {
+        final Map<Long, Long> map = new HashMap<>();
+        for (final long key : state.keys) {
+            map.merge(key, 1L, Long::sum);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public PrimitiveLongLongMap primitiveCount(final Data state) {
+        final PrimitiveLongLongMap map = new PrimitiveLongLongMap();
+        for (final long key : state.keys) {
+            map.addTo(key, 1);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public void boxedGet(final Data state, final Blackhole blackhole) {
+        final Map<Long, Long> map = state.boxedMap;
+        for (final long key : state.keys) {
+            blackhole.consume(map.get(key).longValue());
+        }
+    }
+
+    @Benchmark
+    public void primitiveGet(final Data state, final Blackhole blackhole) {
+        final PrimitiveLongLongMap map = state.primitiveMap;
+        for (final long key : state.keys) {
+            blackhole.consume(map.get(key));
+        }
+    }
+
+    @Benchmark
+    public Set<Long> boxedSet(final Data state) {
+        final Set<Long> set = new HashSet<>();
+        for (final long key : state.keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public PrimitiveLongSet primitiveSet(final Data state) {
+        final PrimitiveLongSet set = new PrimitiveLongSet();
+        set.addAll(state.keys);
+        return set;
+    }
+}
@@ -0,0 +1,86 @@
+package pkg.collections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pkg.collections.PrimitiveLongCollection;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting in place on the chunks against copying out to a long[], sorting it and copying it back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PrimitiveLongSortBenchmark {
+
+    @State(Scope.Thread)
+    public static class Data {
+        @Param({"1000000"})
+        int size;
+
+        long[] values;
+        PrimitiveLongCollection collection;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            final Random random = new Random(1);
+            values = new long[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = random.nextLong();
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void fill() {
+            collection = new PrimitiveLongCollection();
+            collection.addAll(values);
+        }
+    }
+
+    @Benchmark
+    public PrimitiveLongCollection copySort(final Data state) {
+        final PrimitiveLongCollection collection = state.collection;
+        final long[] copy = collection.toArray();
+        Arrays.sort(copy);
+        collection.clean();
+        collection.addAll(copy);
+        return collection;
+    }
+
+    @Benchmark
+    public PrimitiveLongCollection sort(final Data state) {
+        state.collection.sort();
+        return state.collection;
+    }
+
+    @Benchmark
+    public PrimitiveLongCollection copyParallelSort(final Data state) {
+        final PrimitiveLongCollection collection = state.collection;
+        final long[] copy = collection.toArray();
+        Arrays.parallelSort(copy);
+        collection.clean();
+        collection.addAll(copy);
+        return collection;
+    }
+
+    @Benchmark
+    public PrimitiveLongCollection parallelSort(final Data state) {
+        state.collection.parallelSort();
+        return state.collection;
+    }
+}
@@ -0,0 +1,61 @@
+package pkg.collections.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pkg.collections.PrimitiveLongConcurrentCollection;
+import pkg.collections.PrimitiveLongStripedCollector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-producer appends: one atomic tail for all threads against per-thread chunks.
+ * Run with -t 1, -t 4, ... to see how the throughput scales with the number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PrimitiveLongStripedCollectorBenchmark {
+    private static final int BATCH = 1 << 10;
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        PrimitiveLongConcurrentCollection concurrent;
+        PrimitiveLongStripedCollector striped;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            concurrent = new PrimitiveLongConcurrentCollection();
+            striped = new PrimitiveLongStripedCollector();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void concurrentAdd(final Data state) {
+        final PrimitiveLongConcurrentCollection collection = state.concurrent;
+        for (int i = 0; i < BATCH; i++) {
+            collection.add(i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void stripedAdd(final Data state) {
+        final PrimitiveLongStripedCollector collector = state.striped;
+        for (int i = 0; i < BATCH; i++) {
+            collector.add(i);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package pkg.collections;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Stream format shared by the writeTo/readFrom methods of the collections.
+ * <p>
+ * A {@value #HEADER_SIZE} byte big-endian header (magic, version, type tag, byte order of the values,
+ * flags, frame size and element count) is followed by frames of frame size values, the last one possibly
+ * shorter. With the {@link #CHECKSUM} flag every frame is followed by the CRC32 of its bytes.
+ * <p>
+ * Positions are changed through Buffer, the ByteBuffer overloads of Java 9+ don't exist on Java 8.
+ */
+final class BinaryFormat {
+    static final int MAGIC = 0x50435342; // "PCSB"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final byte CHECKSUM = 1;
+    static final int MAX_FRAME_SIZE = 1 << 20;
+
+    private static final byte BIG_ENDIAN = 0;
+    private static final byte LITTLE_ENDIAN = 1;
+
+    private BinaryFormat() {
+    }
+
+    static final class Header {
+        final ByteOrder order;
+        final boolean checksum;
+        final int frameSize;
+        final long count;
+
+        private Header(final ByteOrder order, final boolean checksum, final int frameSize, final long count) {
+            this.order = order;
+            this.checksum = checksum;
+            this.frameSize = frameSize;
+            this.count = count;
+        }
+    }
+
+    static void writeHeader(final WritableByteChannel channel, final byte type, final ByteOrder order,
+                            final boolean checksum, final int frameSize, final long count) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.put(type);
+        buffer.put(order == ByteOrder.LITTLE_ENDIAN ? LITTLE_ENDIAN : BIG_ENDIAN);
+        buffer.put(checksum ? CHECKSUM : 0);
+        buffer.put((byte) 0);
+        buffer.put((byte) 0);
+        buffer.put((byte) 0);
+        buffer.putInt(frameSize);
+        buffer.putLong(count);
+        ((Buffer) buffer).flip();
+        writeFully(channel, buffer);
+    }
+
+    static Header readHeader(final ReadableByteChannel channel, final byte type) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        readFully(channel, buffer);
+        ((Buffer) buffer).flip();
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a primitive collection stream");
+        }
+        final short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version " + version);
+        }
+        final byte actualType = buffer.get();
+        if (actualType != type) {
+            throw new IOException("Wrong element type " + actualType + ", required " + type);
+        }
+        final byte order = buffer.get();
+        if (order != LITTLE_ENDIAN && order != BIG_ENDIAN) {
+            throw new IOException("Wrong byte order " + order);
+        }
+        final byte flags = buffer.get();
+        if ((flags & ~CHECKSUM) != 0) {
+            throw new IOException("Unknown flags " + flags);
+        }
+        ((Buffer) buffer).position(buffer.position() + 3);
+        final int frameSize = buffer.getInt();
+        if (frameSize <= 0 || frameSize > MAX_FRAME_SIZE) {
+            throw new IOException("Wrong frame size " + frameSize);
+        }
+        final long count = buffer.getLong();
+        if (count < 0) {
+            throw new IOException("Wrong element count " + count);
+        }
+        return new Header(order == LITTLE_ENDIAN ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN,
+                flags == CHECKSUM, frameSize, count);
+    }
+
+    /**
+     * Writes the remaining bytes of the frame, followed by their CRC32 when crc is not null.
+     */
+    static void writeFrame(final WritableByteChannel channel, final ByteBuffer frame, final CRC32 crc) throws IOException {
+        if (crc == null) {
+            writeFully(channel, frame);
+        } else {
+            crc.reset();
+            crc.update(frame.duplicate());
+            writeFully(channel, frame);
+            final ByteBuffer value = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);
+            value.putInt(0, (int) crc.getValue());
+            writeFully(channel, value);
+        }
+    }
+
+    /**
+     * Fills the frame up to its limit and flips it, checking the trailing CRC32 when crc is not null.
+     */
+    static void readFrame(final ReadableByteChannel channel, final ByteBuffer frame, final CRC32 crc) throws IOException {
+        readFully(channel, frame);
+        ((Buffer) frame).flip();
+        if (crc != null) {
+            final ByteBuffer value = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);
+            readFully(channel, value);
+            crc.reset();
+            crc.update(frame.duplicate());
+            if ((int) crc.getValue() != value.getInt(0)) {
+                throw new IOException("Checksum mismatch");
+            }
+        }
+    }
+
+    private static void writeFully(final WritableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(final ReadableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of stream");
+            }
+        }
+    }
+
+    static void put(final ByteBuffer buffer, final double[] chunk, final int length) {
+        buffer.asDoubleBuffer().put(chunk, 0, length);
+        ((Buffer) buffer).position(buffer.position() + length * Double.BYTES);
+    }
+
+    static void put(final ByteBuffer buffer, final float[] chunk, final int length) {
+        buffer.asFloatBuffer().put(chunk, 0, length);
+        ((Buffer) buffer).position(buffer.position() + length * Float.BYTES);
+    }
+
+    static void put(final ByteBuffer buffer, final long[] chunk, final int length) {
+        buffer.asLongBuffer().put(chunk, 0, length);
+        ((Buffer) buffer).position(buffer.position() + length * Long.BYTES);
+    }
+
+    static void put(final ByteBuffer buffer, final int[] chunk, final int length) {
+        buffer.asIntBuffer().put(chunk, 0, length);
+        ((Buffer) buffer).position(buffer.position() + length * Integer.BYTES);
+    }
+
+    static void put(final ByteBuffer buffer, final short[] chunk, final int length) {
+        buffer.asShortBuffer().put(chunk, 0, length);
+        ((Buffer) buffer).position(buffer.position() + length * Short.BYTES);
+    }
+
+    static void put(final ByteBuffer buffer, final byte[] chunk, final int length) {
+        buffer.put(chunk, 0, length);
+    }
+
+    static void get(final ByteBuffer buffer, final double[] chunk, final int offset, final int length) {
+        buffer.asDoubleBuffer().get(chunk, offset, length);
+        ((Buffer) buffer).position(buffer.position() + length * Double.BYTES);
+    }
+
+    static void get(final ByteBuffer buffer, final float[] chunk, final int offset, final int length) {
+        buffer.asFloatBuffer().get(chunk, offset, length);
+        ((Buffer) buffer).position(buffer.position() + length * Float.BYTES);
+    }
+
+    static void get(final ByteBuffer buffer, final long[] chunk, final int offset, final int length) {
+        buffer.asLongBuffer().get(chunk, offset, length);
+        ((Buffer) buffer).position(buffer.position() + length * Long.BYTES);
+    }
+
+    static void get(final ByteBuffer buffer, final int[] chunk, final int offset, final int length) {
+        buffer.asIntBuffer().get(chunk, offset, length);
+        ((Buffer) buffer).position(buffer.position() + length * Integer.BYTES);
+    }
+
+    static void get(final ByteBuffer buffer, final short[] chunk, final int offset, final int length) {
+        buffer.asShortBuffer().get(chunk, offset, length);
+        ((Buffer) buffer).position(buffer.position() + length * Short.BYTES);
+    }
+
+    static void get(final ByteBuffer buffer, final byte[] chunk, final int offset, final int length) {
+        buffer.get(chunk, offset, length);
+    }
+}
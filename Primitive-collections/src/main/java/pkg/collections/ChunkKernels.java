@@ -0,0 +1,82 @@
+package pkg.collections;
+
+/**
+ * Reductions over a single chunk. On Java 17 and newer this class is replaced by the
+ * multi-release version, which uses the Vector API when the jdk.incubator.vector module is present.
+ */
+final class ChunkKernels {
+    private ChunkKernels() {
+    }
+
+    static double sum(final double[] chunk, final int length) {
+        return ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static double max(final double[] chunk, final int length) {
+        return ScalarChunkKernels.max(chunk, length);
+    }
+
+    static double min(final double[] chunk, final int length) {
+        return ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final float[] chunk, final int length) {
+        return ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static float max(final float[] chunk, final int length) {
+        return ScalarChunkKernels.max(chunk, length);
+    }
+
+    static float min(final float[] chunk, final int length) {
+        return ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final long[] chunk, final int length) {
+        return ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static long max(final long[] chunk, final int length) {
+        return ScalarChunkKernels.max(chunk, length);
+    }
+
+    static long min(final long[] chunk, final int length) {
+        return ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final int[] chunk, final int length) {
+        return ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static int max(final int[] chunk, final int length) {
+        return ScalarChunkKernels.max(chunk, length);
+    }
+
+    static int min(final int[] chunk, final int length) {
+        return ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final short[] chunk, final int length) {
+        return ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static short max(final short[] chunk, final int length) {
+        return ScalarChunkKernels.max(chunk, length);
+    }
+
+    static short min(final short[] chunk, final int length) {
+        return ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final byte[] chunk, final int length) {
+        return ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static byte max(final byte[] chunk, final int length) {
+        return ScalarChunkKernels.max(chunk, length);
+    }
+
+    static byte min(final byte[] chunk, final int length) {
+        return ScalarChunkKernels.min(chunk, length);
+    }
+}
@@ -0,0 +1,155 @@
+package pkg.collections;
+
+import java.util.Arrays;
+
+/**
+ * Sorting of a single chunk. long, int and short use an LSD radix sort over bytes that skips the bytes all
+ * values share, it beats Arrays.sort on chunk sized arrays. Floating point values keep Arrays.sort for its
+ * ordering of NaN and -0.0, byte keeps it because it counts values already.
+ */
+final class ChunkSorting {
+    // Below this length the radix passes cost more than the insertion sort of Arrays.sort
+    private static final int RADIX_THRESHOLD = 64;
+    private static final int RADIX = 1 << Byte.SIZE;
+
+    private ChunkSorting() {
+    }
+
+    static void sort(final double[] chunk, final int length, final double[] scratch) {
+        Arrays.sort(chunk, 0, length);
+    }
+
+    static void sort(final float[] chunk, final int length, final float[] scratch) {
+        Arrays.sort(chunk, 0, length);
+    }
+
+    static void sort(final byte[] chunk, final int length, final byte[] scratch) {
+        Arrays.sort(chunk, 0, length);
+    }
+
+    static void sort(final long[] chunk, final int length, final long[] scratch) {
+        if (length < RADIX_THRESHOLD) {
+            Arrays.sort(chunk, 0, length);
+            return;
+        }
+        final int[] counts = new int[Long.BYTES * RADIX];
+        for (int i = 0; i < length; i++) {
+            final long value = chunk[i];
+            for (int digit = 0; digit < Long.BYTES; digit++) {
+                counts[digit * RADIX + key(value, digit)]++;
+            }
+        }
+        long[] source = chunk;
+        long[] target = scratch;
+        for (int digit = 0; digit < Long.BYTES; digit++) {
+            final int offset = digit * RADIX;
+            if (counts[offset + key(source[0], digit)] == length) {
+                continue;
+            }
+            toOffsets(counts, offset);
+            for (int i = 0; i < length; i++) {
+                final long value = source[i];
+                final int bucket = offset + key(value, digit);
+                target[counts[bucket]] = value;
+                counts[bucket]++;
+            }
+            final long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != chunk) {
+            System.arraycopy(source, 0, chunk, 0, length);
+        }
+    }
+
+    static void sort(final int[] chunk, final int length, final int[] scratch) {
+        if (length < RADIX_THRESHOLD) {
+            Arrays.sort(chunk, 0, length);
+            return;
+        }
+        final int[] counts = new int[Integer.BYTES * RADIX];
+        for (int i = 0; i < length; i++) {
+            final int value = chunk[i];
+            for (int digit = 0; digit < Integer.BYTES; digit++) {
+                counts[digit * RADIX + key(value, digit, Integer.BYTES)]++;
+            }
+        }
+        int[] source = chunk;
+        int[] target = scratch;
+        for (int digit = 0; digit < Integer.BYTES; digit++) {
+            final int offset = digit * RADIX;
+            if (counts[offset + key(source[0], digit, Integer.BYTES)] == length) {
+                continue;
+            }
+            toOffsets(counts, offset);
+            for (int i = 0; i < length; i++) {
+                final int value = source[i];
+                final int bucket = offset + key(value, digit, Integer.BYTES);
+                target[counts[bucket]] = value;
+                counts[bucket]++;
+            }
+            final int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != chunk) {
+            System.arraycopy(source, 0, chunk, 0, length);
+        }
+    }
+
+    static void sort(final short[] chunk, final int length, final short[] scratch) {
+        if (length < RADIX_THRESHOLD) {
+            Arrays.sort(chunk, 0, length);
+            return;
+        }
+        final int[] counts = new int[Short.BYTES * RADIX];
+        for (int i = 0; i < length; i++) {
+            final short value = chunk[i];
+            for (int digit = 0; digit < Short.BYTES; digit++) {
+                counts[digit * RADIX + key(value, digit, Short.BYTES)]++;
+            }
+        }
+        short[] source = chunk;
+        short[] target = scratch;
+        for (int digit = 0; digit < Short.BYTES; digit++) {
+            final int offset = digit * RADIX;
+            if (counts[offset + key(source[0], digit, Short.BYTES)] == length) {
+                continue;
+            }
+            toOffsets(counts, offset);
+            for (int i = 0; i < length; i++) {
+                final short value = source[i];
+                final int bucket = offset + key(value, digit, Short.BYTES);
+                target[counts[bucket]] = value;
+                counts[bucket]++;
+            }
+            final short[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != chunk) {
+            System.arraycopy(source, 0, chunk, 0, length);
+        }
+    }
+
+    // Byte digit of the value, the sign bit of the top byte is flipped so negative values sort first
+    private static int key(final long value, final int digit) {
+        final int bits = (int) (value >>> (digit * Byte.SIZE)) & (RADIX - 1);
+        return digit == Long.BYTES - 1 ? bits ^ (RADIX >> 1) : bits;
+    }
+
+    private static int key(final int value, final int digit, final int bytes) {
+        final int bits = (value >>> (digit * Byte.SIZE)) & (RADIX - 1);
+        return digit == bytes - 1 ? bits ^ (RADIX >> 1) : bits;
+    }
+
+    // Turns the counts of one digit into the first position of every bucket
+    private static void toOffsets(final int[] counts, final int offset) {
+        int position = 0;
+        for (int bucket = offset; bucket < offset + RADIX; bucket++) {
+            final int count = counts[bucket];
+            counts[bucket] = position;
+            position = position + count;
+        }
+    }
+}
@@ -7,8 +7,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 class CodeGenerator {
     public static void main(final String[] args) throws IOException {
@@ -20,58 +23,104 @@ class CodeGenerator {
 
         final String[] classNames = new String[]{"Float", "Long", "Int", "Short", "Byte"};
         final String[] typeNames = new String[]{"float", "long", "int", "short", "byte"};
+        final String[] wrapperNames = new String[]{"Float", "Long", "Integer", "Short", "Byte"};
+        // Types used between "// Start widen" and "// Stop widen", where the JDK has no narrower
+        // primitive specialization (IntStream for byte, DoubleBinaryOperator for float, ...)
+        final String[] wideClassNames = new String[]{"Double", "Long", "Int", "Int", "Int"};
+        final String[] wideTypeNames = new String[]{"double", "long", "int", "int", "int"};
+        final String[] wideWrapperNames = new String[]{"Double", "Long", "Integer", "Integer", "Integer"};
 
-        if (classNames.length != typeNames.length) {
+        if (classNames.length != typeNames.length || classNames.length != wrapperNames.length
+                || classNames.length != wideClassNames.length || classNames.length != wideTypeNames.length
+                || classNames.length != wideWrapperNames.length) {
             System.out.println("Size not equal");
             System.exit(1);
         }
 
+        // Every template is named after its double version and is generated for all other types,
+        // the floating point ones for float only
+        final String[] sourceTemplates = new String[]{"PrimitiveDoubleCollection", "PrimitiveDoubleConsumer",
+                "PrimitiveDoubleXorCollection", "PrimitiveDoubleConcurrentCollection",
+                "PrimitiveDoubleStampedCollection", "PrimitiveDoubleSet", "PrimitiveDoubleDoubleMap",
+                "PrimitiveDoublePredicate"};
+        final String[] testTemplates = new String[]{"PrimitiveDoubleCollectionTest", "PrimitiveDoubleXorCollectionTest",
+                "PrimitiveDoubleConcurrentCollectionTest", "PrimitiveDoubleStampedCollectionTest", "PrimitiveDoubleSetTest",
+                "PrimitiveDoubleDoubleMapTest"};
+        final List<String> floatingPointTemplates = Arrays.asList("PrimitiveDoubleXorCollection",
+                "PrimitiveDoubleXorCollectionTest");
+
         for (String directory : new String[]{sourceDirectory, testDirectory}) {
             final Path path = Paths.get(directory);
 
-            List<String> lines = null;
+            String[] templates = null;
             if (directory.equals(sourceDirectory)) {
-                lines = Files.readAllLines(path.resolve("PrimitiveDoubleCollection.java"));
+                templates = sourceTemplates;
             } else if (directory.equals(testDirectory)) {
-                lines = Files.readAllLines(path.resolve("PrimitiveDoubleCollectionTest.java"));
+                templates = testTemplates;
             }
 
-            for (int i = 0; i < classNames.length; i++) {
-                final String className = classNames[i];
-                final String typeName = typeNames[i];
+            for (final String template : templates) {
+                final List<String> lines = Files.readAllLines(path.resolve(template + ".java"));
 
-                File file = null;
-                if (directory.equals(sourceDirectory)) {
-                    file = path.resolve("Primitive" + className + "Collection.java").toFile();
-                } else if (directory.equals(testDirectory)) {
-                    file = path.resolve("Primitive" + className + "CollectionTest.java").toFile();
-                }
+                for (int i = 0; i < classNames.length; i++) {
+                    final String className = classNames[i];
+                    final String typeName = typeNames[i];
 
-                if (file.exists()) {
-                    file.delete();
-                }
+                    if (floatingPointTemplates.contains(template) && !typeName.equals("float")) {
+                        continue;
+                    }
 
-                boolean replace = true;
-                try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                    for (final String line : lines) {
-                        if (line.contains("// Start replace")) {
-                            replace = true;
-                            continue;
-                        }
-                        if (line.contains("// Stop replace")) {
-                            replace = false;
-                            continue;
-                        }
-                        String newLine = line;
-                        if (replace) {
-                            newLine = line.replaceAll("Double", className).replaceAll("double", typeName);
-                        }
-                        writer.write(newLine);
-                        writer.newLine();
+                    final File file = path.resolve(template.replace("Double", className) + ".java").toFile();
+
+                    if (file.exists()) {
+                        file.delete();
                     }
 
+                    boolean replace = true;
+                    boolean widen = false;
+                    // DoubleBuffer becomes ByteBuffer in the byte version, which can repeat an import
+                    final Set<String> imports = new HashSet<>();
+                    try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+                        for (final String line : lines) {
+                            if (line.contains("// Start replace")) {
+                                replace = true;
+                                continue;
+                            }
+                            if (line.contains("// Stop replace")) {
+                                replace = false;
+                                continue;
+                            }
+                            if (line.contains("// Start widen")) {
+                                widen = true;
+                                continue;
+                            }
+                            if (line.contains("// Stop widen")) {
+                                widen = false;
+                                continue;
+                            }
+                            String newLine = line;
+                            if (widen) {
+                                newLine = replace(line, wideClassNames[i], wideTypeNames[i], wideWrapperNames[i]);
+                            } else if (replace) {
+                                newLine = replace(line, className, typeName, wrapperNames[i]);
+                            }
+                            if (newLine.startsWith("import ") && !imports.add(newLine)) {
+                                continue;
+                            }
+                            writer.write(newLine);
+                            writer.newLine();
+                        }
+
+                    }
                 }
             }
         }
     }
+
+    private static String replace(final String line, final String className, final String typeName,
+                                  final String wrapperName) {
+        return line.replaceAll("\\bDouble\\b", wrapperName)
+                .replaceAll("Double", className)
+                .replaceAll("double", typeName);
+    }
 }
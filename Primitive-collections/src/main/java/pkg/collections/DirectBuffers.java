@@ -0,0 +1,63 @@
+package pkg.collections;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases the memory of direct and mapped buffers without waiting for the garbage collector.
+ * Uses Unsafe.invokeCleaner on Java 9+ and the buffer cleaner on Java 8. If neither is accessible
+ * the memory is released when the buffer becomes unreachable.
+ */
+final class DirectBuffers {
+    private static final Releaser RELEASER = createReleaser();
+
+    private DirectBuffers() {
+    }
+
+    static void release(final ByteBuffer buffer) {
+        if (buffer != null && buffer.isDirect()) {
+            RELEASER.release(buffer);
+        }
+    }
+
+    private interface Releaser {
+        void release(ByteBuffer buffer);
+    }
+
+    private static Releaser createReleaser() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+            return buffer -> {
+                try {
+                    invokeCleaner.invoke(unsafe, buffer);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Can't release direct buffer", e);
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // Java 8, fall through
+        }
+        try {
+            final Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            final Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+            return buffer -> {
+                try {
+                    final Object cleaner = cleanerMethod.invoke(buffer);
+                    if (cleaner != null) {
+                        cleanMethod.invoke(cleaner);
+                    }
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Can't release direct buffer", e);
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            return buffer -> {
+            };
+        }
+    }
+}
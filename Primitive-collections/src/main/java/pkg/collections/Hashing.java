@@ -0,0 +1,98 @@
+package pkg.collections;
+
+/**
+ * Hashing and key equality for the open addressing sets and maps. Floating point keys are compared by
+ * their bits, like Double.equals(): NaN equals NaN and 0.0 differs from -0.0.
+ */
+final class Hashing {
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private Hashing() {
+    }
+
+    static int hash(final double key) {
+        return mix(Double.doubleToLongBits(key));
+    }
+
+    static int hash(final float key) {
+        return mix(Float.floatToIntBits(key));
+    }
+
+    static int hash(final long key) {
+        return mix(key);
+    }
+
+    static int hash(final int key) {
+        return mix(key);
+    }
+
+    static int hash(final short key) {
+        return mix(key);
+    }
+
+    static int hash(final byte key) {
+        return mix(key);
+    }
+
+    // Fibonacci hashing, folded so the low bits used by the table mask depend on all bits of the key
+    private static int mix(final long bits) {
+        final long h = bits * 0x9E3779B97F4A7C15L;
+        final int folded = (int) (h ^ (h >>> 32));
+        return folded ^ (folded >>> 16);
+    }
+
+    static boolean equal(final double first, final double second) {
+        return Double.doubleToLongBits(first) == Double.doubleToLongBits(second);
+    }
+
+    static boolean equal(final float first, final float second) {
+        return Float.floatToIntBits(first) == Float.floatToIntBits(second);
+    }
+
+    static boolean equal(final long first, final long second) {
+        return first == second;
+    }
+
+    static boolean equal(final int first, final int second) {
+        return first == second;
+    }
+
+    static boolean equal(final short first, final short second) {
+        return first == second;
+    }
+
+    static boolean equal(final byte first, final byte second) {
+        return first == second;
+    }
+
+    static void checkLoadFactor(final float loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor = " + loadFactor);
+        }
+    }
+
+    /**
+     * Smallest power of two table that holds expectedSize entries below the load factor.
+     */
+    static int tableSize(final int expectedSize, final float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size = " + expectedSize);
+        }
+        final long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size = " + expectedSize);
+        }
+        int capacity = 2;
+        while (capacity < needed) {
+            capacity = capacity << 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Number of entries that trigger a resize, always leaves a free slot to end probing.
+     */
+    static int maxFill(final int capacity, final float loadFactor) {
+        return Math.min((int) Math.ceil(capacity * (double) loadFactor), capacity - 1);
+    }
+}
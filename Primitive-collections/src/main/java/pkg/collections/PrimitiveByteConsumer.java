@@ -0,0 +1,6 @@
+package pkg.collections;
+
+@FunctionalInterface
+public interface PrimitiveByteConsumer {
+    void accept(byte value);
+}
@@ -0,0 +1,6 @@
+package pkg.collections;
+
+@FunctionalInterface
+public interface PrimitiveBytePredicate {
+    boolean test(byte value);
+}
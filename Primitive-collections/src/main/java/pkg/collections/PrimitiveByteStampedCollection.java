@@ -0,0 +1,305 @@
+package pkg.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * PrimitiveByteCollection for many readers and few writers, guarded by a StampedLock.
+ * <p>
+ * Readers take no lock on the fast path: they read optimistically and only take the read lock when a
+ * writer got in between. Writers take the write lock. Scans work on the chunks and size seen when they
+ * start and validate every chunk on its own, so a set() only makes its chunk be read again. Writers never
+ * change a chunk that is dropped by clean() or values past the size, so scans stay consistent per chunk.
+ */
+public class PrimitiveByteStampedCollection {
+    private static final int SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << SHIFT; // 1024
+    private static final int MAX_CHUNKS = (Integer.MAX_VALUE >> SHIFT) + 1;
+
+    private final StampedLock lock = new StampedLock();
+
+    private byte[][] array;
+    private int chunkCount;
+    private int size;
+
+    public PrimitiveByteStampedCollection() {
+        array = new byte[1][CHUNK_SIZE];
+        chunkCount = 1;
+    }
+
+    public int getSize() {
+        final long stamp = lock.tryOptimisticRead();
+        final int result = size;
+        if (lock.validate(stamp)) {
+            return result;
+        }
+        final long readStamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    public byte get(final int index) {
+        final long stamp = lock.tryOptimisticRead();
+        final byte[][] chunks = array;
+        final int currentSize = size;
+        if (lock.validate(stamp)) {
+            RangeCheck.check(index, currentSize);
+            final byte value = chunks[index >> SHIFT][index & (CHUNK_SIZE - 1)];
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        final long readStamp = lock.readLock();
+        try {
+            RangeCheck.check(index, size);
+            return array[index >> SHIFT][index & (CHUNK_SIZE - 1)];
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    public void add(final byte value) {
+        final long stamp = lock.writeLock();
+        try {
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Collection is full");
+            }
+            final int subIndex = size & (CHUNK_SIZE - 1);
+            if (subIndex == 0 && size > 0) {
+                addChunk();
+            }
+            array[chunkCount - 1][subIndex] = value;
+            size = size + 1;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void addAll(final byte[] source) {
+        Objects.requireNonNull(source);
+        addAll(source, 0, source.length);
+    }
+
+    public void addAll(final byte[] source, final int offset, final int length) {
+        Objects.requireNonNull(source);
+        RangeCheck.checkFromIndexSize(offset, length, source.length);
+        final long stamp = lock.writeLock();
+        try {
+            if (length > Integer.MAX_VALUE - size) {
+                throw new IllegalStateException("Collection is full");
+            }
+            int position = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                final int subIndex = size & (CHUNK_SIZE - 1);
+                if (subIndex == 0 && size > 0) {
+                    addChunk();
+                }
+                final int count = Math.min(remaining, CHUNK_SIZE - subIndex);
+                System.arraycopy(source, position, array[chunkCount - 1], subIndex, count);
+                size = size + count;
+                position = position + count;
+                remaining = remaining - count;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Called with the write lock held
+    private void addChunk() {
+        if (chunkCount == array.length) {
+            int newLength = array.length + (array.length >> 1) + 1;
+            if (newLength > MAX_CHUNKS || newLength < 0) {
+                newLength = MAX_CHUNKS;
+            }
+            array = Arrays.copyOf(array, newLength);
+        }
+        array[chunkCount] = new byte[CHUNK_SIZE];
+        chunkCount = chunkCount + 1;
+    }
+
+    public void set(final int index, final byte value) {
+        final long stamp = lock.writeLock();
+        try {
+            RangeCheck.check(index, size);
+            array[index >> SHIFT][index & (CHUNK_SIZE - 1)] = value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clean() {
+        final long stamp = lock.writeLock();
+        try {
+            // New chunks, running scans keep reading the old ones
+            array = new byte[1][CHUNK_SIZE];
+            chunkCount = 1;
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public double sum() {
+        final Scan scan = new Scan();
+        scan.checkNotEmpty();
+        return scan.sum();
+    }
+
+    public double average() {
+        final Scan scan = new Scan();
+        scan.checkNotEmpty();
+        return scan.sum() / scan.size;
+    }
+
+    public byte max() {
+        final Scan scan = new Scan();
+        scan.checkNotEmpty();
+        byte max = scan.chunkMax(0);
+        for (int c = 1; c < scan.chunkCount(); c++) {
+            final byte chunkMax = scan.chunkMax(c);
+            if (chunkMax > max) {
+                max = chunkMax;
+            }
+        }
+        return max;
+    }
+
+    public byte min() {
+        final Scan scan = new Scan();
+        scan.checkNotEmpty();
+        byte min = scan.chunkMin(0);
+        for (int c = 1; c < scan.chunkCount(); c++) {
+            final byte chunkMin = scan.chunkMin(c);
+            if (chunkMin < min) {
+                min = chunkMin;
+            }
+        }
+        return min;
+    }
+
+    public void forEach(final PrimitiveByteConsumer action) {
+        Objects.requireNonNull(action);
+        final Scan scan = new Scan();
+        final byte[] buffer = new byte[CHUNK_SIZE];
+        for (int c = 0; c < scan.chunkCount(); c++) {
+            final int length = scan.chunkLength(c);
+            scan.copy(c, buffer);
+            for (int i = 0; i < length; i++) {
+                action.accept(buffer[i]);
+            }
+        }
+    }
+
+    // The chunks and size when a scan starts, every chunk is then read optimistically on its own
+    private final class Scan {
+        private final byte[][] chunks;
+        private final int size;
+
+        private Scan() {
+            long stamp = lock.tryOptimisticRead();
+            byte[][] currentChunks = array;
+            int currentSize = PrimitiveByteStampedCollection.this.size;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    currentChunks = array;
+                    currentSize = PrimitiveByteStampedCollection.this.size;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            chunks = currentChunks;
+            size = currentSize;
+        }
+
+        private void checkNotEmpty() {
+            if (size == 0) {
+                throw new IllegalStateException("Can't calculate, collection is empty");
+            }
+        }
+
+        private int chunkCount() {
+            return (int) (((long) size + CHUNK_SIZE - 1) >> SHIFT);
+        }
+
+        private int chunkLength(final int chunkIndex) {
+            return Math.min(CHUNK_SIZE, size - (chunkIndex << SHIFT));
+        }
+
+        private double sum() {
+            double sum = 0;
+            for (int c = 0; c < chunkCount(); c++) {
+                final long stamp = lock.tryOptimisticRead();
+                double chunkSum = ChunkKernels.sum(chunks[c], chunkLength(c));
+                if (!lock.validate(stamp)) {
+                    final long readStamp = lock.readLock();
+                    try {
+                        chunkSum = ChunkKernels.sum(chunks[c], chunkLength(c));
+                    } finally {
+                        lock.unlockRead(readStamp);
+                    }
+                }
+                sum = sum + chunkSum;
+            }
+            return sum;
+        }
+
+        private byte chunkMax(final int chunkIndex) {
+            final long stamp = lock.tryOptimisticRead();
+            final byte max = ChunkKernels.max(chunks[chunkIndex], chunkLength(chunkIndex));
+            if (lock.validate(stamp)) {
+                return max;
+            }
+            final long readStamp = lock.readLock();
+            try {
+                return ChunkKernels.max(chunks[chunkIndex], chunkLength(chunkIndex));
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        private byte chunkMin(final int chunkIndex) {
+            final long stamp = lock.tryOptimisticRead();
+            final byte min = ChunkKernels.min(chunks[chunkIndex], chunkLength(chunkIndex));
+            if (lock.validate(stamp)) {
+                return min;
+            }
+            final long readStamp = lock.readLock();
+            try {
+                return ChunkKernels.min(chunks[chunkIndex], chunkLength(chunkIndex));
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        private void copy(final int chunkIndex, final byte[] destination) {
+            final long stamp = lock.tryOptimisticRead();
+            System.arraycopy(chunks[chunkIndex], 0, destination, 0, chunkLength(chunkIndex));
+            if (lock.validate(stamp)) {
+                return;
+            }
+            final long readStamp = lock.readLock();
+            try {
+                System.arraycopy(chunks[chunkIndex], 0, destination, 0, chunkLength(chunkIndex));
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        return "[size = " + getSize() + "]";
+    }
+}
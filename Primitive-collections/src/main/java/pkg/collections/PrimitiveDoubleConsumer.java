@@ -0,0 +1,6 @@
+package pkg.collections;
+
+@FunctionalInterface
+public interface PrimitiveDoubleConsumer {
+    void accept(double value);
+}
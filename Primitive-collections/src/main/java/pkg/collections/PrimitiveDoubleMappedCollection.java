@@ -0,0 +1,331 @@
+package pkg.collections;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * PrimitiveDoubleCollection stored in a memory-mapped file. Every chunk is a mapped region of the file,
+ * so opening is immediate and the operating system pages values in on first access.
+ * <p>
+ * File layout: a {@value #HEADER_SIZE} byte header (magic, version, type tag, byte order, chunk shift and
+ * element count) followed by the chunks. The element count in the header is only updated by
+ * {@link #force()} and {@link #close()}, after the values have been written to the file, so a reader never
+ * sees elements that are not durable.
+ */
+public class PrimitiveDoubleMappedCollection implements AutoCloseable {
+    static final int MAGIC = 0x50434F4C; // "PCOL"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int TYPE_OFFSET = 6;
+    private static final int ORDER_OFFSET = 7;
+    private static final int SHIFT_OFFSET = 8;
+    private static final int SIZE_OFFSET = 16;
+
+    private static final byte BIG_ENDIAN = 0;
+    private static final byte LITTLE_ENDIAN = 1;
+
+    private static final int DEFAULT_SHIFT = 20; // 1M values, 8 MiB per chunk
+    private static final int MIN_SHIFT = 10;
+    private static final int MAX_SHIFT = 27;
+
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private final ByteOrder order;
+    private final int shift;
+    private final int chunkSize;
+
+    private MappedByteBuffer header;
+    private MappedByteBuffer[] chunks;
+    private int chunkCount;
+
+    private MappedByteBuffer lastChunk;
+    private int lastChunkPosition;
+
+    private long size;
+
+    private PrimitiveDoubleMappedCollection(final FileChannel channel, final boolean readOnly, final ByteOrder order,
+                                            final int shift, final long size) throws IOException {
+        this.channel = channel;
+        this.readOnly = readOnly;
+        this.order = order;
+        this.shift = shift;
+        this.chunkSize = 1 << shift;
+        this.size = size;
+
+        header = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+        header.order(ByteOrder.BIG_ENDIAN);
+
+        final int chunks = (int) ((size + chunkSize - 1) >> shift);
+        this.chunks = new MappedByteBuffer[Math.max(chunks, 1)];
+        for (int i = 0; i < chunks; i++) {
+            addChunk();
+        }
+        if (chunkCount == 0) {
+            if (!readOnly) {
+                addChunk();
+            }
+        } else {
+            lastChunkPosition = (int) (size - ((long) (chunkCount - 1) << shift));
+        }
+    }
+
+    public static PrimitiveDoubleMappedCollection create(final Path path) throws IOException {
+        return create(path, DEFAULT_SHIFT);
+    }
+
+    public static PrimitiveDoubleMappedCollection create(final Path path, final int chunkShift) throws IOException {
+        Objects.requireNonNull(path);
+        if (chunkShift < MIN_SHIFT || chunkShift > MAX_SHIFT) {
+            throw new IllegalArgumentException("Chunk shift = " + chunkShift);
+        }
+        final FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putShort(VERSION_OFFSET, VERSION);
+            buffer.put(TYPE_OFFSET, TypeTag.DOUBLE);
+            buffer.put(ORDER_OFFSET, ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? LITTLE_ENDIAN : BIG_ENDIAN);
+            buffer.putInt(SHIFT_OFFSET, chunkShift);
+            buffer.putLong(SIZE_OFFSET, 0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+            channel.force(true);
+            return new PrimitiveDoubleMappedCollection(channel, false, ByteOrder.nativeOrder(), chunkShift, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static PrimitiveDoubleMappedCollection open(final Path path) throws IOException {
+        return open(path, false);
+    }
+
+    public static PrimitiveDoubleMappedCollection open(final Path path, final boolean readOnly) throws IOException {
+        Objects.requireNonNull(path);
+        final FileChannel channel = readOnly
+                ? FileChannel.open(path, StandardOpenOption.READ)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) {
+                    throw new IOException("File is too short for a header: " + path);
+                }
+            }
+            if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+                throw new IOException("Not a primitive collection file: " + path);
+            }
+            final short version = buffer.getShort(VERSION_OFFSET);
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + ": " + path);
+            }
+            final byte type = buffer.get(TYPE_OFFSET);
+            if (type != TypeTag.DOUBLE) {
+                throw new IOException("Wrong element type " + type + ": " + path);
+            }
+            final byte orderTag = buffer.get(ORDER_OFFSET);
+            if (orderTag != LITTLE_ENDIAN && orderTag != BIG_ENDIAN) {
+                throw new IOException("Wrong byte order " + orderTag + ": " + path);
+            }
+            final int shift = buffer.getInt(SHIFT_OFFSET);
+            if (shift < MIN_SHIFT || shift > MAX_SHIFT) {
+                throw new IOException("Wrong chunk shift " + shift + ": " + path);
+            }
+            final long size = buffer.getLong(SIZE_OFFSET);
+            if (size < 0 || size > (channel.size() - HEADER_SIZE) >> 3) {
+                throw new IOException("Wrong element count " + size + ": " + path);
+            }
+            final ByteOrder order = orderTag == LITTLE_ENDIAN ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            return new PrimitiveDoubleMappedCollection(channel, readOnly, order, shift, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getSize() {
+        checkOpen();
+        return size;
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    public double get(final long index) {
+        checkOpen();
+        RangeCheck.check(index, size);
+        return chunks[(int) (index >>> shift)].getDouble(((int) index & (chunkSize - 1)) << 3);
+    }
+
+    public void add(final double value) throws IOException {
+        checkWritable();
+        if (lastChunkPosition == chunkSize) {
+            addChunk();
+        }
+        lastChunk.putDouble(lastChunkPosition << 3, value);
+        lastChunkPosition = lastChunkPosition + 1;
+        size = size + 1;
+    }
+
+    public void set(final long index, final double value) {
+        checkWritable();
+        RangeCheck.check(index, size);
+        chunks[(int) (index >>> shift)].putDouble(((int) index & (chunkSize - 1)) << 3, value);
+    }
+
+    private void addChunk() throws IOException {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + (chunks.length >> 1) + 1);
+        }
+        final long position = HEADER_SIZE + ((long) chunkCount << (shift + 3));
+        final long length;
+        if (readOnly) {
+            // The file can end inside the last chunk, read only mappings can't grow it
+            length = Math.min((long) chunkSize << 3, channel.size() - position);
+        } else {
+            length = (long) chunkSize << 3;
+        }
+        lastChunk = channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, position, length);
+        lastChunk.order(order);
+        chunks[chunkCount] = lastChunk;
+        chunkCount = chunkCount + 1;
+        lastChunkPosition = 0;
+    }
+
+    public double sum() {
+        checkNotEmpty();
+        double sum = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            final ByteBuffer chunk = chunks[i];
+            final int end = chunkLength(i) << 3;
+            for (int j = 0; j < end; j = j + 8) {
+                sum = sum + chunk.getDouble(j);
+            }
+        }
+        return sum;
+    }
+
+    public double average() {
+        return sum() / size;
+    }
+
+    public double max() {
+        checkNotEmpty();
+        double max = chunks[0].getDouble(0);
+        for (int i = 0; i < chunkCount; i++) {
+            final ByteBuffer chunk = chunks[i];
+            final int end = chunkLength(i) << 3;
+            for (int j = 0; j < end; j = j + 8) {
+                final double v = chunk.getDouble(j);
+                if (v > max) {
+                    max = v;
+                }
+            }
+        }
+        return max;
+    }
+
+    public double min() {
+        checkNotEmpty();
+        double min = chunks[0].getDouble(0);
+        for (int i = 0; i < chunkCount; i++) {
+            final ByteBuffer chunk = chunks[i];
+            final int end = chunkLength(i) << 3;
+            for (int j = 0; j < end; j = j + 8) {
+                final double v = chunk.getDouble(j);
+                if (v < min) {
+                    min = v;
+                }
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Writes all values to the file, then publishes the element count in the header.
+     */
+    public void force() {
+        checkWritable();
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].force();
+        }
+        header.putLong(SIZE_OFFSET, size);
+        header.force();
+    }
+
+    public boolean isClosed() {
+        return chunks == null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (chunks == null) {
+            return;
+        }
+        try {
+            if (!readOnly) {
+                force();
+            }
+        } finally {
+            for (int i = 0; i < chunkCount; i++) {
+                DirectBuffers.release(chunks[i]);
+            }
+            DirectBuffers.release(header);
+            chunks = null;
+            header = null;
+            lastChunk = null;
+            channel.close();
+        }
+    }
+
+    private int chunkLength(final int chunkIndex) {
+        return chunkIndex == chunkCount - 1 ? lastChunkPosition : chunkSize;
+    }
+
+    private void checkOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("Collection is closed");
+        }
+    }
+
+    private void checkWritable() {
+        checkOpen();
+        if (readOnly) {
+            throw new UnsupportedOperationException("Collection is opened read-only");
+        }
+    }
+
+    private void checkNotEmpty() {
+        checkOpen();
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        if (chunks == null) {
+            return "[closed]";
+        }
+        return "[size = " + size + ", chunks = " + chunkCount + ", read-only = " + readOnly + "]";
+    }
+}
@@ -0,0 +1,6 @@
+package pkg.collections;
+
+@FunctionalInterface
+public interface PrimitiveDoublePredicate {
+    boolean test(double value);
+}
@@ -0,0 +1,309 @@
+package pkg.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * PrimitiveDoubleCollection for many readers and few writers, guarded by a StampedLock.
+ * <p>
+ * Readers take no lock on the fast path: they read optimistically and only take the read lock when a
+ * writer got in between. Writers take the write lock. Scans work on the chunks and size seen when they
+ * start and validate every chunk on its own, so a set() only makes its chunk be read again. Writers never
+ * change a chunk that is dropped by clean() or values past the size, so scans stay consistent per chunk.
+ */
+public class PrimitiveDoubleStampedCollection {
+    private static final int SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << SHIFT; // 1024
+    private static final int MAX_CHUNKS = (Integer.MAX_VALUE >> SHIFT) + 1;
+
+    private final StampedLock lock = new StampedLock();
+
+    private double[][] array;
+    private int chunkCount;
+    private int size;
+
+    public PrimitiveDoubleStampedCollection() {
+        array = new double[1][CHUNK_SIZE];
+        chunkCount = 1;
+    }
+
+    public int getSize() {
+        final long stamp = lock.tryOptimisticRead();
+        final int result = size;
+        if (lock.validate(stamp)) {
+            return result;
+        }
+        final long readStamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    public double get(final int index) {
+        final long stamp = lock.tryOptimisticRead();
+        final double[][] chunks = array;
+        final int currentSize = size;
+        if (lock.validate(stamp)) {
+            RangeCheck.check(index, currentSize);
+            final double value = chunks[index >> SHIFT][index & (CHUNK_SIZE - 1)];
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        final long readStamp = lock.readLock();
+        try {
+            RangeCheck.check(index, size);
+            return array[index >> SHIFT][index & (CHUNK_SIZE - 1)];
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    public void add(final double value) {
+        final long stamp = lock.writeLock();
+        try {
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Collection is full");
+            }
+            final int subIndex = size & (CHUNK_SIZE - 1);
+            if (subIndex == 0 && size > 0) {
+                addChunk();
+            }
+            array[chunkCount - 1][subIndex] = value;
+            size = size + 1;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void addAll(final double[] source) {
+        Objects.requireNonNull(source);
+        addAll(source, 0, source.length);
+    }
+
+    public void addAll(final double[] source, final int offset, final int length) {
+        Objects.requireNonNull(source);
+        RangeCheck.checkFromIndexSize(offset, length, source.length);
+        final long stamp = lock.writeLock();
+        try {
+            if (length > Integer.MAX_VALUE - size) {
+                throw new IllegalStateException("Collection is full");
+            }
+            int position = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                final int subIndex = size & (CHUNK_SIZE - 1);
+                if (subIndex == 0 && size > 0) {
+                    addChunk();
+                }
+                final int count = Math.min(remaining, CHUNK_SIZE - subIndex);
+                System.arraycopy(source, position, array[chunkCount - 1], subIndex, count);
+                size = size + count;
+                position = position + count;
+                remaining = remaining - count;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Called with the write lock held
+    private void addChunk() {
+        if (chunkCount == array.length) {
+            int newLength = array.length + (array.length >> 1) + 1;
+            if (newLength > MAX_CHUNKS || newLength < 0) {
+                newLength = MAX_CHUNKS;
+            }
+            array = Arrays.copyOf(array, newLength);
+        }
+        array[chunkCount] = new double[CHUNK_SIZE];
+        chunkCount = chunkCount + 1;
+    }
+
+    public void set(final int index, final double value) {
+        final long stamp = lock.writeLock();
+        try {
+            RangeCheck.check(index, size);
+            array[index >> SHIFT][index & (CHUNK_SIZE - 1)] = value;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void clean() {
+        final long stamp = lock.writeLock();
+        try {
+            // New chunks, running scans keep reading the old ones
+            array = new double[1][CHUNK_SIZE];
+            chunkCount = 1;
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Stop replace
+    public double sum() {
+        final Scan scan = new Scan();
+        scan.checkNotEmpty();
+        return scan.sum();
+    }
+
+    public double average() {
+        final Scan scan = new Scan();
+        scan.checkNotEmpty();
+        return scan.sum() / scan.size;
+    }
+    // Start replace
+
+    public double max() {
+        final Scan scan = new Scan();
+        scan.checkNotEmpty();
+        double max = scan.chunkMax(0);
+        for (int c = 1; c < scan.chunkCount(); c++) {
+            final double chunkMax = scan.chunkMax(c);
+            if (chunkMax > max) {
+                max = chunkMax;
+            }
+        }
+        return max;
+    }
+
+    public double min() {
+        final Scan scan = new Scan();
+        scan.checkNotEmpty();
+        double min = scan.chunkMin(0);
+        for (int c = 1; c < scan.chunkCount(); c++) {
+            final double chunkMin = scan.chunkMin(c);
+            if (chunkMin < min) {
+                min = chunkMin;
+            }
+        }
+        return min;
+    }
+
+    public void forEach(final PrimitiveDoubleConsumer action) {
+        Objects.requireNonNull(action);
+        final Scan scan = new Scan();
+        final double[] buffer = new double[CHUNK_SIZE];
+        for (int c = 0; c < scan.chunkCount(); c++) {
+            final int length = scan.chunkLength(c);
+            scan.copy(c, buffer);
+            for (int i = 0; i < length; i++) {
+                action.accept(buffer[i]);
+            }
+        }
+    }
+
+    // The chunks and size when a scan starts, every chunk is then read optimistically on its own
+    private final class Scan {
+        private final double[][] chunks;
+        private final int size;
+
+        private Scan() {
+            long stamp = lock.tryOptimisticRead();
+            double[][] currentChunks = array;
+            int currentSize = PrimitiveDoubleStampedCollection.this.size;
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    currentChunks = array;
+                    currentSize = PrimitiveDoubleStampedCollection.this.size;
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            chunks = currentChunks;
+            size = currentSize;
+        }
+
+        private void checkNotEmpty() {
+            if (size == 0) {
+                throw new IllegalStateException("Can't calculate, collection is empty");
+            }
+        }
+
+        private int chunkCount() {
+            return (int) (((long) size + CHUNK_SIZE - 1) >> SHIFT);
+        }
+
+        private int chunkLength(final int chunkIndex) {
+            return Math.min(CHUNK_SIZE, size - (chunkIndex << SHIFT));
+        }
+
+        // Stop replace
+        private double sum() {
+            double sum = 0;
+            for (int c = 0; c < chunkCount(); c++) {
+                final long stamp = lock.tryOptimisticRead();
+                double chunkSum = ChunkKernels.sum(chunks[c], chunkLength(c));
+                if (!lock.validate(stamp)) {
+                    final long readStamp = lock.readLock();
+                    try {
+                        chunkSum = ChunkKernels.sum(chunks[c], chunkLength(c));
+                    } finally {
+                        lock.unlockRead(readStamp);
+                    }
+                }
+                sum = sum + chunkSum;
+            }
+            return sum;
+        }
+        // Start replace
+
+        private double chunkMax(final int chunkIndex) {
+            final long stamp = lock.tryOptimisticRead();
+            final double max = ChunkKernels.max(chunks[chunkIndex], chunkLength(chunkIndex));
+            if (lock.validate(stamp)) {
+                return max;
+            }
+            final long readStamp = lock.readLock();
+            try {
+                return ChunkKernels.max(chunks[chunkIndex], chunkLength(chunkIndex));
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        private double chunkMin(final int chunkIndex) {
+            final long stamp = lock.tryOptimisticRead();
+            final double min = ChunkKernels.min(chunks[chunkIndex], chunkLength(chunkIndex));
+            if (lock.validate(stamp)) {
+                return min;
+            }
+            final long readStamp = lock.readLock();
+            try {
+                return ChunkKernels.min(chunks[chunkIndex], chunkLength(chunkIndex));
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        private void copy(final int chunkIndex, final double[] destination) {
+            final long stamp = lock.tryOptimisticRead();
+            System.arraycopy(chunks[chunkIndex], 0, destination, 0, chunkLength(chunkIndex));
+            if (lock.validate(stamp)) {
+                return;
+            }
+            final long readStamp = lock.readLock();
+            try {
+                System.arraycopy(chunks[chunkIndex], 0, destination, 0, chunkLength(chunkIndex));
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        return "[size = " + getSize() + "]";
+    }
+}
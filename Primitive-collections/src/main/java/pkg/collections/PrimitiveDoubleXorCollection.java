@@ -0,0 +1,285 @@
+package pkg.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * PrimitiveDoubleCollection that compresses every full chunk except the last one with {@link XorCodec},
+ * which suits series where consecutive values are close, like sensor readings.
+ * <p>
+ * Sealed chunks can only be decoded from their start, so get costs up to a chunk of decoding and set
+ * decodes and encodes the whole chunk. Sequential access goes through {@link #forEach} or {@link Cursor},
+ * which decode as they go without materializing a chunk.
+ */
+public class PrimitiveDoubleXorCollection {
+    private static final int SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << SHIFT; // 1024
+    private static final int MAX_CHUNKS = (Integer.MAX_VALUE >> SHIFT) + 1;
+
+    private long[][] encoded;
+    private int sealedCount;
+
+    private double[] lastChunk;
+    private int lastChunkPosition;
+
+    private int size;
+
+    private int modCount;
+
+    private final XorCodec.Encoder encoder = new XorCodec.Encoder();
+
+    public PrimitiveDoubleXorCollection() {
+        encoded = new long[1][];
+        lastChunk = new double[CHUNK_SIZE];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double get(final int index) {
+        RangeCheck.check(index, size);
+        final int chunkIndex = index >> SHIFT;
+        final int subIndex = index & (CHUNK_SIZE - 1);
+        if (chunkIndex < sealedCount) {
+            final XorCodec.Decoder decoder = new XorCodec.Decoder();
+            decoder.reset(encoded[chunkIndex]);
+            for (int i = 0; i < subIndex; i++) {
+                decoder.next();
+            }
+            return value(decoder.next());
+        }
+        return lastChunk[subIndex];
+    }
+
+    public void add(final double value) {
+        if (lastChunkPosition == CHUNK_SIZE) {
+            seal();
+        }
+        lastChunk[lastChunkPosition] = value;
+        lastChunkPosition = lastChunkPosition + 1;
+        size = size + 1;
+        modCount = modCount + 1;
+    }
+
+    public void set(final int index, final double value) {
+        RangeCheck.check(index, size);
+        final int chunkIndex = index >> SHIFT;
+        final int subIndex = index & (CHUNK_SIZE - 1);
+        if (chunkIndex < sealedCount) {
+            final double[] values = new double[CHUNK_SIZE];
+            final XorCodec.Decoder decoder = new XorCodec.Decoder();
+            decoder.reset(encoded[chunkIndex]);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                values[i] = value(decoder.next());
+            }
+            values[subIndex] = value;
+            encoded[chunkIndex] = encode(values);
+        } else {
+            lastChunk[subIndex] = value;
+        }
+        modCount = modCount + 1;
+    }
+
+    public void clean() {
+        encoded = new long[1][];
+        sealedCount = 0;
+        lastChunk = new double[CHUNK_SIZE];
+        lastChunkPosition = 0;
+        size = 0;
+        modCount = modCount + 1;
+    }
+
+    private void seal() {
+        if (sealedCount == encoded.length) {
+            int newLength = encoded.length + (encoded.length >> 1) + 1;
+            if (newLength > MAX_CHUNKS || newLength < 0) {
+                newLength = MAX_CHUNKS;
+            }
+            encoded = Arrays.copyOf(encoded, newLength);
+        }
+        encoded[sealedCount] = encode(lastChunk);
+        sealedCount = sealedCount + 1;
+        lastChunkPosition = 0;
+    }
+
+    private long[] encode(final double[] values) {
+        encoder.reset();
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            encoder.add(XorCodec.bits(values[i]));
+        }
+        return encoder.toArray();
+    }
+
+    private static double value(final long bits) {
+        return XorCodec.toDouble(bits);
+    }
+
+    // Stop replace
+    public double sum() {
+        checkNotEmpty();
+        final XorCodec.Decoder decoder = new XorCodec.Decoder();
+        double sum = 0;
+        for (int c = 0; c < sealedCount; c++) {
+            decoder.reset(encoded[c]);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                sum = sum + value(decoder.next());
+            }
+        }
+        if (lastChunkPosition > 0) {
+            sum = sum + ChunkKernels.sum(lastChunk, lastChunkPosition);
+        }
+        return sum;
+    }
+
+    public double average() {
+        return sum() / size;
+    }
+    // Start replace
+
+    public double max() {
+        checkNotEmpty();
+        final XorCodec.Decoder decoder = new XorCodec.Decoder();
+        double max = get(0);
+        for (int c = 0; c < sealedCount; c++) {
+            decoder.reset(encoded[c]);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                final double v = value(decoder.next());
+                if (v > max) {
+                    max = v;
+                }
+            }
+        }
+        if (lastChunkPosition > 0) {
+            final double v = ChunkKernels.max(lastChunk, lastChunkPosition);
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    public double min() {
+        checkNotEmpty();
+        final XorCodec.Decoder decoder = new XorCodec.Decoder();
+        double min = get(0);
+        for (int c = 0; c < sealedCount; c++) {
+            decoder.reset(encoded[c]);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                final double v = value(decoder.next());
+                if (v < min) {
+                    min = v;
+                }
+            }
+        }
+        if (lastChunkPosition > 0) {
+            final double v = ChunkKernels.min(lastChunk, lastChunkPosition);
+            if (v < min) {
+                min = v;
+            }
+        }
+        return min;
+    }
+
+    public void forEach(final PrimitiveDoubleConsumer action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        final XorCodec.Decoder decoder = new XorCodec.Decoder();
+        for (int c = 0; c < sealedCount; c++) {
+            decoder.reset(encoded[c]);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                action.accept(value(decoder.next()));
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+        for (int i = 0; i < lastChunkPosition; i++) {
+            action.accept(lastChunk[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private final XorCodec.Decoder decoder = new XorCodec.Decoder();
+        private int chunkIndex;
+        private int position;
+        private int expectedModCount;
+
+        private Cursor() {
+            reset();
+        }
+
+        public void reset() {
+            chunkIndex = 0;
+            position = 0;
+            expectedModCount = modCount;
+            if (sealedCount > 0) {
+                decoder.reset(encoded[0]);
+            }
+        }
+
+        public boolean hasNext() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return chunkIndex < sealedCount || position < lastChunkPosition;
+        }
+
+        public double next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (chunkIndex == sealedCount) {
+                final double value = lastChunk[position];
+                position = position + 1;
+                return value;
+            }
+            final double value = value(decoder.next());
+            position = position + 1;
+            if (position == CHUNK_SIZE) {
+                chunkIndex = chunkIndex + 1;
+                position = 0;
+                if (chunkIndex < sealedCount) {
+                    decoder.reset(encoded[chunkIndex]);
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Approximate heap size of the stored values in bytes, without the object headers of this collection.
+     */
+    public long sizeInBytes() {
+        long bytes = 16 + (long) CHUNK_SIZE * Double.BYTES;
+        for (int i = 0; i < sealedCount; i++) {
+            bytes = bytes + 16 + (long) encoded[i].length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        return "[size = " + size + ", sealed chunks = " + sealedCount + ", bytes = " + sizeInBytes() + "]";
+    }
+}
@@ -1,141 +1,2014 @@
 package pkg.collections;
 
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.CRC32;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
 
 public class PrimitiveFloatCollection {
-    private static final int SHIFT = 10;
-    private static final int CHUNK_SIZE = 1 << SHIFT; // 1024
+    // Chunks hold 1 << shift values, the shift is chosen per instance within these bounds
+    private static final int DEFAULT_SHIFT = 10; // 1024
+    private static final int MIN_SHIFT = 6;
+    private static final int MAX_SHIFT = 20;
+    // Collections smaller than this are reduced on the calling thread by the parallel methods
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+    private static final int CHUNKS_PER_TASK = 8;
+    // Prefix sum index granularity inside a chunk
+    private static final int BLOCK_SHIFT = 5;
+    // Compact mode: while there is only one chunk, it is a flat array that grows by half up to the chunk size
+    private static final int MIN_FIRST_CHUNK = 4;
+    private static final float[] EMPTY_CHUNK = {};
+
+    private int shift;
+    private int chunkSize;
+    private int mask;
+    // Larger than shift in the adaptive mode, where the chunks grow with the collection
+    private final int maxShift;
 
     private float[][] array;
+    private int chunkCount;
+
+    private float[] lastChunk;
+    private int lastChunkPosition;
+
+    // Sparse mode, null while every chunk but the last is full: insert() and remove() in the middle of the
+    // collection leave chunks partly filled, chunkFill holds their value counts (not kept for the last chunk,
+    // that is lastChunkPosition) and chunkStarts the index of their first value. No chunk is empty then
+    private int[] chunkFill;
+    private int[] chunkStarts;
+
+    private int size;
+    // Incremented by add() and clean(), lets forEach() and Cursor fail fast
+    private int modCount;
+
+    // Per chunk summaries, null until enableStatistics(). Dirty chunks are summarized again when an aggregate needs them
+    private double[] chunkSums;
+    private float[] chunkMins;
+    private float[] chunkMaxes;
+    private boolean[] chunkDirty;
+
+    // Prefix sum index, null until enablePrefixSums(): block sums of every chunk and a Fenwick tree over the sums
+    // of all chunks but the last one, 1-based
+    private double[][] blockSums;
+    private double[] chunkTree;
+    private int treeCount;
+
+    // Chunks shared with a snapshot, copied before set() changes them. Null until the first snapshot()
+    private boolean[] shared;
+    private final boolean readOnly;
+
+    public PrimitiveFloatCollection() {
+        this(DEFAULT_SHIFT, DEFAULT_SHIFT);
+    }
+
+    /**
+     * Collection with chunks of 1 << chunkShift values, chunkShift from {@value #MIN_SHIFT} to {@value #MAX_SHIFT}.
+     */
+    public PrimitiveFloatCollection(final int chunkShift) {
+        this(chunkShift, chunkShift);
+    }
+
+    /**
+     * Adaptive collection, starts with chunks of 1 << minChunkShift values. Whenever there are as many chunks as
+     * a chunk holds values, pairs of chunks are joined into chunks of twice the size, up to 1 << maxChunkShift.
+     * Like a hashed array tree, the chunk size and the number of chunks stay near the square root of the size,
+     * and the joins cost O(1) amortized per value.
+     */
+    public PrimitiveFloatCollection(final int minChunkShift, final int maxChunkShift) {
+        if (minChunkShift < MIN_SHIFT || maxChunkShift > MAX_SHIFT || minChunkShift > maxChunkShift) {
+            throw new IllegalArgumentException("Chunk shift = " + minChunkShift + ", Max chunk shift = " + maxChunkShift);
+        }
+        setShift(minChunkShift);
+        maxShift = maxChunkShift;
+        array = new float[][]{EMPTY_CHUNK};
+        chunkCount = 1;
+        lastChunk = array[0];
+        lastChunkPosition = 0;
+        readOnly = false;
+    }
+
+    // Snapshot of source, shares its chunks
+    private PrimitiveFloatCollection(final PrimitiveFloatCollection source) {
+        setShift(source.shift);
+        maxShift = source.shift;
+        array = Arrays.copyOf(source.array, source.chunkCount);
+        chunkCount = source.chunkCount;
+        lastChunk = array[chunkCount - 1];
+        lastChunkPosition = source.lastChunkPosition;
+        if (source.chunkStarts != null) {
+            chunkFill = Arrays.copyOf(source.chunkFill, chunkCount);
+            chunkStarts = Arrays.copyOf(source.chunkStarts, chunkCount);
+        }
+        size = source.size;
+        readOnly = true;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private void setShift(final int newShift) {
+        shift = newShift;
+        chunkSize = 1 << newShift;
+        mask = chunkSize - 1;
+    }
+
+    public float get(final int index) {
+        RangeCheck.check(index, size);
+        if (chunkStarts != null) {
+            final int chunkIndex = searchChunk(chunkStarts, chunkCount, index);
+            return array[chunkIndex][index - chunkStarts[chunkIndex]];
+        }
+        int chunkIndex = index >> shift;
+        int subIndex = index - (chunkIndex << shift);
+        return array[chunkIndex][subIndex];
+    }
+
+    public void add(final float value) {
+        checkWritable();
+        if (lastChunkPosition == lastChunk.length) {
+            if (lastChunkPosition == chunkSize) {
+                growChunks();
+                addChunk(new float[chunkSize]);
+                if (blockSums != null) {
+                    indexChunks(chunkCount - 1, chunkCount);
+                }
+            } else {
+                growFirstChunk(lastChunkPosition + 1);
+            }
+        }
+        if (chunkSums != null) {
+            updateStatistics(value);
+        }
+        if (blockSums != null) {
+            final int block = lastChunkPosition >> BLOCK_SHIFT;
+            blockSums[chunkCount - 1][block] = blockSums[chunkCount - 1][block] + value;
+        }
+        lastChunk[lastChunkPosition] = value;
+        lastChunkPosition = lastChunkPosition + 1;
+        size = size + 1;
+        modCount = modCount + 1;
+    }
+
+    private void updateStatistics(final float value) {
+        final int chunkIndex = chunkCount - 1;
+        if (lastChunkPosition == 0) {
+            chunkSums[chunkIndex] = value;
+            chunkMins[chunkIndex] = value;
+            chunkMaxes[chunkIndex] = value;
+            chunkDirty[chunkIndex] = false;
+        } else if (!chunkDirty[chunkIndex]) {
+            chunkSums[chunkIndex] = chunkSums[chunkIndex] + value;
+            if (value < chunkMins[chunkIndex]) {
+                chunkMins[chunkIndex] = value;
+            }
+            if (value > chunkMaxes[chunkIndex]) {
+                chunkMaxes[chunkIndex] = value;
+            }
+        }
+    }
+
+    private void addChunk(final float[] chunk) {
+        growDirectory();
+        if (chunkStarts != null) {
+            chunkFill[chunkCount - 1] = lastChunkPosition;
+            chunkStarts[chunkCount] = chunkStarts[chunkCount - 1] + lastChunkPosition;
+        }
+        array[chunkCount] = chunk;
+        lastChunk = chunk;
+        chunkCount = chunkCount + 1;
+        lastChunkPosition = 0;
+    }
+
+    // Room in the directory and in the summaries for one more chunk
+    private void growDirectory() {
+        if (chunkCount == array.length) {
+            // Sparse chunks can be half full, then the directory holds more than the dense maximum
+            final int maxChunks = (Integer.MAX_VALUE >> shift) + 1;
+            int newLength = array.length + (array.length >> 1) + 1;
+            if (newLength > maxChunks || newLength < 0) {
+                newLength = Math.max(maxChunks, chunkCount + 1);
+            }
+            array = Arrays.copyOf(array, newLength);
+        }
+        if (chunkSums != null && chunkCount == chunkSums.length) {
+            chunkSums = Arrays.copyOf(chunkSums, array.length);
+            chunkMins = Arrays.copyOf(chunkMins, array.length);
+            chunkMaxes = Arrays.copyOf(chunkMaxes, array.length);
+            chunkDirty = Arrays.copyOf(chunkDirty, array.length);
+        }
+        if (chunkStarts != null && chunkCount == chunkStarts.length) {
+            chunkFill = Arrays.copyOf(chunkFill, array.length);
+            chunkStarts = Arrays.copyOf(chunkStarts, array.length);
+        }
+    }
+
+    // Adaptive mode: joins pairs of chunks once there are as many chunks as a chunk holds values. Called
+    // when the last chunk is full, in dense mode the other ones are full too. After compact() the number of
+    // chunks can be odd, then the join waits for the next chunk, so the joined chunks are always full
+    private void growChunks() {
+        if (chunkStarts != null || shift == maxShift || chunkCount < chunkSize || (chunkCount & 1) != 0) {
+            return;
+        }
+        final int joinedCount = chunkCount >> 1;
+        for (int i = 0; i < joinedCount; i++) {
+            final float[] joined = Arrays.copyOf(array[i << 1], chunkSize << 1);
+            System.arraycopy(array[(i << 1) + 1], 0, joined, chunkSize, chunkSize);
+            array[i] = joined;
+        }
+        Arrays.fill(array, joinedCount, chunkCount, null);
+        chunkCount = joinedCount;
+        setShift(shift + 1);
+        lastChunk = array[chunkCount - 1];
+        lastChunkPosition = chunkSize;
+        // The joined chunks are new, snapshots keep the old ones
+        shared = null;
+        if (chunkDirty != null) {
+            Arrays.fill(chunkDirty, true);
+        }
+        if (blockSums != null) {
+            disablePrefixSums();
+            enablePrefixSums();
+        }
+    }
+
+    public void addAll(final float[] source) {
+        Objects.requireNonNull(source);
+        addAll(source, 0, source.length);
+    }
+
+    public void addAll(final float[] source, final int offset, final int length) {
+        checkWritable();
+        Objects.requireNonNull(source);
+        RangeCheck.checkFromIndexSize(offset, length, source.length);
+        ensureCapacity((long) size + length);
+        append(source, offset, length);
+        size = size + length;
+        modCount = modCount + 1;
+    }
+
+    public void addAll(final PrimitiveFloatCollection other) {
+        checkWritable();
+        Objects.requireNonNull(other);
+        // Read everything up front, other may be this collection and its chunks may be joined
+        final float[][] otherArray = Arrays.copyOf(other.array, other.chunkCount);
+        final int otherChunkCount = other.chunkCount;
+        final int[] otherLengths = new int[otherChunkCount];
+        for (int i = 0; i < otherChunkCount; i++) {
+            otherLengths[i] = other.chunkLength(i);
+        }
+        final int otherSize = other.size;
+        ensureCapacity((long) size + otherSize);
+        for (int i = 0; i < otherChunkCount; i++) {
+            append(otherArray[i], 0, otherLengths[i]);
+        }
+        size = size + otherSize;
+        modCount = modCount + 1;
+    }
+
+    /**
+     * Appends a full chunk without copying it when the last chunk is full or the collection is empty,
+     * otherwise copies it. The caller must not use the chunk afterwards.
+     */
+    void adoptChunk(final float[] chunk) {
+        checkWritable();
+        if (size > 0 && lastChunkPosition == chunkSize) {
+            growChunks();
+        }
+        if (chunk.length != chunkSize || (size > 0 && lastChunkPosition != chunkSize)) {
+            addAll(chunk, 0, chunk.length);
+            return;
+        }
+        ensureCapacity((long) size + chunkSize);
+        if (size == 0) {
+            array[0] = chunk;
+            lastChunk = chunk;
+            if (shared != null) {
+                shared[0] = false;
+            }
+        } else {
+            addChunk(chunk);
+        }
+        lastChunkPosition = chunkSize;
+        if (chunkDirty != null) {
+            chunkDirty[chunkCount - 1] = true;
+        }
+        if (blockSums != null) {
+            indexChunks(chunkCount - 1, chunkCount);
+        }
+        size = size + chunkSize;
+        modCount = modCount + 1;
+    }
+
+    private void append(final float[] source, final int offset, final int length) {
+        final int firstChunk = chunkCount - 1;
+        final int firstShift = shift;
+        int position = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            if (lastChunkPosition == chunkSize) {
+                growChunks();
+                if (remaining >= chunkSize) {
+                    // Aligned full chunk, copy it without zeroing a new chunk first
+                    addChunk(Arrays.copyOfRange(source, position, position + chunkSize));
+                    lastChunkPosition = chunkSize;
+                    position = position + chunkSize;
+                    remaining = remaining - chunkSize;
+                    continue;
+                }
+                addChunk(new float[chunkSize]);
+            }
+            if (lastChunk.length - lastChunkPosition < remaining && lastChunk.length < chunkSize) {
+                growFirstChunk(lastChunkPosition + remaining);
+            }
+            final int count = Math.min(remaining, lastChunk.length - lastChunkPosition);
+            System.arraycopy(source, position, lastChunk, lastChunkPosition, count);
+            lastChunkPosition = lastChunkPosition + count;
+            position = position + count;
+            remaining = remaining - count;
+        }
+        // Every join halved the index of the first chunk written
+        final int first = firstChunk >> (shift - firstShift);
+        if (chunkDirty != null) {
+            Arrays.fill(chunkDirty, first, chunkCount, true);
+        }
+        if (blockSums != null) {
+            indexChunks(first, chunkCount);
+        }
+    }
+
+    public float[] toArray() {
+        final float[] result = new float[size];
+        copyTo(0, result, 0, size);
+        return result;
+    }
+
+    public void copyTo(final int sourceIndex, final float[] destination, final int destinationOffset, final int length) {
+        Objects.requireNonNull(destination);
+        RangeCheck.checkFromIndexSize(sourceIndex, length, size);
+        RangeCheck.checkFromIndexSize(destinationOffset, length, destination.length);
+        int chunkIndex = chunkOf(sourceIndex);
+        int subIndex = sourceIndex - chunkStart(chunkIndex);
+        int offset = destinationOffset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int count = Math.min(remaining, chunkLength(chunkIndex) - subIndex);
+            System.arraycopy(array[chunkIndex], subIndex, destination, offset, count);
+            chunkIndex = chunkIndex + 1;
+            subIndex = 0;
+            offset = offset + count;
+            remaining = remaining - count;
+        }
+    }
+
+    public void copyTo(final int sourceIndex, final FloatBuffer destination, final int length) {
+        Objects.requireNonNull(destination);
+        RangeCheck.checkFromIndexSize(sourceIndex, length, size);
+        if (destination.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        int chunkIndex = chunkOf(sourceIndex);
+        int subIndex = sourceIndex - chunkStart(chunkIndex);
+        int remaining = length;
+        while (remaining > 0) {
+            final int count = Math.min(remaining, chunkLength(chunkIndex) - subIndex);
+            destination.put(array[chunkIndex], subIndex, count);
+            chunkIndex = chunkIndex + 1;
+            subIndex = 0;
+            remaining = remaining - count;
+        }
+    }
+
+    public void writeTo(final WritableByteChannel channel) throws IOException {
+        writeTo(channel, ByteOrder.nativeOrder(), false);
+    }
+
+    /**
+     * Writes the collection in the {@link BinaryFormat} stream format, one frame per chunk.
+     */
+    public void writeTo(final WritableByteChannel channel, final ByteOrder order, final boolean checksum) throws IOException {
+        Objects.requireNonNull(channel);
+        Objects.requireNonNull(order);
+        BinaryFormat.writeHeader(channel, TypeTag.of(float.class), order, checksum, chunkSize, size);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(chunkSize * Float.BYTES).order(order);
+        final CRC32 crc = checksum ? new CRC32() : null;
+        try {
+            if (chunkStarts == null) {
+                for (int i = 0; i < chunkCount; i++) {
+                    final int length = chunkLength(i);
+                    if (length == 0) {
+                        break;
+                    }
+                    ((Buffer) buffer).clear();
+                    BinaryFormat.put(buffer, array[i], length);
+                    ((Buffer) buffer).flip();
+                    BinaryFormat.writeFrame(channel, buffer, crc);
+                }
+            } else {
+                // Frames hold full chunks, the values of partly filled chunks are gathered first
+                final float[] frame = new float[chunkSize];
+                for (int from = 0; from < size; from = from + chunkSize) {
+                    final int length = Math.min(chunkSize, size - from);
+                    copyTo(from, frame, 0, length);
+                    ((Buffer) buffer).clear();
+                    BinaryFormat.put(buffer, frame, length);
+                    ((Buffer) buffer).flip();
+                    BinaryFormat.writeFrame(channel, buffer, crc);
+                }
+            }
+        } finally {
+            DirectBuffers.release(buffer);
+        }
+    }
+
+    public static PrimitiveFloatCollection readFrom(final ReadableByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel);
+        final BinaryFormat.Header header = BinaryFormat.readHeader(channel, TypeTag.of(float.class));
+        if (header.count > Integer.MAX_VALUE) {
+            throw new IOException("Too many elements " + header.count);
+        }
+        final PrimitiveFloatCollection collection = new PrimitiveFloatCollection();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(header.frameSize * Float.BYTES).order(header.order);
+        final CRC32 crc = header.checksum ? new CRC32() : null;
+        try {
+            int remaining = (int) header.count;
+            while (remaining > 0) {
+                final int length = Math.min(remaining, header.frameSize);
+                ((Buffer) buffer).clear();
+                ((Buffer) buffer).limit(length * Float.BYTES);
+                BinaryFormat.readFrame(channel, buffer, crc);
+                collection.fill(buffer, length);
+                remaining = remaining - length;
+            }
+        } finally {
+            DirectBuffers.release(buffer);
+        }
+        return collection;
+    }
+
+    private void fill(final ByteBuffer source, final int length) {
+        int remaining = length;
+        while (remaining > 0) {
+            if (lastChunkPosition == chunkSize) {
+                growChunks();
+                addChunk(new float[chunkSize]);
+            }
+            if (lastChunk.length - lastChunkPosition < remaining && lastChunk.length < chunkSize) {
+                growFirstChunk(lastChunkPosition + remaining);
+            }
+            final int count = Math.min(remaining, lastChunk.length - lastChunkPosition);
+            BinaryFormat.get(source, lastChunk, lastChunkPosition, count);
+            lastChunkPosition = lastChunkPosition + count;
+            size = size + count;
+            remaining = remaining - count;
+        }
+    }
+
+    public void ensureCapacity(final long capacity) {
+        checkWritable();
+        if (capacity < 0 || capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity = " + capacity);
+        }
+        final int chunks = (int) ((capacity + chunkSize - 1) >> shift);
+        if (chunks > array.length) {
+            array = Arrays.copyOf(array, chunks);
+        }
+        if (chunkCount == 1 && capacity > lastChunk.length && lastChunk.length < chunkSize) {
+            growFirstChunk((int) Math.min(capacity, chunkSize));
+        }
+    }
+
+    // Grows the only chunk to at least minCapacity values, at most to the chunk size
+    private void growFirstChunk(final int minCapacity) {
+        final int length = lastChunk.length;
+        final int grown = Math.max(MIN_FIRST_CHUNK, length + (length >> 1));
+        lastChunk = Arrays.copyOf(lastChunk, Math.min(chunkSize, Math.max(minCapacity, grown)));
+        array[0] = lastChunk;
+        if (shared != null) {
+            shared[0] = false;
+        }
+    }
+
+    /**
+     * Releases the unused part of the directory and of the summaries, partly filled chunks are compacted first.
+     * A collection with a single chunk is shrunk to a flat array of its values.
+     */
+    public void trimToSize() {
+        if (!readOnly) {
+            compact();
+        }
+        if (chunkCount == 1 && lastChunkPosition < lastChunk.length) {
+            lastChunk = lastChunkPosition == 0 ? EMPTY_CHUNK : Arrays.copyOf(lastChunk, lastChunkPosition);
+            array[0] = lastChunk;
+            if (shared != null) {
+                shared[0] = false;
+            }
+        }
+        if (chunkCount < array.length) {
+            array = Arrays.copyOf(array, chunkCount);
+        }
+        if (chunkSums != null && chunkCount < chunkSums.length) {
+            chunkSums = Arrays.copyOf(chunkSums, chunkCount);
+            chunkMins = Arrays.copyOf(chunkMins, chunkCount);
+            chunkMaxes = Arrays.copyOf(chunkMaxes, chunkCount);
+            chunkDirty = Arrays.copyOf(chunkDirty, chunkCount);
+        }
+    }
+
+    public void set(final int index, final float value) {
+        checkWritable();
+        RangeCheck.check(index, size);
+        final int chunkIndex = chunkOf(index);
+        final int subIndex = index - chunkStart(chunkIndex);
+        final float[] chunk = writableChunk(chunkIndex);
+        final float old = chunk[subIndex];
+        chunk[subIndex] = value;
+        if (chunkDirty != null) {
+            chunkDirty[chunkIndex] = true;
+        }
+        if (blockSums != null) {
+            updatePrefixSums(chunkIndex, subIndex, old, value);
+        }
+    }
+
+    /**
+     * Removes the value at index and returns it. Only the later values of its chunk move, see removeRange().
+     */
+    public float remove(final int index) {
+        checkWritable();
+        RangeCheck.check(index, size);
+        final float removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    /**
+     * Removes the values from index from, inclusive, to index to, exclusive. Inside the last chunk and at the
+     * end the later values move down, elsewhere only the first and the last chunk of the range are shifted
+     * and the chunks between them are dropped, O(chunk size + chunks). The collection is sparse then, see
+     * insert(), and is compacted once less than half of its chunk capacity is used.
+     */
+    public void removeRange(final int from, final int to) {
+        checkWritable();
+        RangeCheck.checkFromToIndex(from, to, size);
+        if (from == to) {
+            return;
+        }
+        if (chunkStarts == null && (from >= (chunkCount - 1) << shift || to == size)) {
+            // Only values of the last chunk move, the collection stays dense
+            move(to, from, size - to);
+            truncate(size - (to - from));
+            reindexFrom(from >> shift);
+            modCount = modCount + 1;
+            return;
+        }
+        if (chunkStarts == null) {
+            toSparse();
+        }
+        final int first = searchChunk(chunkStarts, chunkCount, from);
+        final int last = searchChunk(chunkStarts, chunkCount, to - 1);
+        final int firstSub = from - chunkStarts[first];
+        final int lastSub = to - chunkStarts[last];
+        if (first == last) {
+            final float[] chunk = writableChunk(first);
+            final int length = chunkLength(first);
+            System.arraycopy(chunk, lastSub, chunk, firstSub, length - lastSub);
+            setChunkLength(first, length - (to - from));
+        } else {
+            // The first chunk gets shorter, later writes into it must not reach a snapshot
+            writableChunk(first);
+            setChunkLength(first, firstSub);
+            final float[] chunk = writableChunk(last);
+            final int length = chunkLength(last);
+            System.arraycopy(chunk, lastSub, chunk, 0, length - lastSub);
+            setChunkLength(last, length - lastSub);
+        }
+        size = size - (to - from);
+        // Drops the chunks between the two and the ones left empty, but keeps a chunk for an empty collection
+        int dropFrom = chunkLength(first) == 0 ? first : first + 1;
+        final int dropTo = chunkLength(last) == 0 ? last + 1 : last;
+        if (dropFrom == 0 && dropTo == chunkCount) {
+            dropFrom = 1;
+        }
+        if (dropFrom < dropTo) {
+            removeChunks(dropFrom, dropTo);
+        }
+        restartFrom(first);
+        if (dropFrom < dropTo || first != last) {
+            final int changed = Math.min(first, chunkCount - 1);
+            reindexChunks(changed, Math.min(changed + 2, chunkCount));
+        } else {
+            reindexChunk(first);
+        }
+        modCount = modCount + 1;
+        if (chunkCount == 1 || (long) size << 1 < (long) chunkCount << shift) {
+            compact();
+        }
+    }
+
+    /**
+     * Removes all values accepted by the filter in one pass, values before the first removed one are not
+     * written. If the filter throws, the values it accepted so far are removed and the rest is kept.
+     */
+    public boolean removeIf(final PrimitiveFloatPredicate filter) {
+        checkWritable();
+        Objects.requireNonNull(filter);
+        compact();
+        final int oldSize = size;
+        int firstRemoved = -1;
+        int read = 0;
+        int write = 0;
+        float[] target = null;
+        try {
+            for (; read < oldSize; read++) {
+                final float value = array[read >> shift][read & mask];
+                if (filter.test(value)) {
+                    if (firstRemoved < 0) {
+                        firstRemoved = read;
+                    }
+                } else {
+                    if (firstRemoved >= 0) {
+                        if (target == null || (write & mask) == 0) {
+                            target = writableChunk(write >> shift);
+                        }
+                        target[write & mask] = value;
+                    }
+                    write = write + 1;
+                }
+            }
+        } finally {
+            if (firstRemoved >= 0) {
+                move(read, write, oldSize - read);
+                truncate(write + oldSize - read);
+                reindexFrom(firstRemoved >> shift);
+                modCount = modCount + 1;
+            }
+        }
+        return firstRemoved >= 0;
+    }
+
+    /**
+     * Inserts the value at index, the value there and all later values of its chunk move up by one. A full
+     * chunk is split into two half full ones first, so the cost is O(chunk size + chunks) instead of O(size).
+     * Afterwards the collection is sparse: get() finds the chunk by binary search over the chunk starts
+     * until compact() packs the values into full chunks again. Inside the last chunk it stays dense.
+     */
+    public void insert(final int index, final float value) {
+        checkWritable();
+        if (index == size) {
+            add(value);
+            return;
+        }
+        RangeCheck.check(index, size);
+        if (chunkStarts == null && index >= (chunkCount - 1) << shift) {
+            // Grows by one slot, then moves the values of the last chunk up into it
+            final int oldSize = size;
+            add(array[(oldSize - 1) >> shift][(oldSize - 1) & mask]);
+            move(index, index + 1, oldSize - 1 - index);
+            writableChunk(index >> shift)[index & mask] = value;
+            reindexFrom(index >> shift);
+            return;
+        }
+        if (chunkStarts == null) {
+            toSparse();
+        }
+        int chunkIndex = searchChunk(chunkStarts, chunkCount, index);
+        int subIndex = index - chunkStarts[chunkIndex];
+        final int dividedChunk = chunkLength(chunkIndex) == chunkSize ? chunkIndex : -1;
+        if (dividedChunk >= 0) {
+            divideChunk(chunkIndex);
+            if (subIndex > chunkSize >> 1) {
+                chunkIndex = chunkIndex + 1;
+                subIndex = subIndex - (chunkSize >> 1);
+            }
+        }
+        final float[] chunk = writableChunk(chunkIndex);
+        final int length = chunkLength(chunkIndex);
+        System.arraycopy(chunk, subIndex, chunk, subIndex + 1, length - subIndex);
+        chunk[subIndex] = value;
+        setChunkLength(chunkIndex, length + 1);
+        for (int i = chunkIndex + 1; i < chunkCount; i++) {
+            chunkStarts[i] = chunkStarts[i] + 1;
+        }
+        size = size + 1;
+        if (dividedChunk >= 0) {
+            reindexChunks(dividedChunk, dividedChunk + 2);
+        } else {
+            reindexChunk(chunkIndex);
+        }
+        modCount = modCount + 1;
+    }
+
+    /**
+     * Packs the values of a sparse collection into full chunks again, so get() finds a value with a shift
+     * instead of a binary search. Runs by itself when removals leave less than half of the chunk capacity
+     * used, does nothing on a dense collection.
+     */
+    public void compact() {
+        checkWritable();
+        if (chunkStarts == null) {
+            return;
+        }
+        int first = 0;
+        while (first < chunkCount - 1 && chunkFill[first] == chunkSize) {
+            first = first + 1;
+        }
+        // Left to right, a chunk is overwritten only where its values were read already
+        int write = first << shift;
+        for (int i = first; i < chunkCount; i++) {
+            final int length = chunkLength(i);
+            int read = 0;
+            while (read < length) {
+                final int targetSub = write & mask;
+                final float[] target = writableChunk(write >> shift);
+                final int count = Math.min(length - read, chunkSize - targetSub);
+                System.arraycopy(array[i], read, target, targetSub, count);
+                read = read + count;
+                write = write + count;
+            }
+        }
+        final int newChunkCount = size == 0 ? 1 : ((size - 1) >> shift) + 1;
+        Arrays.fill(array, newChunkCount, chunkCount, null);
+        chunkCount = newChunkCount;
+        chunkFill = null;
+        chunkStarts = null;
+        lastChunk = writableChunk(chunkCount - 1);
+        lastChunkPosition = size - ((chunkCount - 1) << shift);
+        reindexFrom(first);
+        modCount = modCount + 1;
+    }
+
+    // Copies length values from index from to index to like System.arraycopy, one chunk segment at a time
+    private void move(final int from, final int to, final int length) {
+        if (to < from) {
+            int source = from;
+            int destination = to;
+            int remaining = length;
+            while (remaining > 0) {
+                final int sourceSub = source & mask;
+                final int destinationSub = destination & mask;
+                final int count = Math.min(remaining, chunkSize - Math.max(sourceSub, destinationSub));
+                System.arraycopy(array[source >> shift], sourceSub,
+                        writableChunk(destination >> shift), destinationSub, count);
+                source = source + count;
+                destination = destination + count;
+                remaining = remaining - count;
+            }
+        } else if (to > from) {
+            int sourceEnd = from + length;
+            int destinationEnd = to + length;
+            int remaining = length;
+            while (remaining > 0) {
+                final int sourceSub = ((sourceEnd - 1) & mask) + 1;
+                final int destinationSub = ((destinationEnd - 1) & mask) + 1;
+                final int count = Math.min(remaining, Math.min(sourceSub, destinationSub));
+                System.arraycopy(array[(sourceEnd - 1) >> shift], sourceSub - count,
+                        writableChunk((destinationEnd - 1) >> shift), destinationSub - count, count);
+                sourceEnd = sourceEnd - count;
+                destinationEnd = destinationEnd - count;
+                remaining = remaining - count;
+            }
+        }
+    }
+
+    // Drops the values from newSize on and releases the chunks left empty
+    private void truncate(final int newSize) {
+        final int newChunkCount = newSize == 0 ? 1 : ((newSize - 1) >> shift) + 1;
+        for (int i = newChunkCount; i < chunkCount; i++) {
+            array[i] = null;
+        }
+        chunkCount = newChunkCount;
+        // add() writes below the size of a snapshot now, so the last chunk must not be shared
+        lastChunk = writableChunk(chunkCount - 1);
+        lastChunkPosition = newSize - ((chunkCount - 1) << shift);
+        size = newSize;
+    }
+
+    // Summaries and prefix sums from firstChunk on are stale after values moved
+    private void reindexFrom(final int firstChunk) {
+        final int first = Math.min(firstChunk, chunkCount - 1);
+        if (chunkDirty != null) {
+            Arrays.fill(chunkDirty, first, chunkCount, true);
+        }
+        if (blockSums != null) {
+            treeCount = Math.min(treeCount, first);
+            indexChunks(first, chunkCount);
+        }
+    }
+
+    // The values of the chunks [from, to) changed, the later chunks may have moved in the directory
+    private void reindexChunks(final int from, final int to) {
+        if (chunkDirty != null) {
+            Arrays.fill(chunkDirty, from, to, true);
+        }
+        if (blockSums != null) {
+            treeCount = Math.min(treeCount, from);
+            indexChunks(from, to);
+        }
+    }
+
+    // Values moved inside one chunk, the tree takes the difference of its sum instead of being rebuilt
+    private void reindexChunk(final int chunkIndex) {
+        if (chunkDirty != null) {
+            chunkDirty[chunkIndex] = true;
+        }
+        if (blockSums != null) {
+            final double old = ScalarChunkKernels.sum(blockSums[chunkIndex], 0, blocks());
+            indexChunks(chunkIndex, chunkIndex + 1);
+            final double delta = ScalarChunkKernels.sum(blockSums[chunkIndex], 0, blocks()) - old;
+            for (int node = chunkIndex + 1; node <= treeCount; node = node + (node & -node)) {
+                chunkTree[node] = chunkTree[node] + delta;
+            }
+        }
+    }
+
+    private int chunkLength(final int chunkIndex) {
+        if (chunkIndex == chunkCount - 1) {
+            return lastChunkPosition;
+        }
+        return chunkFill == null ? chunkSize : chunkFill[chunkIndex];
+    }
+
+    private void setChunkLength(final int chunkIndex, final int length) {
+        if (chunkIndex == chunkCount - 1) {
+            lastChunkPosition = length;
+        } else {
+            chunkFill[chunkIndex] = length;
+        }
+    }
+
+    private int chunkOf(final int index) {
+        return chunkStarts == null ? index >> shift : searchChunk(chunkStarts, chunkCount, index);
+    }
+
+    private int chunkStart(final int chunkIndex) {
+        return chunkStarts == null ? chunkIndex << shift : chunkStarts[chunkIndex];
+    }
+
+    // Last of the first count chunks that starts at or before index
+    private static int searchChunk(final int[] starts, final int count, final int index) {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private void toSparse() {
+        final int[] fill = new int[array.length];
+        final int[] starts = new int[array.length];
+        for (int i = 0; i < chunkCount; i++) {
+            fill[i] = chunkLength(i);
+            starts[i] = i << shift;
+        }
+        chunkFill = fill;
+        chunkStarts = starts;
+    }
+
+    // Starts of the chunks after firstChunk again from their lengths
+    private void restartFrom(final int firstChunk) {
+        if (firstChunk == 0) {
+            chunkStarts[0] = 0;
+        }
+        for (int i = Math.max(firstChunk, 1); i < chunkCount; i++) {
+            chunkStarts[i] = chunkStarts[i - 1] + chunkLength(i - 1);
+        }
+    }
+
+    // Moves the upper half of the full chunk into a new chunk after it
+    private void divideChunk(final int chunkIndex) {
+        final int half = chunkSize >> 1;
+        final float[] upper = new float[chunkSize];
+        System.arraycopy(array[chunkIndex], half, upper, 0, chunkSize - half);
+        insertChunk(chunkIndex + 1, upper);
+        chunkFill[chunkIndex] = half;
+        setChunkLength(chunkIndex + 1, chunkSize - half);
+        chunkStarts[chunkIndex + 1] = chunkStarts[chunkIndex] + half;
+    }
+
+    // Puts the chunk into the directory at chunkIndex, the summaries of the later chunks move along
+    private void insertChunk(final int chunkIndex, final float[] chunk) {
+        growDirectory();
+        final int moved = chunkCount - chunkIndex;
+        System.arraycopy(array, chunkIndex, array, chunkIndex + 1, moved);
+        array[chunkIndex] = chunk;
+        System.arraycopy(chunkFill, chunkIndex, chunkFill, chunkIndex + 1, moved);
+        System.arraycopy(chunkStarts, chunkIndex, chunkStarts, chunkIndex + 1, moved);
+        if (shared != null) {
+            if (shared.length <= chunkCount) {
+                shared = Arrays.copyOf(shared, array.length);
+            }
+            System.arraycopy(shared, chunkIndex, shared, chunkIndex + 1, moved);
+            shared[chunkIndex] = false;
+        }
+        if (chunkSums != null) {
+            System.arraycopy(chunkSums, chunkIndex, chunkSums, chunkIndex + 1, moved);
+            System.arraycopy(chunkMins, chunkIndex, chunkMins, chunkIndex + 1, moved);
+            System.arraycopy(chunkMaxes, chunkIndex, chunkMaxes, chunkIndex + 1, moved);
+            System.arraycopy(chunkDirty, chunkIndex, chunkDirty, chunkIndex + 1, moved);
+            chunkDirty[chunkIndex] = true;
+        }
+        if (blockSums != null) {
+            if (blockSums.length <= chunkCount) {
+                blockSums = Arrays.copyOf(blockSums, array.length);
+                chunkTree = Arrays.copyOf(chunkTree, array.length);
+            }
+            System.arraycopy(blockSums, chunkIndex, blockSums, chunkIndex + 1, moved);
+            blockSums[chunkIndex] = null;
+            treeCount = Math.min(treeCount, chunkIndex);
+        }
+        chunkCount = chunkCount + 1;
+        if (chunkIndex == chunkCount - 1) {
+            lastChunk = chunk;
+        }
+    }
+
+    // Removes the chunks [from, to) from the directory, the summaries of the later chunks move along
+    private void removeChunks(final int from, final int to) {
+        final int moved = chunkCount - to;
+        final int newChunkCount = chunkCount - (to - from);
+        System.arraycopy(array, to, array, from, moved);
+        Arrays.fill(array, newChunkCount, chunkCount, null);
+        System.arraycopy(chunkFill, to, chunkFill, from, moved);
+        System.arraycopy(chunkStarts, to, chunkStarts, from, moved);
+        if (shared != null) {
+            if (shared.length < chunkCount) {
+                shared = Arrays.copyOf(shared, array.length);
+            }
+            System.arraycopy(shared, to, shared, from, moved);
+            Arrays.fill(shared, newChunkCount, chunkCount, false);
+        }
+        if (chunkSums != null) {
+            System.arraycopy(chunkSums, to, chunkSums, from, moved);
+            System.arraycopy(chunkMins, to, chunkMins, from, moved);
+            System.arraycopy(chunkMaxes, to, chunkMaxes, from, moved);
+            System.arraycopy(chunkDirty, to, chunkDirty, from, moved);
+        }
+        if (blockSums != null) {
+            // Rows are reused in place, so none may stay referenced twice
+            System.arraycopy(blockSums, to, blockSums, from, moved);
+            Arrays.fill(blockSums, newChunkCount, chunkCount, null);
+            treeCount = Math.min(treeCount, Math.min(from, newChunkCount - 1));
+        }
+        final boolean lastRemoved = moved == 0;
+        chunkCount = newChunkCount;
+        if (lastRemoved) {
+            lastChunkPosition = chunkFill[chunkCount - 1];
+            lastChunk = writableChunk(chunkCount - 1);
+        }
+    }
+
+    /**
+     * Sorts the values in ascending order, the order of Float.compare, without copying them out. Every chunk
+     * is sorted on its own, then runs of chunks are merged pairwise. A merge writes its output into the chunks
+     * it has read to the end, so it needs a few chunks of scratch instead of a copy of the collection.
+     */
+    public void sort() {
+        checkWritable();
+        compact();
+        sortChunks(0, chunkCount);
+        final float[][] merged = new float[chunkCount][];
+        for (int width = 1; width < chunkCount; width = width << 1) {
+            mergeChunks(0, chunkCount, width, merged, null);
+            System.arraycopy(merged, 0, array, 0, chunkCount);
+        }
+        sorted();
+    }
+
+    public void parallelSort() {
+        parallelSort(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Like sort(), chunks are sorted in parallel and every merge pass is split into tasks at chunk aligned
+     * output positions. The runs are cut there by binary search (merge path) before any task writes.
+     */
+    public void parallelSort(final ForkJoinPool pool) {
+        checkWritable();
+        Objects.requireNonNull(pool);
+        compact();
+        if (size < PARALLEL_THRESHOLD) {
+            sort();
+            return;
+        }
+        pool.invoke(new SortTask(0, chunkCount));
+        final float[][] merged = new float[chunkCount][];
+        final int[] splits = new int[chunkCount];
+        for (int width = 1; width < chunkCount; width = width << 1) {
+            pool.invoke(new MergeTask(0, chunkCount, width, merged, splits, true));
+            pool.invoke(new MergeTask(0, chunkCount, width, merged, splits, false));
+            System.arraycopy(merged, 0, array, 0, chunkCount);
+        }
+        sorted();
+    }
+
+    private void sortChunks(final int from, final int to) {
+        final float[] scratch = new float[Math.min(chunkSize, size)];
+        for (int i = from; i < to; i++) {
+            // Copies the chunks shared with a snapshot, the merges write only into chunks they own
+            ChunkSorting.sort(writableChunk(i), chunkLength(i), scratch);
+        }
+    }
+
+    // Merges the runs of width chunks pairwise into the output chunks [from, to) of merged. A bound inside
+    // a pair needs its split, the index in the first run where the output chunk starts, in splits
+    private void mergeChunks(final int from, final int to, final int width, final float[][] merged,
+                             final int[] splits) {
+        for (int first = from - from % (width << 1); first < to; first = first + (width << 1)) {
+            final int middle = Math.min(first + width, chunkCount);
+            final int end = Math.min(first + (width << 1), chunkCount);
+            final int outFrom = Math.max(from, first);
+            final int outTo = Math.min(to, end);
+            if (middle == end) {
+                // No partner, the run stays where it is
+                System.arraycopy(array, outFrom, merged, outFrom, outTo - outFrom);
+            } else {
+                final int aFrom = outFrom == first ? first << shift : splits[outFrom];
+                final int aTo = outTo == end ? middle << shift : splits[outTo];
+                final int outEnd = (int) Math.min((long) outTo << shift, size);
+                mergeSegment(middle, outFrom << shift, outEnd, aFrom, aTo, merged);
+            }
+        }
+    }
+
+    // Merges the first run from aFrom to aTo with the second run, that starts at chunk middle, into the
+    // positions [outFrom, outTo), equal values of the first run first. Chunks read to the end inside this
+    // segment are reused for the output, the ones cut by the segment bounds are left to the neighbours
+    private void mergeSegment(final int middle, final int outFrom, final int outTo, final int aFrom, final int aTo,
+                              final float[][] merged) {
+        final int bFrom = (middle << shift) + outFrom - aFrom;
+        final int bTo = (middle << shift) + outTo - aTo;
+        final ArrayDeque<float[]> free = new ArrayDeque<>();
+        int a = aFrom;
+        int b = bFrom;
+        float[] aChunk = a < aTo ? array[a >> shift] : null;
+        float[] bChunk = b < bTo ? array[b >> shift] : null;
+        float[] outChunk = null;
+        int out = outFrom;
+        while (out < outTo) {
+            final int outSub = out & mask;
+            if (outSub == 0) {
+                outChunk = free.isEmpty() ? new float[chunkSize] : free.pop();
+                merged[out >> shift] = outChunk;
+            }
+            final int aSub = a & mask;
+            final int bSub = b & mask;
+            final int aChunkEnd = a - aSub + chunkSize;
+            final int bChunkEnd = b - bSub + chunkSize;
+            final int aCount = Math.min(chunkSize - aSub, aTo - a);
+            final int bCount = Math.min(chunkSize - bSub, bTo - b);
+            // Up to the next chunk end of the output or of an input
+            int count = chunkSize - outSub;
+            if (aCount == 0) {
+                count = Math.min(count, bCount);
+                System.arraycopy(bChunk, bSub, outChunk, outSub, count);
+                b = b + count;
+            } else if (bCount == 0) {
+                count = Math.min(count, aCount);
+                System.arraycopy(aChunk, aSub, outChunk, outSub, count);
+                a = a + count;
+            } else {
+                count = Math.min(count, Math.min(aCount, bCount));
+                int i = aSub;
+                int j = bSub;
+                for (int k = outSub; k < outSub + count; k++) {
+                    if (Float.compare(bChunk[j], aChunk[i]) < 0) {
+                        outChunk[k] = bChunk[j];
+                        j = j + 1;
+                    } else {
+                        outChunk[k] = aChunk[i];
+                        i = i + 1;
+                    }
+                }
+                a = a + (i - aSub);
+                b = b + (j - bSub);
+            }
+            out = out + count;
+            // An input chunk read to its end is free when it started inside this segment
+            if (a == aChunkEnd) {
+                if (a - chunkSize >= aFrom) {
+                    free.push(aChunk);
+                }
+                if (a < aTo) {
+                    aChunk = array[a >> shift];
+                }
+            }
+            if (b == bChunkEnd) {
+                if (b - chunkSize >= bFrom) {
+                    free.push(bChunk);
+                }
+                if (b < bTo) {
+                    bChunk = array[b >> shift];
+                }
+            }
+        }
+    }
+
+    // Stores the split of the output chunk from when it lies inside a pair of runs
+    private void splitChunk(final int from, final int width, final int[] splits) {
+        final int first = from - from % (width << 1);
+        final int middle = Math.min(first + width, chunkCount);
+        final int end = Math.min(first + (width << 1), chunkCount);
+        if (from == first || middle == end) {
+            return;
+        }
+        // Number of values the first run gives to the output before the chunk, found by bisection
+        final int aStart = first << shift;
+        final int bStart = middle << shift;
+        final int diagonal = (from << shift) - aStart;
+        int low = Math.max(0, diagonal - ((int) Math.min((long) end << shift, size) - bStart));
+        int high = Math.min(diagonal, bStart - aStart);
+        while (low < high) {
+            final int i = (low + high) >>> 1;
+            final int j = bStart + diagonal - i - 1;
+            if (Float.compare(array[(aStart + i) >> shift][(aStart + i) & mask],
+                    array[j >> shift][j & mask]) > 0) {
+                high = i;
+            } else {
+                low = i + 1;
+            }
+        }
+        splits[from] = aStart + low;
+    }
+
+    private void sorted() {
+        lastChunk = array[chunkCount - 1];
+        reindexFrom(0);
+        modCount = modCount + 1;
+    }
+
+    private final class SortTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        private SortTask(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNKS_PER_TASK) {
+                sortChunks(from, to);
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new SortTask(from, middle), new SortTask(middle, to));
+            }
+        }
+    }
+
+    // Computes the splits at the task bounds of a merge pass, then merges with them, the same way both times
+    private final class MergeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int width;
+        private final float[][] merged;
+        private final int[] splits;
+        private final boolean splitting;
+
+        private MergeTask(final int from, final int to, final int width, final float[][] merged,
+                          final int[] splits, final boolean splitting) {
+            this.from = from;
+            this.to = to;
+            this.width = width;
+            this.merged = merged;
+            this.splits = splits;
+            this.splitting = splitting;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNKS_PER_TASK) {
+                if (splitting) {
+                    splitChunk(from, width, splits);
+                } else {
+                    mergeChunks(from, to, width, merged, splits);
+                }
+            } else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new MergeTask(from, middle, width, merged, splits, splitting),
+                        new MergeTask(middle, to, width, merged, splits, splitting));
+            }
+        }
+    }
+
+    /**
+     * Searches a sorted collection like Arrays.binarySearch: returns the index of the value, or
+     * -(insertion point) - 1. Bisects the first values of the chunks, then searches inside one chunk.
+     */
+    public int binarySearch(final float value) {
+        if (size == 0 || Float.compare(value, array[0][0]) < 0) {
+            return -1;
+        }
+        // Last chunk that starts with a value not greater than the searched one
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (Float.compare(array[middle][0], value) <= 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        final int found = Arrays.binarySearch(array[low], 0, chunkLength(low), value);
+        return found >= 0 ? chunkStart(low) + found : found - chunkStart(low);
+    }
+
+    public void clean() {
+        checkWritable();
+        array = null;
+        size = 0;
+        lastChunk = null;
+        lastChunkPosition = 0;
+
+        array = new float[][]{EMPTY_CHUNK};
+        chunkCount = 1;
+        lastChunk = array[0];
+        chunkFill = null;
+        chunkStarts = null;
+        shared = null;
+        modCount = modCount + 1;
+        if (chunkSums != null) {
+            disableStatistics();
+            enableStatistics();
+        }
+        if (blockSums != null) {
+            disablePrefixSums();
+            enablePrefixSums();
+        }
+    }
+
+    /**
+     * Read-only view of the current values, made in O(chunks) by sharing all chunks with this collection.
+     * Values appended later go past the size of the snapshot, set() copies a shared chunk before changing it.
+     * Mutating the snapshot throws UnsupportedOperationException, statistics and prefix sums can still be
+     * enabled on it.
+     */
+    public PrimitiveFloatCollection snapshot() {
+        if (readOnly) {
+            return this;
+        }
+        if (shared == null || shared.length < chunkCount) {
+            shared = new boolean[array.length];
+        }
+        Arrays.fill(shared, 0, chunkCount, true);
+        return new PrimitiveFloatCollection(this);
+    }
 
-    private float[] lastChunk;
-    private int lastChunkPosition;
+    public boolean isReadOnly() {
+        return readOnly;
+    }
 
-    private int size;
+    private float[] writableChunk(final int chunkIndex) {
+        if (shared != null && chunkIndex < shared.length && shared[chunkIndex]) {
+            array[chunkIndex] = array[chunkIndex].clone();
+            if (chunkIndex == chunkCount - 1) {
+                lastChunk = array[chunkIndex];
+            }
+            shared[chunkIndex] = false;
+        }
+        return array[chunkIndex];
+    }
 
-    public PrimitiveFloatCollection() {
-        array = new float[1][CHUNK_SIZE];
-        lastChunk = array[0];
-        lastChunkPosition = 0;
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Snapshot is read-only");
+        }
     }
 
-    public int getSize() {
-        return size;
+    /**
+     * Keeps sum, min and max of every chunk, so the aggregates cost O(chunks) instead of O(size).
+     * add() updates the summary of the last chunk, set() and the bulk appends mark their chunks dirty.
+     * Aggregates summarize dirty chunks again, so concurrent readers must not call them at the same time.
+     */
+    public void enableStatistics() {
+        if (chunkSums == null) {
+            final int length = Math.max(chunkCount, 1);
+            chunkSums = new double[length];
+            chunkMins = new float[length];
+            chunkMaxes = new float[length];
+            chunkDirty = new boolean[length];
+            Arrays.fill(chunkDirty, true);
+        }
     }
 
-    public float get(final int index) {
-        RangeCheck.check(index, size);
-        int chunkIndex = index >> SHIFT;
-        int subIndex = index - (chunkIndex << SHIFT);
-        return array[chunkIndex][subIndex];
+    public void disableStatistics() {
+        chunkSums = null;
+        chunkMins = null;
+        chunkMaxes = null;
+        chunkDirty = null;
     }
 
-    public void add(final float value) {
-        if (lastChunkPosition == CHUNK_SIZE) {
-            int lastIndex = array.length;
-            array = Arrays.copyOf(array, array.length + 1);
-            array[lastIndex] = new float[CHUNK_SIZE];
-            lastChunk = array[lastIndex];
-            lastChunkPosition = 0;
+    public boolean isStatisticsEnabled() {
+        return chunkSums != null;
+    }
+
+    private void refreshStatistics(final int chunkIndex) {
+        final float[] chunk = array[chunkIndex];
+        final int length = chunkLength(chunkIndex);
+        chunkSums[chunkIndex] = ChunkKernels.sum(chunk, length);
+        chunkMins[chunkIndex] = ChunkKernels.min(chunk, length);
+        chunkMaxes[chunkIndex] = ChunkKernels.max(chunk, length);
+        chunkDirty[chunkIndex] = false;
+    }
+
+    /**
+     * Keeps an index that answers prefixSum and rangeSum in O(log chunks) plus the block sums of one chunk and
+     * one block of 32 values, updated by add(), set() and the bulk appends. Sums of floating point values
+     * are updated with differences, so they can drift from a fresh sum by rounding errors.
+     */
+    public void enablePrefixSums() {
+        if (blockSums == null) {
+            blockSums = new double[Math.max(chunkCount, 1)][];
+            chunkTree = new double[Math.max(chunkCount, 1)];
+            treeCount = 0;
+            indexChunks(0, chunkCount);
         }
-        lastChunk[lastChunkPosition] = value;
-        lastChunkPosition = lastChunkPosition + 1;
-        size = size + 1;
     }
 
-    public void set(final int index, final float value) {
-        RangeCheck.check(index, size);
-        int chunkIndex = index >> SHIFT;
-        int subIndex = index - (chunkIndex << SHIFT);
-        array[chunkIndex][subIndex] = value;
+    public void disablePrefixSums() {
+        blockSums = null;
+        chunkTree = null;
+        treeCount = 0;
     }
 
-    public void clean() {
-        array = null;
-        size = 0;
-        lastChunk = null;
-        lastChunkPosition = 0;
+    public boolean isPrefixSumsEnabled() {
+        return blockSums != null;
+    }
 
-        array = new float[1][CHUNK_SIZE];
-        lastChunk = array[0];
+    // Summarizes the chunks [firstChunk, endChunk) again and adds all chunks but the last one to the tree
+    private void indexChunks(final int firstChunk, final int endChunk) {
+        if (blockSums.length < chunkCount) {
+            blockSums = Arrays.copyOf(blockSums, array.length);
+            chunkTree = Arrays.copyOf(chunkTree, array.length);
+        }
+        for (int i = firstChunk; i < endChunk; i++) {
+            if (blockSums[i] == null) {
+                blockSums[i] = new double[blocks()];
+            }
+            final int length = chunkLength(i);
+            for (int block = 0; block < blocks(); block++) {
+                final int from = Math.min(block << BLOCK_SHIFT, length);
+                final int to = Math.min((block + 1) << BLOCK_SHIFT, length);
+                blockSums[i][block] = ScalarChunkKernels.sum(array[i], from, to);
+            }
+        }
+        while (treeCount < chunkCount - 1) {
+            // Fenwick node n covers chunks (n - lowbit(n), n]
+            final int node = treeCount + 1;
+            chunkTree[node] = ScalarChunkKernels.sum(blockSums[treeCount], 0, blocks())
+                    + treePrefix(node - 1) - treePrefix(node - (node & -node));
+            treeCount = node;
+        }
+    }
+
+    private int blocks() {
+        return chunkSize >> BLOCK_SHIFT;
+    }
+
+    private void updatePrefixSums(final int chunkIndex, final int subIndex, final float old, final float value) {
+        final double delta = (double) value - old;
+        blockSums[chunkIndex][subIndex >> BLOCK_SHIFT] = blockSums[chunkIndex][subIndex >> BLOCK_SHIFT] + delta;
+        for (int node = chunkIndex + 1; node <= treeCount; node = node + (node & -node)) {
+            chunkTree[node] = chunkTree[node] + delta;
+        }
+    }
+
+    // Sum of the first chunks of the tree
+    private double treePrefix(final int chunks) {
+        double sum = 0;
+        for (int node = chunks; node > 0; node = node - (node & -node)) {
+            sum = sum + chunkTree[node];
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of the values in [0, to), from the prefix sum index when it is enabled.
+     */
+    public double prefixSum(final int to) {
+        RangeCheck.checkFromToIndex(0, to, size);
+        if (blockSums == null) {
+            return rangeSum(0, to);
+        }
+        // The end of the last chunk, so a sparse collection finds a chunk for to == size
+        final int chunkIndex = to == size ? chunkCount - 1 : chunkOf(to);
+        final int subIndex = to - chunkStart(chunkIndex);
+        double sum = treePrefix(Math.min(chunkIndex, treeCount));
+        if (chunkIndex > treeCount) {
+            sum = sum + ScalarChunkKernels.sum(blockSums[treeCount], 0, blocks());
+        }
+        if (subIndex > 0) {
+            final int block = subIndex >> BLOCK_SHIFT;
+            sum = sum + ScalarChunkKernels.sum(blockSums[chunkIndex], 0, block)
+                    + ScalarChunkKernels.sum(array[chunkIndex], block << BLOCK_SHIFT, subIndex);
+        }
+        return sum;
     }
 
     public double sum() {
         if (size == 0) {
             throw new IllegalStateException("Can't calculate, collection is empty");
         }
+        return sumChunks(0, chunkCount);
+    }
+
+    public double average() {
+        return sum() / size;
+    }
+
+    public double parallelSum() {
+        return parallelSum(ForkJoinPool.commonPool());
+    }
+
+    public double parallelSum(final ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+        if (size < PARALLEL_THRESHOLD) {
+            return sumChunks(0, chunkCount);
+        }
+        final SumTask task = new SumTask(0, chunkCount);
+        pool.invoke(task);
+        return task.sum;
+    }
+
+    private double sumChunks(final int from, final int to) {
         double sum = 0;
-        int i = 0;
-        for (float[] chunk : array) {
-            for (float v : chunk) {
-                sum = sum + v;
-                i++;
-                if (i == size) {
-                    break;
-                }
-            }
-            if (i == size) {
-                break;
-            }
+        for (int i = from; i < to; i++) {
+            sum = sum + chunkSum(i);
         }
         return sum;
     }
 
-    public double average() {
-        return sum() / size;
+    private double chunkSum(final int chunkIndex) {
+        if (chunkSums == null) {
+            return ChunkKernels.sum(array[chunkIndex], chunkLength(chunkIndex));
+        }
+        if (chunkDirty[chunkIndex]) {
+            refreshStatistics(chunkIndex);
+        }
+        return chunkSums[chunkIndex];
+    }
+
+    private final class SumTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private double sum;
+
+        private SumTask(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNKS_PER_TASK) {
+                sum = sumChunks(from, to);
+            } else {
+                final int middle = (from + to) >>> 1;
+                final SumTask left = new SumTask(from, middle);
+                final SumTask right = new SumTask(middle, to);
+                invokeAll(left, right);
+                sum = left.sum + right.sum;
+            }
+        }
     }
 
     public float max() {
         if (size == 0) {
             throw new IllegalStateException("Can't calculate, collection is empty");
         }
-        float max = array[0][0];
-        int i = 0;
-        for (float[] chunk : array) {
-            for (float v : chunk) {
-                if (v > max) {
-                    max = v;
-                }
-                i++;
-                if (i == size) {
-                    break;
-                }
+        return maxChunks(0, chunkCount);
+    }
+
+    public float min() {
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+        return minChunks(0, chunkCount);
+    }
+
+    public float parallelMax() {
+        return parallelMax(ForkJoinPool.commonPool());
+    }
+
+    public float parallelMax(final ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+        if (size < PARALLEL_THRESHOLD) {
+            return maxChunks(0, chunkCount);
+        }
+        final MaxTask task = new MaxTask(0, chunkCount);
+        pool.invoke(task);
+        return task.max;
+    }
+
+    public float parallelMin() {
+        return parallelMin(ForkJoinPool.commonPool());
+    }
+
+    public float parallelMin(final ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+        if (size < PARALLEL_THRESHOLD) {
+            return minChunks(0, chunkCount);
+        }
+        final MinTask task = new MinTask(0, chunkCount);
+        pool.invoke(task);
+        return task.min;
+    }
+
+    private float maxChunks(final int from, final int to) {
+        float max = chunkMax(from);
+        for (int i = from + 1; i < to; i++) {
+            final float chunkMax = chunkMax(i);
+            if (chunkMax > max) {
+                max = chunkMax;
             }
-            if (i == size) {
-                break;
+        }
+        return max;
+    }
+
+    private float minChunks(final int from, final int to) {
+        float min = chunkMin(from);
+        for (int i = from + 1; i < to; i++) {
+            final float chunkMin = chunkMin(i);
+            if (chunkMin < min) {
+                min = chunkMin;
+            }
+        }
+        return min;
+    }
+
+    private float chunkMax(final int chunkIndex) {
+        if (chunkMaxes == null) {
+            return ChunkKernels.max(array[chunkIndex], chunkLength(chunkIndex));
+        }
+        if (chunkDirty[chunkIndex]) {
+            refreshStatistics(chunkIndex);
+        }
+        return chunkMaxes[chunkIndex];
+    }
+
+    private float chunkMin(final int chunkIndex) {
+        if (chunkMins == null) {
+            return ChunkKernels.min(array[chunkIndex], chunkLength(chunkIndex));
+        }
+        if (chunkDirty[chunkIndex]) {
+            refreshStatistics(chunkIndex);
+        }
+        return chunkMins[chunkIndex];
+    }
+
+    private final class MaxTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private float max;
+
+        private MaxTask(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNKS_PER_TASK) {
+                max = maxChunks(from, to);
+            } else {
+                final int middle = (from + to) >>> 1;
+                final MaxTask left = new MaxTask(from, middle);
+                final MaxTask right = new MaxTask(middle, to);
+                invokeAll(left, right);
+                max = right.max > left.max ? right.max : left.max;
+            }
+        }
+    }
+
+    private final class MinTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private float min;
+
+        private MinTask(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNKS_PER_TASK) {
+                min = minChunks(from, to);
+            } else {
+                final int middle = (from + to) >>> 1;
+                final MinTask left = new MinTask(from, middle);
+                final MinTask right = new MinTask(middle, to);
+                invokeAll(left, right);
+                min = right.min < left.min ? right.min : left.min;
+            }
+        }
+    }
+
+    /**
+     * Sum of the values in [from, to). Uses the prefix sum index when it is enabled, otherwise whole chunks
+     * use their summaries when statistics are enabled and only the partial chunks at both ends are scanned.
+     */
+    public double rangeSum(final int from, final int to) {
+        RangeCheck.checkFromToIndex(from, to, size);
+        if (blockSums != null) {
+            return prefixSum(to) - prefixSum(from);
+        }
+        double sum = 0;
+        int index = from;
+        int chunkIndex = from < to ? chunkOf(from) : 0;
+        int subIndex = index - chunkStart(chunkIndex);
+        while (index < to) {
+            final int end = Math.min(chunkLength(chunkIndex), subIndex + (to - index));
+            if (subIndex == 0 && end == chunkLength(chunkIndex)) {
+                sum = sum + chunkSum(chunkIndex);
+            } else {
+                sum = sum + ScalarChunkKernels.sum(array[chunkIndex], subIndex, end);
+            }
+            index = index + (end - subIndex);
+            chunkIndex = chunkIndex + 1;
+            subIndex = 0;
+        }
+        return sum;
+    }
+
+    public double rangeAverage(final int from, final int to) {
+        checkNotEmptyRange(from, to);
+        return rangeSum(from, to) / (to - from);
+    }
+
+    public float rangeMax(final int from, final int to) {
+        checkNotEmptyRange(from, to);
+        int chunkIndex = chunkOf(from);
+        int subIndex = from - chunkStart(chunkIndex);
+        float max = array[chunkIndex][subIndex];
+        int index = from;
+        while (index < to) {
+            final int end = Math.min(chunkLength(chunkIndex), subIndex + (to - index));
+            final float chunkMax;
+            if (subIndex == 0 && end == chunkLength(chunkIndex)) {
+                chunkMax = chunkMax(chunkIndex);
+            } else {
+                chunkMax = ScalarChunkKernels.max(array[chunkIndex], subIndex, end);
+            }
+            if (chunkMax > max) {
+                max = chunkMax;
             }
+            index = index + (end - subIndex);
+            chunkIndex = chunkIndex + 1;
+            subIndex = 0;
         }
         return max;
     }
 
-    public float min() {
-        if (size == 0) {
-            throw new IllegalStateException("Can't calculate, collection is empty");
+    public float rangeMin(final int from, final int to) {
+        checkNotEmptyRange(from, to);
+        int chunkIndex = chunkOf(from);
+        int subIndex = from - chunkStart(chunkIndex);
+        float min = array[chunkIndex][subIndex];
+        int index = from;
+        while (index < to) {
+            final int end = Math.min(chunkLength(chunkIndex), subIndex + (to - index));
+            final float chunkMin;
+            if (subIndex == 0 && end == chunkLength(chunkIndex)) {
+                chunkMin = chunkMin(chunkIndex);
+            } else {
+                chunkMin = ScalarChunkKernels.min(array[chunkIndex], subIndex, end);
+            }
+            if (chunkMin < min) {
+                min = chunkMin;
+            }
+            index = index + (end - subIndex);
+            chunkIndex = chunkIndex + 1;
+            subIndex = 0;
+        }
+        return min;
+    }
+
+    private void checkNotEmptyRange(final int from, final int to) {
+        RangeCheck.checkFromToIndex(from, to, size);
+        if (from == to) {
+            throw new IllegalArgumentException("Can't calculate, range is empty");
         }
-        float min = array[0][0];
-        int i = 0;
-        for (float[] chunk : array) {
-            for (float v : chunk) {
-                if (v < min) {
-                    System.out.println("FIND " + getClass().getName());
-                    min = v;
+    }
+
+    public int findFirstGreaterThan(final float value) {
+        return findFirstGreaterThan(0, value);
+    }
+
+    /**
+     * Index of the first value greater than the given one at or after from, or -1. With statistics enabled,
+     * chunks whose max rules them out are skipped without being read.
+     */
+    public int findFirstGreaterThan(final int from, final float value) {
+        RangeCheck.checkFromToIndex(from, size, size);
+        final int firstChunk = chunkOf(from);
+        int start = from - chunkStart(firstChunk);
+        for (int chunkIndex = firstChunk; chunkIndex < chunkCount; chunkIndex++) {
+            if (chunkMaxes == null || !(chunkMax(chunkIndex) <= value)) {
+                final float[] chunk = array[chunkIndex];
+                final int length = chunkLength(chunkIndex);
+                for (int i = start; i < length; i++) {
+                    if (chunk[i] > value) {
+                        return chunkStart(chunkIndex) + i;
+                    }
                 }
-                i++;
-                if (i == size) {
-                    break;
+            }
+            start = 0;
+        }
+        return -1;
+    }
+
+    public int findFirstLessThan(final float value) {
+        return findFirstLessThan(0, value);
+    }
+
+    public int findFirstLessThan(final int from, final float value) {
+        RangeCheck.checkFromToIndex(from, size, size);
+        final int firstChunk = chunkOf(from);
+        int start = from - chunkStart(firstChunk);
+        for (int chunkIndex = firstChunk; chunkIndex < chunkCount; chunkIndex++) {
+            if (chunkMins == null || !(chunkMin(chunkIndex) >= value)) {
+                final float[] chunk = array[chunkIndex];
+                final int length = chunkLength(chunkIndex);
+                for (int i = start; i < length; i++) {
+                    if (chunk[i] < value) {
+                        return chunkStart(chunkIndex) + i;
+                    }
                 }
             }
-            if (i == size) {
-                break;
+            start = 0;
+        }
+        return -1;
+    }
+
+    public double parallelReduce(final double identity, final DoubleBinaryOperator operator) {
+        return parallelReduce(identity, operator, ForkJoinPool.commonPool());
+    }
+
+    public double parallelReduce(final double identity, final DoubleBinaryOperator operator, final ForkJoinPool pool) {
+        Objects.requireNonNull(operator);
+        Objects.requireNonNull(pool);
+        if (size < PARALLEL_THRESHOLD) {
+            return reduceChunks(0, chunkCount, identity, operator);
+        }
+        final ReduceTask task = new ReduceTask(0, chunkCount, identity, operator);
+        pool.invoke(task);
+        return task.result;
+    }
+
+    private double reduceChunks(final int from, final int to, final double identity, final DoubleBinaryOperator operator) {
+        double result = identity;
+        for (int i = from; i < to; i++) {
+            final int length = chunkLength(i);
+            for (int j = 0; j < length; j++) {
+                result = operator.applyAsDouble(result, array[i][j]);
             }
         }
-        return min;
+        return result;
+    }
+
+    private final class ReduceTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final double identity;
+        private final DoubleBinaryOperator operator;
+        private double result;
+
+        private ReduceTask(final int from, final int to, final double identity, final DoubleBinaryOperator operator) {
+            this.from = from;
+            this.to = to;
+            this.identity = identity;
+            this.operator = operator;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNKS_PER_TASK) {
+                result = reduceChunks(from, to, identity, operator);
+            } else {
+                final int middle = (from + to) >>> 1;
+                final ReduceTask left = new ReduceTask(from, middle, identity, operator);
+                final ReduceTask right = new ReduceTask(middle, to, identity, operator);
+                invokeAll(left, right);
+                result = operator.applyAsDouble(left.result, right.result);
+            }
+        }
+    }
+
+    public void forEach(final PrimitiveFloatConsumer action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        for (int i = 0; i < chunkCount; i++) {
+            final float[] chunk = array[i];
+            final int length = chunkLength(i);
+            for (int j = 0; j < length; j++) {
+                action.accept(chunk[j]);
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private float[] chunk;
+        private int chunkIndex;
+        private int chunkLength;
+        private int position;
+        private int expectedModCount;
+
+        private Cursor() {
+            reset();
+        }
+
+        public void reset() {
+            chunkIndex = 0;
+            chunk = array[0];
+            chunkLength = chunkLength(0);
+            position = 0;
+            expectedModCount = modCount;
+        }
+
+        public boolean hasNext() {
+            if (position < chunkLength) {
+                return true;
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (chunkIndex + 1 < chunkCount) {
+                chunkIndex = chunkIndex + 1;
+                chunk = array[chunkIndex];
+                chunkLength = chunkLength(chunkIndex);
+                position = 0;
+                return chunkLength > 0;
+            }
+            return false;
+        }
+
+        public float next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final float value = chunk[position];
+            position = position + 1;
+            return value;
+        }
+    }
+
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(spliterator(), false);
+    }
+
+    public DoubleStream parallelStream() {
+        return StreamSupport.doubleStream(spliterator(), true);
+    }
+
+    public Spliterator.OfDouble spliterator() {
+        if (chunkStarts == null) {
+            return new ChunkSpliterator(array, shift, null, 0, size);
+        }
+        // The chunk starts followed by the size, so every chunk has an end
+        final int[] starts = Arrays.copyOf(chunkStarts, chunkCount + 1);
+        starts[chunkCount] = size;
+        return new ChunkSpliterator(array, shift, starts, 0, size);
+    }
+
+    private static final class ChunkSpliterator implements Spliterator.OfDouble {
+        private final float[][] chunks;
+        private final int shift;
+        // Null for a dense collection
+        private final int[] starts;
+        private final int fence;
+        private int index;
+
+        private ChunkSpliterator(final float[][] chunks, final int shift, final int[] starts, final int index,
+                                 final int fence) {
+            this.chunks = chunks;
+            this.shift = shift;
+            this.starts = starts;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            int middle = chunkStart(chunkOf((index + fence) >>> 1));
+            if (middle <= index) {
+                middle = chunkStart(chunkOf(index) + 1);
+            }
+            if (middle >= fence) {
+                return null;
+            }
+            final ChunkSpliterator prefix = new ChunkSpliterator(chunks, shift, starts, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(final DoubleConsumer action) {
+            Objects.requireNonNull(action);
+            if (index < fence) {
+                final int chunkIndex = chunkOf(index);
+                action.accept(chunks[chunkIndex][index - chunkStart(chunkIndex)]);
+                index = index + 1;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final DoubleConsumer action) {
+            Objects.requireNonNull(action);
+            int i = index;
+            index = fence;
+            int chunkIndex = chunkOf(i);
+            while (i < fence) {
+                final float[] chunk = chunks[chunkIndex];
+                final int from = i - chunkStart(chunkIndex);
+                final int to = Math.min(chunkStart(chunkIndex + 1) - chunkStart(chunkIndex), from + (fence - i));
+                for (int j = from; j < to; j++) {
+                    action.accept(chunk[j]);
+                }
+                i = i + (to - from);
+                chunkIndex = chunkIndex + 1;
+            }
+        }
+
+        private int chunkOf(final int i) {
+            return starts == null ? i >> shift : searchChunk(starts, starts.length - 1, i);
+        }
+
+        private int chunkStart(final int chunkIndex) {
+            return starts == null ? chunkIndex << shift : starts[chunkIndex];
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED;
+        }
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(array);
+        // Value by value, so the chunk size does not matter. Only values below the size, the last chunk may be
+        // shared with a collection that appended to it
+        int result = 1;
+        for (int i = 0; i < chunkCount; i++) {
+            final float[] chunk = array[i];
+            final int length = chunkLength(i);
+            for (int j = 0; j < length; j++) {
+                result = 31 * result + Float.hashCode(chunk[j]);
+            }
+        }
+        return result;
     }
 
     @Override
@@ -154,11 +2027,26 @@ public class PrimitiveFloatCollection {
             return true;
         }
         if (size == second.getSize()) {
-            for (int i = 0; i < array.length; i++) {
+            if (chunkSize != second.chunkSize || chunkStarts != null || second.chunkStarts != null) {
+                final Cursor cursor = cursor();
+                final Cursor secondCursor = second.cursor();
+                while (cursor.hasNext()) {
+                    if (Float.compare(cursor.next(), secondCursor.next()) != 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            for (int i = 0; i < chunkCount - 1; i++) {
                 if (!Arrays.equals(array[i], second.array[i])) {
                     return false;
                 }
             }
+            for (int j = 0; j < lastChunkPosition; j++) {
+                if (Float.compare(lastChunk[j], second.lastChunk[j]) != 0) {
+                    return false;
+                }
+            }
             return true;
         } else {
             return false;
@@ -172,6 +2060,26 @@ public class PrimitiveFloatCollection {
 
     @Override
     public String toString() {
-        return Arrays.deepToString(array);
+        // Chunk by chunk like Arrays.deepToString, but only values below the size as in hashCode()
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < chunkCount; i++) {
+            final int length = chunkLength(i);
+            if (length == 0) {
+                break;
+            }
+            if (i > 0) {
+                builder.append(", ");
+            }
+            final float[] chunk = array[i];
+            builder.append('[');
+            for (int j = 0; j < length; j++) {
+                if (j > 0) {
+                    builder.append(", ");
+                }
+                builder.append(chunk[j]);
+            }
+            builder.append(']');
+        }
+        return builder.append(']').toString();
     }
 }
@@ -0,0 +1,6 @@
+package pkg.collections;
+
+@FunctionalInterface
+public interface PrimitiveFloatConsumer {
+    void accept(float value);
+}
@@ -0,0 +1,6 @@
+package pkg.collections;
+
+@FunctionalInterface
+public interface PrimitiveFloatPredicate {
+    boolean test(float value);
+}
@@ -0,0 +1,233 @@
+package pkg.collections;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * PrimitiveIntCollection for many appending threads without locks.
+ * <p>
+ * add() claims a slot with an atomic counter, creates missing chunks and directory segments with CAS,
+ * writes the value and then counts it as committed in its chunk. getSize() only publishes a prefix of
+ * committed values, so readers never see a claimed slot that has not been written yet, and the published
+ * prefix only grows. Values written by one thread keep their order, values of different threads are
+ * interleaved.
+ */
+public class PrimitiveIntConcurrentCollection {
+    private static final int SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << SHIFT; // 1024
+    private static final int SEGMENT_SHIFT = 10;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int MAX_CHUNKS = (Integer.MAX_VALUE >> SHIFT) + 1;
+
+    private static final class Chunk {
+        private final int[] values = new int[CHUNK_SIZE];
+        private final AtomicInteger committed = new AtomicInteger();
+    }
+
+    // Fixed top level, so the directory never has to be copied while other threads use it
+    private final AtomicReferenceArray<AtomicReferenceArray<Chunk>> segments =
+            new AtomicReferenceArray<>((MAX_CHUNKS + SEGMENT_SIZE - 1) >> SEGMENT_SHIFT);
+
+    // Next slot to claim
+    private final AtomicInteger tail = new AtomicInteger();
+    // Number of leading chunks with all their values committed
+    private final AtomicInteger completeChunks = new AtomicInteger();
+    // Longest committed prefix seen so far, only moves forward
+    private final AtomicInteger published = new AtomicInteger();
+
+    public void add(final int value) {
+        final int index = tail.getAndIncrement();
+        if (index < 0 || index == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Collection is full");
+        }
+        final Chunk chunk = chunk(index >> SHIFT);
+        chunk.values[index & (CHUNK_SIZE - 1)] = value;
+        chunk.committed.incrementAndGet();
+    }
+
+    public void addAll(final int[] source) {
+        Objects.requireNonNull(source);
+        addAll(source, 0, source.length);
+    }
+
+    /**
+     * Appends the values as one contiguous run, claimed with a single atomic operation.
+     */
+    public void addAll(final int[] source, final int offset, final int length) {
+        Objects.requireNonNull(source);
+        RangeCheck.checkFromIndexSize(offset, length, source.length);
+        if (length == 0) {
+            return;
+        }
+        final int first = tail.getAndAdd(length);
+        if (first < 0 || first > Integer.MAX_VALUE - length) {
+            throw new IllegalStateException("Collection is full");
+        }
+        int index = first;
+        int position = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            final int subIndex = index & (CHUNK_SIZE - 1);
+            final int count = Math.min(remaining, CHUNK_SIZE - subIndex);
+            final Chunk chunk = chunk(index >> SHIFT);
+            System.arraycopy(source, position, chunk.values, subIndex, count);
+            chunk.committed.addAndGet(count);
+            index = index + count;
+            position = position + count;
+            remaining = remaining - count;
+        }
+    }
+
+    private Chunk chunk(final int chunkIndex) {
+        final int segmentIndex = chunkIndex >> SEGMENT_SHIFT;
+        AtomicReferenceArray<Chunk> segment = segments.get(segmentIndex);
+        if (segment == null) {
+            final AtomicReferenceArray<Chunk> newSegment = new AtomicReferenceArray<>(SEGMENT_SIZE);
+            if (segments.compareAndSet(segmentIndex, null, newSegment)) {
+                segment = newSegment;
+            } else {
+                segment = segments.get(segmentIndex);
+            }
+        }
+        final int subIndex = chunkIndex & (SEGMENT_SIZE - 1);
+        Chunk chunk = segment.get(subIndex);
+        if (chunk == null) {
+            final Chunk newChunk = new Chunk();
+            if (segment.compareAndSet(subIndex, null, newChunk)) {
+                chunk = newChunk;
+            } else {
+                chunk = segment.get(subIndex);
+            }
+        }
+        return chunk;
+    }
+
+    // Only for chunks below the published size, which exist
+    private int[] values(final int chunkIndex) {
+        return segments.get(chunkIndex >> SEGMENT_SHIFT).get(chunkIndex & (SEGMENT_SIZE - 1)).values;
+    }
+
+    /**
+     * Number of values readable by get(). Claimed slots that are not written yet, and everything after
+     * them, are not counted. The size never goes backwards.
+     */
+    public int getSize() {
+        final int prefix = committedPrefix();
+        int size = published.get();
+        while (prefix > size) {
+            if (published.compareAndSet(size, prefix)) {
+                return prefix;
+            }
+            size = published.get();
+        }
+        return size;
+    }
+
+    // A prefix of committed values, may be shorter than a prefix found before
+    private int committedPrefix() {
+        int complete = completeChunks.get();
+        while (true) {
+            final AtomicReferenceArray<Chunk> segment = segments.get(complete >> SEGMENT_SHIFT);
+            final Chunk chunk = segment == null ? null : segment.get(complete & (SEGMENT_SIZE - 1));
+            if (chunk == null) {
+                return complete << SHIFT;
+            }
+            // Committed before tail: if every slot claimed so far is committed, they are all written
+            final int committed = chunk.committed.get();
+            if (committed == CHUNK_SIZE) {
+                completeChunks.compareAndSet(complete, complete + 1);
+                complete = completeChunks.get();
+                continue;
+            }
+            int claimed = tail.get();
+            if (claimed < 0) {
+                claimed = Integer.MAX_VALUE;
+            }
+            claimed = Math.min(claimed - (complete << SHIFT), CHUNK_SIZE);
+            return committed == claimed ? (complete << SHIFT) + committed : complete << SHIFT;
+        }
+    }
+
+    public int get(final int index) {
+        RangeCheck.check(index, getSize());
+        return values(index >> SHIFT)[index & (CHUNK_SIZE - 1)];
+    }
+
+    public void forEach(final PrimitiveIntConsumer action) {
+        Objects.requireNonNull(action);
+        final int size = getSize();
+        for (int i = 0; i < size; i = i + CHUNK_SIZE) {
+            final int[] chunk = values(i >> SHIFT);
+            final int length = Math.min(CHUNK_SIZE, size - i);
+            for (int j = 0; j < length; j++) {
+                action.accept(chunk[j]);
+            }
+        }
+    }
+
+    public double sum() {
+        final int size = getSize();
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+        double sum = 0;
+        for (int i = 0; i < size; i = i + CHUNK_SIZE) {
+            sum = sum + ChunkKernels.sum(values(i >> SHIFT), Math.min(CHUNK_SIZE, size - i));
+        }
+        return sum;
+    }
+
+    public int max() {
+        final int size = getSize();
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+        int max = values(0)[0];
+        for (int i = 0; i < size; i = i + CHUNK_SIZE) {
+            final int chunkMax = ChunkKernels.max(values(i >> SHIFT), Math.min(CHUNK_SIZE, size - i));
+            if (chunkMax > max) {
+                max = chunkMax;
+            }
+        }
+        return max;
+    }
+
+    public int min() {
+        final int size = getSize();
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+        int min = values(0)[0];
+        for (int i = 0; i < size; i = i + CHUNK_SIZE) {
+            final int chunkMin = ChunkKernels.min(values(i >> SHIFT), Math.min(CHUNK_SIZE, size - i));
+            if (chunkMin < min) {
+                min = chunkMin;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Copies the published values into a new PrimitiveIntCollection.
+     */
+    public PrimitiveIntCollection toCollection() {
+        final int size = getSize();
+        final PrimitiveIntCollection collection = new PrimitiveIntCollection();
+        collection.ensureCapacity(size);
+        for (int i = 0; i < size; i = i + CHUNK_SIZE) {
+            collection.addAll(values(i >> SHIFT), 0, Math.min(CHUNK_SIZE, size - i));
+        }
+        return collection;
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        return "[size = " + getSize() + ", claimed = " + tail.get() + "]";
+    }
+}
@@ -0,0 +1,314 @@
+package pkg.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Hash map from int keys to int values without boxing or per entry objects.
+ * <p>
+ * Keys and values live in two parallel power of two arrays with linear probing. The key 0 marks a free
+ * slot, so its entry is kept in separate fields. remove() shifts the following entries back instead of
+ * leaving tombstones. Keys are compared as described in {@link Hashing}.
+ */
+public class PrimitiveIntIntMap {
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int FREE = 0;
+
+    private final float loadFactor;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int maxFill;
+    // Entries in keys, the free key is counted by containsFree
+    private int count;
+    private boolean containsFree;
+    private int freeValue;
+
+    private int modCount;
+
+    public PrimitiveIntIntMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public PrimitiveIntIntMap(final int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public PrimitiveIntIntMap(final int expectedSize, final float loadFactor) {
+        Hashing.checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableSize(expectedSize, loadFactor));
+    }
+
+    public int getSize() {
+        return containsFree ? count + 1 : count;
+    }
+
+    public boolean containsKey(final int key) {
+        if (Hashing.equal(key, FREE)) {
+            return containsFree;
+        }
+        return find(key) >= 0;
+    }
+
+    public int get(final int key) {
+        if (Hashing.equal(key, FREE)) {
+            if (containsFree) {
+                return freeValue;
+            }
+        } else {
+            final int slot = find(key);
+            if (slot >= 0) {
+                return values[slot];
+            }
+        }
+        throw new NoSuchElementException("Key = " + key);
+    }
+
+    public int getOrDefault(final int key, final int defaultValue) {
+        if (Hashing.equal(key, FREE)) {
+            return containsFree ? freeValue : defaultValue;
+        }
+        final int slot = find(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    // Slot of a key other than the free key, or -1
+    private int find(final int key) {
+        int slot = Hashing.hash(key) & mask;
+        while (!Hashing.equal(keys[slot], FREE)) {
+            if (Hashing.equal(keys[slot], key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public void put(final int key, final int value) {
+        if (Hashing.equal(key, FREE)) {
+            if (!containsFree) {
+                containsFree = true;
+                modCount = modCount + 1;
+            }
+            freeValue = value;
+            return;
+        }
+        // insert() may rehash, so the values array is read after it
+        final int slot = insert(key);
+        values[slot] = value;
+    }
+
+    /**
+     * Adds increment to the value of the key, a missing key starts from 0. Returns the new value.
+     */
+    public int addTo(final int key, final int increment) {
+        // += narrows the sum of byte and short values without a cast the other types would flag as redundant
+        if (Hashing.equal(key, FREE)) {
+            if (!containsFree) {
+                containsFree = true;
+                freeValue = 0;
+                modCount = modCount + 1;
+            }
+            freeValue += increment;
+            return freeValue;
+        }
+        final int slot = insert(key);
+        values[slot] += increment;
+        return values[slot];
+    }
+
+    // Slot of a key other than the free key, claimed with the value 0 when the key is missing
+    private int insert(final int key) {
+        int slot = Hashing.hash(key) & mask;
+        while (!Hashing.equal(keys[slot], FREE)) {
+            if (Hashing.equal(keys[slot], key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (count >= maxFill) {
+            rehash(grow());
+            return insert(key);
+        }
+        keys[slot] = key;
+        values[slot] = 0;
+        count = count + 1;
+        modCount = modCount + 1;
+        return slot;
+    }
+
+    /**
+     * Puts newKeys.get(i) to newValues.get(i) for every index, later entries win.
+     */
+    public void putAll(final PrimitiveIntCollection newKeys, final PrimitiveIntCollection newValues) {
+        Objects.requireNonNull(newKeys);
+        Objects.requireNonNull(newValues);
+        final int length = newKeys.getSize();
+        if (length != newValues.getSize()) {
+            throw new IllegalArgumentException("Keys size = " + length + ", Values size = " + newValues.getSize());
+        }
+        ensureCapacity((long) getSize() + length);
+        for (int i = 0; i < length; i++) {
+            put(newKeys.get(i), newValues.get(i));
+        }
+    }
+
+    /**
+     * Returns false when the key is not in the map.
+     */
+    public boolean remove(final int key) {
+        if (Hashing.equal(key, FREE)) {
+            if (!containsFree) {
+                return false;
+            }
+            containsFree = false;
+            modCount = modCount + 1;
+            return true;
+        }
+        final int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        shiftKeys(slot);
+        count = count - 1;
+        modCount = modCount + 1;
+        return true;
+    }
+
+    // Moves entries after the removed slot back, so every entry stays reachable from its home slot
+    private void shiftKeys(final int removed) {
+        int free = removed;
+        int slot = removed;
+        while (true) {
+            slot = (slot + 1) & mask;
+            final int key = keys[slot];
+            if (Hashing.equal(key, FREE)) {
+                keys[free] = FREE;
+                return;
+            }
+            final int home = Hashing.hash(key) & mask;
+            // The entry may move when the free slot lies cyclically between its home and its slot
+            if (free <= slot ? free >= home || home > slot : free >= home && home > slot) {
+                keys[free] = key;
+                values[free] = values[slot];
+                free = slot;
+            }
+        }
+    }
+
+    /**
+     * Resizes the table once, so expectedSize entries fit without rehashing.
+     */
+    public void ensureCapacity(final long expectedSize) {
+        if (expectedSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Expected size = " + expectedSize);
+        }
+        final int capacity = Hashing.tableSize((int) expectedSize, loadFactor);
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    public void clean() {
+        Arrays.fill(keys, FREE);
+        count = 0;
+        containsFree = false;
+        modCount = modCount + 1;
+    }
+
+    private int grow() {
+        if (keys.length == Hashing.MAX_CAPACITY) {
+            throw new IllegalStateException("Map is full");
+        }
+        return keys.length << 1;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        maxFill = Hashing.maxFill(capacity, loadFactor);
+    }
+
+    private void rehash(final int capacity) {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!Hashing.equal(oldKeys[i], FREE)) {
+                int slot = Hashing.hash(oldKeys[i]) & mask;
+                while (!Hashing.equal(keys[slot], FREE)) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Visits the entries in table order: while (cursor.next()) { cursor.key(); cursor.value(); }
+     */
+    public final class Cursor {
+        // -1 is the free key, then the slots of the table
+        private int slot = -2;
+        private final int expectedModCount = modCount;
+
+        private Cursor() {
+        }
+
+        public boolean next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (slot == -2) {
+                slot = -1;
+                if (containsFree) {
+                    return true;
+                }
+            }
+            while (slot < keys.length) {
+                slot = slot + 1;
+                if (slot < keys.length && !Hashing.equal(keys[slot], FREE)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int key() {
+            checkEntry();
+            return slot == -1 ? FREE : keys[slot];
+        }
+
+        public int value() {
+            checkEntry();
+            return slot == -1 ? freeValue : values[slot];
+        }
+
+        private void checkEntry() {
+            if (slot < -1 || slot >= keys.length) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        return "[size = " + getSize() + ", capacity = " + keys.length + "]";
+    }
+}
@@ -0,0 +1,294 @@
+package pkg.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * PrimitiveLongCollection that compresses every chunk except the last one when it is full.
+ * <p>
+ * A sealed chunk stores value j as {@code origin + slope * j + offset(j)}, with the offsets bit-packed at the
+ * smallest width that holds them. The slope is the average step of the chunk, or zero when a plain frame of
+ * reference packs better, so increasing timestamps and ids take a few bits per value while get stays O(1).
+ * Sum, min and max of sealed chunks are kept at sealing time, so reductions don't decode anything.
+ * Setting a value in a sealed chunk decodes and seals the chunk again.
+ */
+public class PrimitiveLongCompressedCollection {
+    private static final int SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << SHIFT; // 1024
+    private static final int MAX_CHUNKS = (Integer.MAX_VALUE >> SHIFT) + 1;
+
+    private long[] origins;
+    private long[] slopes;
+    private byte[] widths;
+    private long[][] words;
+    private double[] sums;
+    private long[] mins;
+    private long[] maxes;
+    private int sealedCount;
+
+    private long[] lastChunk;
+    private int lastChunkPosition;
+
+    private int size;
+
+    private long[] scratch;
+
+    public PrimitiveLongCompressedCollection() {
+        init();
+    }
+
+    private void init() {
+        origins = new long[1];
+        slopes = new long[1];
+        widths = new byte[1];
+        words = new long[1][];
+        sums = new double[1];
+        mins = new long[1];
+        maxes = new long[1];
+        sealedCount = 0;
+        lastChunk = new long[CHUNK_SIZE];
+        lastChunkPosition = 0;
+        size = 0;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long get(final int index) {
+        RangeCheck.check(index, size);
+        final int chunkIndex = index >> SHIFT;
+        final int subIndex = index & (CHUNK_SIZE - 1);
+        if (chunkIndex < sealedCount) {
+            return origins[chunkIndex] + slopes[chunkIndex] * subIndex + read(words[chunkIndex], widths[chunkIndex], subIndex);
+        }
+        return lastChunk[subIndex];
+    }
+
+    public void add(final long value) {
+        if (lastChunkPosition == CHUNK_SIZE) {
+            seal();
+        }
+        lastChunk[lastChunkPosition] = value;
+        lastChunkPosition = lastChunkPosition + 1;
+        size = size + 1;
+    }
+
+    public void addAll(final PrimitiveLongCollection other) {
+        Objects.requireNonNull(other);
+        other.forEach(this::add);
+    }
+
+    public void set(final int index, final long value) {
+        RangeCheck.check(index, size);
+        final int chunkIndex = index >> SHIFT;
+        final int subIndex = index & (CHUNK_SIZE - 1);
+        if (chunkIndex < sealedCount) {
+            if (scratch == null) {
+                scratch = new long[CHUNK_SIZE];
+            }
+            decode(chunkIndex, scratch);
+            scratch[subIndex] = value;
+            encode(chunkIndex, scratch);
+        } else {
+            lastChunk[subIndex] = value;
+        }
+    }
+
+    public void clean() {
+        init();
+        scratch = null;
+    }
+
+    private void seal() {
+        if (sealedCount == origins.length) {
+            int newLength = origins.length + (origins.length >> 1) + 1;
+            if (newLength > MAX_CHUNKS || newLength < 0) {
+                newLength = MAX_CHUNKS;
+            }
+            origins = Arrays.copyOf(origins, newLength);
+            slopes = Arrays.copyOf(slopes, newLength);
+            widths = Arrays.copyOf(widths, newLength);
+            words = Arrays.copyOf(words, newLength);
+            sums = Arrays.copyOf(sums, newLength);
+            mins = Arrays.copyOf(mins, newLength);
+            maxes = Arrays.copyOf(maxes, newLength);
+        }
+        encode(sealedCount, lastChunk);
+        sealedCount = sealedCount + 1;
+        lastChunkPosition = 0;
+    }
+
+    private void encode(final int chunkIndex, final long[] values) {
+        // Average step over the chunk, wrapping like the decoding does
+        final long slope = (values[CHUNK_SIZE - 1] - values[0]) / (CHUNK_SIZE - 1);
+        long origin = minResidual(values, slope);
+        int width = width(values, slope, origin);
+        long chosenSlope = slope;
+        if (slope != 0) {
+            final long plainOrigin = minResidual(values, 0);
+            final int plainWidth = width(values, 0, plainOrigin);
+            if (plainWidth <= width) {
+                origin = plainOrigin;
+                width = plainWidth;
+                chosenSlope = 0;
+            }
+        }
+
+        final long[] packed = new long[width * (CHUNK_SIZE / Long.SIZE)];
+        if (width > 0) {
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                write(packed, width, i, values[i] - chosenSlope * i - origin);
+            }
+        }
+        origins[chunkIndex] = origin;
+        slopes[chunkIndex] = chosenSlope;
+        widths[chunkIndex] = (byte) width;
+        words[chunkIndex] = packed;
+        sums[chunkIndex] = ChunkKernels.sum(values, CHUNK_SIZE);
+        mins[chunkIndex] = ChunkKernels.min(values, CHUNK_SIZE);
+        maxes[chunkIndex] = ChunkKernels.max(values, CHUNK_SIZE);
+    }
+
+    private void decode(final int chunkIndex, final long[] destination) {
+        final long origin = origins[chunkIndex];
+        final long slope = slopes[chunkIndex];
+        final long[] packed = words[chunkIndex];
+        final int width = widths[chunkIndex];
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            destination[i] = origin + slope * i + read(packed, width, i);
+        }
+    }
+
+    private static long minResidual(final long[] values, final long slope) {
+        long min = values[0];
+        for (int i = 1; i < CHUNK_SIZE; i++) {
+            final long residual = values[i] - slope * i;
+            if (residual < min) {
+                min = residual;
+            }
+        }
+        return min;
+    }
+
+    private static int width(final long[] values, final long slope, final long origin) {
+        long max = 0;
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            final long offset = values[i] - slope * i - origin;
+            // A negative offset means the range doesn't fit 63 bits
+            if (offset < 0) {
+                return Long.SIZE;
+            }
+            if (offset > max) {
+                max = offset;
+            }
+        }
+        return Long.SIZE - Long.numberOfLeadingZeros(max);
+    }
+
+    private static void write(final long[] packed, final int width, final int index, final long offset) {
+        final int bit = index * width;
+        final int word = bit >>> 6;
+        final int shift = bit & 63;
+        packed[word] = packed[word] | (offset << shift);
+        if (shift + width > Long.SIZE) {
+            packed[word + 1] = packed[word + 1] | (offset >>> (Long.SIZE - shift));
+        }
+    }
+
+    private static long read(final long[] packed, final int width, final int index) {
+        if (width == 0) {
+            return 0;
+        }
+        final int bit = index * width;
+        final int word = bit >>> 6;
+        final int shift = bit & 63;
+        long value = packed[word] >>> shift;
+        if (shift + width > Long.SIZE) {
+            value = value | (packed[word + 1] << (Long.SIZE - shift));
+        }
+        return width == Long.SIZE ? value : value & ((1L << width) - 1);
+    }
+
+    public void forEach(final PrimitiveLongConsumer action) {
+        Objects.requireNonNull(action);
+        for (int c = 0; c < sealedCount; c++) {
+            final long origin = origins[c];
+            final long slope = slopes[c];
+            final long[] packed = words[c];
+            final int width = widths[c];
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                action.accept(origin + slope * i + read(packed, width, i));
+            }
+        }
+        for (int i = 0; i < lastChunkPosition; i++) {
+            action.accept(lastChunk[i]);
+        }
+    }
+
+    public double sum() {
+        checkNotEmpty();
+        double sum = 0;
+        for (int i = 0; i < sealedCount; i++) {
+            sum = sum + sums[i];
+        }
+        if (lastChunkPosition > 0) {
+            sum = sum + ChunkKernels.sum(lastChunk, lastChunkPosition);
+        }
+        return sum;
+    }
+
+    public double average() {
+        return sum() / size;
+    }
+
+    public long max() {
+        checkNotEmpty();
+        long max = lastChunkPosition > 0 ? ChunkKernels.max(lastChunk, lastChunkPosition) : Long.MIN_VALUE;
+        for (int i = 0; i < sealedCount; i++) {
+            if (maxes[i] > max) {
+                max = maxes[i];
+            }
+        }
+        return max;
+    }
+
+    public long min() {
+        checkNotEmpty();
+        long min = lastChunkPosition > 0 ? ChunkKernels.min(lastChunk, lastChunkPosition) : Long.MAX_VALUE;
+        for (int i = 0; i < sealedCount; i++) {
+            if (mins[i] < min) {
+                min = mins[i];
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Approximate heap size of the stored values in bytes, without the object headers of this collection.
+     */
+    public long sizeInBytes() {
+        // Array header and the per chunk fields: origin, slope, width, sum, min, max and the words reference
+        long bytes = 16 + (long) CHUNK_SIZE * Long.BYTES;
+        for (int i = 0; i < sealedCount; i++) {
+            bytes = bytes + 16 + (long) words[i].length * Long.BYTES + 6 * Long.BYTES + 1;
+        }
+        return bytes;
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        return "[size = " + size + ", sealed chunks = " + sealedCount + ", bytes = " + sizeInBytes() + "]";
+    }
+}
@@ -0,0 +1,177 @@
+package pkg.collections;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * PrimitiveLongCollection with its chunks in direct memory, so the values are not scanned by the
+ * garbage collector and the collection can hold more than 2^31 elements. Memory is released by
+ * {@link #close()}, after which every method throws IllegalStateException.
+ */
+public class PrimitiveLongOffHeapCollection implements AutoCloseable {
+    private static final int SHIFT = 17;
+    private static final int CHUNK_SIZE = 1 << SHIFT; // 131072 values, 1 MiB per chunk
+    private static final int CHUNK_BYTES = CHUNK_SIZE << 3;
+
+    private ByteBuffer[] chunks;
+    private int chunkCount;
+
+    private ByteBuffer lastChunk;
+    private int lastChunkPosition;
+
+    private long size;
+
+    public PrimitiveLongOffHeapCollection() {
+        chunks = new ByteBuffer[1];
+        addChunk();
+    }
+
+    public long getSize() {
+        checkOpen();
+        return size;
+    }
+
+    public long get(final long index) {
+        checkOpen();
+        RangeCheck.check(index, size);
+        return chunks[(int) (index >>> SHIFT)].getLong(((int) index & (CHUNK_SIZE - 1)) << 3);
+    }
+
+    public void add(final long value) {
+        checkOpen();
+        if (lastChunkPosition == CHUNK_SIZE) {
+            addChunk();
+        }
+        lastChunk.putLong(lastChunkPosition << 3, value);
+        lastChunkPosition = lastChunkPosition + 1;
+        size = size + 1;
+    }
+
+    public void set(final long index, final long value) {
+        checkOpen();
+        RangeCheck.check(index, size);
+        chunks[(int) (index >>> SHIFT)].putLong(((int) index & (CHUNK_SIZE - 1)) << 3, value);
+    }
+
+    public void clean() {
+        checkOpen();
+        releaseChunks();
+        chunks = new ByteBuffer[1];
+        chunkCount = 0;
+        size = 0;
+        addChunk();
+    }
+
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + (chunks.length >> 1) + 1);
+        }
+        lastChunk = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.nativeOrder());
+        chunks[chunkCount] = lastChunk;
+        chunkCount = chunkCount + 1;
+        lastChunkPosition = 0;
+    }
+
+    public double sum() {
+        checkNotEmpty();
+        double sum = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            final ByteBuffer chunk = chunks[i];
+            final int end = chunkLength(i) << 3;
+            for (int j = 0; j < end; j = j + 8) {
+                sum = sum + chunk.getLong(j);
+            }
+        }
+        return sum;
+    }
+
+    public double average() {
+        return sum() / size;
+    }
+
+    public long max() {
+        checkNotEmpty();
+        long max = chunks[0].getLong(0);
+        for (int i = 0; i < chunkCount; i++) {
+            final ByteBuffer chunk = chunks[i];
+            final int end = chunkLength(i) << 3;
+            for (int j = 0; j < end; j = j + 8) {
+                final long v = chunk.getLong(j);
+                if (v > max) {
+                    max = v;
+                }
+            }
+        }
+        return max;
+    }
+
+    public long min() {
+        checkNotEmpty();
+        long min = chunks[0].getLong(0);
+        for (int i = 0; i < chunkCount; i++) {
+            final ByteBuffer chunk = chunks[i];
+            final int end = chunkLength(i) << 3;
+            for (int j = 0; j < end; j = j + 8) {
+                final long v = chunk.getLong(j);
+                if (v < min) {
+                    min = v;
+                }
+            }
+        }
+        return min;
+    }
+
+    public boolean isClosed() {
+        return chunks == null;
+    }
+
+    @Override
+    public void close() {
+        if (chunks != null) {
+            releaseChunks();
+            chunks = null;
+            lastChunk = null;
+            chunkCount = 0;
+            lastChunkPosition = 0;
+            size = 0;
+        }
+    }
+
+    private void releaseChunks() {
+        for (int i = 0; i < chunkCount; i++) {
+            DirectBuffers.release(chunks[i]);
+            chunks[i] = null;
+        }
+    }
+
+    private int chunkLength(final int chunkIndex) {
+        return chunkIndex == chunkCount - 1 ? lastChunkPosition : CHUNK_SIZE;
+    }
+
+    private void checkOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("Collection is closed");
+        }
+    }
+
+    private void checkNotEmpty() {
+        checkOpen();
+        if (size == 0) {
+            throw new IllegalStateException("Can't calculate, collection is empty");
+        }
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        if (chunks == null) {
+            return "[closed]";
+        }
+        return "[size = " + size + ", chunks = " + chunkCount + "]";
+    }
+}
@@ -0,0 +1,238 @@
+package pkg.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Objects;
+
+/**
+ * Hash set of long values without boxing or per entry objects.
+ * <p>
+ * Values live in one power of two array with linear probing. The value 0 marks a free slot, so it is
+ * kept in a separate flag. remove() shifts the following entries back instead of leaving tombstones, so
+ * lookups never slow down after removals. Values are compared as described in {@link Hashing}.
+ */
+public class PrimitiveLongSet {
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final long FREE = 0;
+
+    private final float loadFactor;
+
+    private long[] keys;
+    private int mask;
+    private int maxFill;
+    // Entries in keys, the free value is counted by containsFree
+    private int count;
+    private boolean containsFree;
+
+    private int modCount;
+
+    public PrimitiveLongSet() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    public PrimitiveLongSet(final int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    public PrimitiveLongSet(final int expectedSize, final float loadFactor) {
+        Hashing.checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableSize(expectedSize, loadFactor));
+    }
+
+    public int getSize() {
+        return containsFree ? count + 1 : count;
+    }
+
+    public boolean contains(final long value) {
+        if (Hashing.equal(value, FREE)) {
+            return containsFree;
+        }
+        int slot = Hashing.hash(value) & mask;
+        while (!Hashing.equal(keys[slot], FREE)) {
+            if (Hashing.equal(keys[slot], value)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Returns false when the value is already in the set.
+     */
+    public boolean add(final long value) {
+        if (Hashing.equal(value, FREE)) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            modCount = modCount + 1;
+            return true;
+        }
+        int slot = Hashing.hash(value) & mask;
+        while (!Hashing.equal(keys[slot], FREE)) {
+            if (Hashing.equal(keys[slot], value)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (count >= maxFill) {
+            rehash(grow());
+            return add(value);
+        }
+        keys[slot] = value;
+        count = count + 1;
+        modCount = modCount + 1;
+        return true;
+    }
+
+    public void addAll(final long[] values) {
+        Objects.requireNonNull(values);
+        ensureCapacity((long) getSize() + values.length);
+        for (final long value : values) {
+            add(value);
+        }
+    }
+
+    public void addAll(final PrimitiveLongCollection values) {
+        Objects.requireNonNull(values);
+        ensureCapacity((long) getSize() + values.getSize());
+        values.forEach(this::add);
+    }
+
+    /**
+     * Returns false when the value is not in the set.
+     */
+    public boolean remove(final long value) {
+        if (Hashing.equal(value, FREE)) {
+            if (!containsFree) {
+                return false;
+            }
+            containsFree = false;
+            modCount = modCount + 1;
+            return true;
+        }
+        int slot = Hashing.hash(value) & mask;
+        while (!Hashing.equal(keys[slot], FREE)) {
+            if (Hashing.equal(keys[slot], value)) {
+                shiftKeys(slot);
+                count = count - 1;
+                modCount = modCount + 1;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    // Moves entries after the removed slot back, so every entry stays reachable from its home slot
+    private void shiftKeys(final int removed) {
+        int free = removed;
+        int slot = removed;
+        while (true) {
+            slot = (slot + 1) & mask;
+            final long key = keys[slot];
+            if (Hashing.equal(key, FREE)) {
+                keys[free] = FREE;
+                return;
+            }
+            final int home = Hashing.hash(key) & mask;
+            // The entry may move when the free slot lies cyclically between its home and its slot
+            if (free <= slot ? free >= home || home > slot : free >= home && home > slot) {
+                keys[free] = key;
+                free = slot;
+            }
+        }
+    }
+
+    /**
+     * Resizes the table once, so expectedSize values fit without rehashing.
+     */
+    public void ensureCapacity(final long expectedSize) {
+        if (expectedSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Expected size = " + expectedSize);
+        }
+        final int capacity = Hashing.tableSize((int) expectedSize, loadFactor);
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    public void clean() {
+        Arrays.fill(keys, FREE);
+        count = 0;
+        containsFree = false;
+        modCount = modCount + 1;
+    }
+
+    private int grow() {
+        if (keys.length == Hashing.MAX_CAPACITY) {
+            throw new IllegalStateException("Set is full");
+        }
+        return keys.length << 1;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        maxFill = Hashing.maxFill(capacity, loadFactor);
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        allocate(capacity);
+        for (final long key : oldKeys) {
+            if (!Hashing.equal(key, FREE)) {
+                int slot = Hashing.hash(key) & mask;
+                while (!Hashing.equal(keys[slot], FREE)) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    public void forEach(final PrimitiveLongConsumer action) {
+        Objects.requireNonNull(action);
+        final int expectedModCount = modCount;
+        if (containsFree) {
+            action.accept(FREE);
+        }
+        for (final long key : keys) {
+            if (!Hashing.equal(key, FREE)) {
+                action.accept(key);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    public long[] toArray() {
+        final long[] result = new long[getSize()];
+        int position = 0;
+        if (containsFree) {
+            result[position] = FREE;
+            position = position + 1;
+        }
+        for (final long key : keys) {
+            if (!Hashing.equal(key, FREE)) {
+                result[position] = key;
+                position = position + 1;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        return "[size = " + getSize() + ", capacity = " + keys.length + "]";
+    }
+}
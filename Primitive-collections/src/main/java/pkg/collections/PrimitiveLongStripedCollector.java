@@ -0,0 +1,145 @@
+package pkg.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects values from many threads into PrimitiveLongCollections, like LongAdder does for a counter.
+ * <p>
+ * Every thread appends to its own chunk without any synchronization. Full chunks are handed off through
+ * a lock-free queue of the thread and drain() links them into the result without copying. Values keep the
+ * order of the thread that added them, values of different threads are not ordered. A chunk that is not
+ * full yet stays invisible until its thread calls flush() or has terminated. The stripe of a terminated
+ * thread is dropped once drain() has taken all its values.
+ */
+public class PrimitiveLongStripedCollector {
+    // Same as PrimitiveLongCollection, so handed off chunks can be adopted as they are
+    private static final int CHUNK_SIZE = 1 << 10;
+
+    private static final class Stripe {
+        private final Thread owner = Thread.currentThread();
+
+        // Only touched by the owning thread, or by snapshot() and drain() after it has terminated
+        private long[] chunk = new long[CHUNK_SIZE];
+        private int position;
+
+        // Full chunks and flushed, trimmed chunks in the order of the owning thread
+        private final ConcurrentLinkedQueue<long[]> handedOff = new ConcurrentLinkedQueue<>();
+
+        private void handOffRest() {
+            if (position > 0) {
+                handedOff.add(Arrays.copyOf(chunk, position));
+                position = 0;
+            }
+        }
+    }
+
+    private final ConcurrentLinkedQueue<Stripe> stripes = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Stripe> localStripe = ThreadLocal.withInitial(this::register);
+
+    private Stripe register() {
+        final Stripe stripe = new Stripe();
+        stripes.add(stripe);
+        return stripe;
+    }
+
+    public void add(final long value) {
+        final Stripe stripe = localStripe.get();
+        stripe.chunk[stripe.position] = value;
+        stripe.position = stripe.position + 1;
+        if (stripe.position == CHUNK_SIZE) {
+            stripe.handedOff.add(stripe.chunk);
+            stripe.chunk = new long[CHUNK_SIZE];
+            stripe.position = 0;
+        }
+    }
+
+    /**
+     * Hands off the values the current thread added since its last full chunk, so snapshot() and drain()
+     * see them. Writers call it at the end of a batch, threads that terminate are handed off by drain().
+     */
+    public void flush() {
+        localStripe.get().handOffRest();
+    }
+
+    // isAlive() returning false makes everything the owner wrote visible here
+    private void handOffTerminated() {
+        for (final Stripe stripe : stripes) {
+            if (!stripe.owner.isAlive()) {
+                stripe.handOffRest();
+            }
+        }
+    }
+
+    /**
+     * Copies all handed off values into a new collection and keeps them in the collector.
+     */
+    public synchronized PrimitiveLongCollection snapshot() {
+        handOffTerminated();
+        final PrimitiveLongCollection collection = new PrimitiveLongCollection();
+        for (final Stripe stripe : stripes) {
+            for (final long[] chunk : stripe.handedOff) {
+                collection.addAll(chunk);
+            }
+        }
+        return collection;
+    }
+
+    /**
+     * Moves all handed off values into a new collection. Full chunks are linked in without copying,
+     * only flushed chunks and the chunks a thread handed off after them are copied. Throws
+     * IllegalStateException and keeps the values when they don't fit into one collection.
+     */
+    public synchronized PrimitiveLongCollection drain() {
+        handOffTerminated();
+        // Chunks handed off while draining stay for the next drain
+        final List<Stripe> drained = new ArrayList<>(stripes);
+        final int[] chunkCounts = new int[drained.size()];
+        long total = 0;
+        for (int i = 0; i < chunkCounts.length; i++) {
+            for (final long[] chunk : drained.get(i).handedOff) {
+                chunkCounts[i] = chunkCounts[i] + 1;
+                total = total + chunk.length;
+            }
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Collection is full");
+        }
+        final List<long[]> adopted = new ArrayList<>();
+        final List<long[]> copied = new ArrayList<>();
+        for (int i = 0; i < chunkCounts.length; i++) {
+            final Stripe stripe = drained.get(i);
+            // A chunk that is not full breaks the alignment, the rest of the thread goes after all adopted chunks
+            boolean aligned = true;
+            for (int j = 0; j < chunkCounts[i]; j++) {
+                final long[] chunk = stripe.handedOff.poll();
+                aligned = aligned && chunk.length == CHUNK_SIZE;
+                (aligned ? adopted : copied).add(chunk);
+            }
+            if (!stripe.owner.isAlive() && stripe.handedOff.isEmpty()) {
+                stripes.remove(stripe);
+            }
+        }
+        final PrimitiveLongCollection collection = new PrimitiveLongCollection();
+        collection.ensureCapacity(total);
+        for (final long[] chunk : adopted) {
+            collection.adoptChunk(chunk);
+        }
+        for (final long[] chunk : copied) {
+            collection.addAll(chunk);
+        }
+        return collection;
+    }
+
+    @Override
+    protected Object clone() throws CloneNotSupportedException {
+        throw new CloneNotSupportedException();
+    }
+
+    @Override
+    public String toString() {
+        return "[stripes = " + stripes.size() + "]";
+    }
+}
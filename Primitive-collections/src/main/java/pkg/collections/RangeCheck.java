@@ -6,4 +6,22 @@ public class RangeCheck {
             throw new IndexOutOfBoundsException("Index = " + index + ", Size = " + size);
         }
     }
+
+    public static void check(final long index, final long size) {
+        if (index < 0 | size < 0 | index >= size) {
+            throw new IndexOutOfBoundsException("Index = " + index + ", Size = " + size);
+        }
+    }
+
+    public static void checkFromIndexSize(final int fromIndex, final int size, final int length) {
+        if ((length | fromIndex | size) < 0 || size > length - fromIndex) {
+            throw new IndexOutOfBoundsException("From index = " + fromIndex + ", Size = " + size + ", Length = " + length);
+        }
+    }
+
+    public static void checkFromToIndex(final int fromIndex, final int toIndex, final int length) {
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > length) {
+            throw new IndexOutOfBoundsException("From index = " + fromIndex + ", To index = " + toIndex + ", Length = " + length);
+        }
+    }
 }
@@ -0,0 +1,246 @@
+package pkg.collections;
+
+final class ScalarChunkKernels {
+    private ScalarChunkKernels() {
+    }
+
+    static double sum(final double[] chunk, final int length) {
+        return sum(chunk, 0, length);
+    }
+
+    static double max(final double[] chunk, final int length) {
+        return max(chunk, 0, length);
+    }
+
+    static double min(final double[] chunk, final int length) {
+        return min(chunk, 0, length);
+    }
+
+    static double sum(final double[] chunk, final int from, final int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static double max(final double[] chunk, final int from, final int to) {
+        double max = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static double min(final double[] chunk, final int from, final int to) {
+        double min = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final float[] chunk, final int length) {
+        return sum(chunk, 0, length);
+    }
+
+    static float max(final float[] chunk, final int length) {
+        return max(chunk, 0, length);
+    }
+
+    static float min(final float[] chunk, final int length) {
+        return min(chunk, 0, length);
+    }
+
+    static double sum(final float[] chunk, final int from, final int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static float max(final float[] chunk, final int from, final int to) {
+        float max = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static float min(final float[] chunk, final int from, final int to) {
+        float min = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final long[] chunk, final int length) {
+        return sum(chunk, 0, length);
+    }
+
+    static long max(final long[] chunk, final int length) {
+        return max(chunk, 0, length);
+    }
+
+    static long min(final long[] chunk, final int length) {
+        return min(chunk, 0, length);
+    }
+
+    static double sum(final long[] chunk, final int from, final int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static long max(final long[] chunk, final int from, final int to) {
+        long max = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static long min(final long[] chunk, final int from, final int to) {
+        long min = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final int[] chunk, final int length) {
+        return sum(chunk, 0, length);
+    }
+
+    static int max(final int[] chunk, final int length) {
+        return max(chunk, 0, length);
+    }
+
+    static int min(final int[] chunk, final int length) {
+        return min(chunk, 0, length);
+    }
+
+    static double sum(final int[] chunk, final int from, final int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static int max(final int[] chunk, final int from, final int to) {
+        int max = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static int min(final int[] chunk, final int from, final int to) {
+        int min = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final short[] chunk, final int length) {
+        return sum(chunk, 0, length);
+    }
+
+    static short max(final short[] chunk, final int length) {
+        return max(chunk, 0, length);
+    }
+
+    static short min(final short[] chunk, final int length) {
+        return min(chunk, 0, length);
+    }
+
+    static double sum(final short[] chunk, final int from, final int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static short max(final short[] chunk, final int from, final int to) {
+        short max = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static short min(final short[] chunk, final int from, final int to) {
+        short min = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final byte[] chunk, final int length) {
+        return sum(chunk, 0, length);
+    }
+
+    static byte max(final byte[] chunk, final int length) {
+        return max(chunk, 0, length);
+    }
+
+    static byte min(final byte[] chunk, final int length) {
+        return min(chunk, 0, length);
+    }
+
+    static double sum(final byte[] chunk, final int from, final int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static byte max(final byte[] chunk, final int from, final int to) {
+        byte max = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static byte min(final byte[] chunk, final int from, final int to) {
+        byte min = chunk[from];
+        for (int i = from + 1; i < to; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+}
@@ -0,0 +1,33 @@
+package pkg.collections;
+
+/**
+ * Element type identifiers stored in file and stream headers.
+ */
+final class TypeTag {
+    static final byte DOUBLE = 1;
+    static final byte FLOAT = 2;
+    static final byte LONG = 3;
+    static final byte INT = 4;
+    static final byte SHORT = 5;
+    static final byte BYTE = 6;
+
+    private TypeTag() {
+    }
+
+    static byte of(final Class<?> type) {
+        if (type == double.class) {
+            return DOUBLE;
+        } else if (type == float.class) {
+            return FLOAT;
+        } else if (type == long.class) {
+            return LONG;
+        } else if (type == int.class) {
+            return INT;
+        } else if (type == short.class) {
+            return SHORT;
+        } else if (type == byte.class) {
+            return BYTE;
+        }
+        throw new IllegalArgumentException("Unsupported type " + type);
+    }
+}
@@ -0,0 +1,141 @@
+package pkg.collections;
+
+import java.util.Arrays;
+
+/**
+ * XOR with previous encoding of floating point bits, as in Facebook's Gorilla.
+ * <p>
+ * The first value is stored as is. Every next value is XORed with the previous one: a zero XOR takes one
+ * bit, otherwise the meaningful bits are stored either inside the previous leading/trailing zeros window
+ * or with a new 6 bit leading zeros count and 6 bit length. Float bits are zero-extended to 64 bits, so
+ * they always have at least 32 leading zeros.
+ */
+final class XorCodec {
+    private XorCodec() {
+    }
+
+    static long bits(final double value) {
+        return Double.doubleToRawLongBits(value);
+    }
+
+    static long bits(final float value) {
+        return Float.floatToRawIntBits(value) & 0xFFFFFFFFL;
+    }
+
+    static double toDouble(final long bits) {
+        return Double.longBitsToDouble(bits);
+    }
+
+    static float toFloat(final long bits) {
+        return Float.intBitsToFloat((int) bits);
+    }
+
+    static final class Encoder {
+        private long[] words = new long[16];
+        private int position;
+        private boolean first = true;
+        private long previous;
+        private int leading;
+        private int trailing;
+
+        void reset() {
+            Arrays.fill(words, 0, Math.min(words.length, (position >>> 6) + 2), 0);
+            position = 0;
+            first = true;
+        }
+
+        void add(final long bits) {
+            if (first) {
+                write(bits, Long.SIZE);
+                previous = bits;
+                first = false;
+                leading = -1;
+                return;
+            }
+            final long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                write(0, 1);
+                return;
+            }
+            write(1, 1);
+            final int newLeading = Long.numberOfLeadingZeros(xor);
+            final int newTrailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= 0 && newLeading >= leading && newTrailing >= trailing) {
+                write(0, 1);
+                write(xor >>> trailing, Long.SIZE - leading - trailing);
+            } else {
+                final int length = Long.SIZE - newLeading - newTrailing;
+                write(1, 1);
+                write(newLeading, 6);
+                write(length - 1, 6);
+                write(xor >>> newTrailing, length);
+                leading = newLeading;
+                trailing = newTrailing;
+            }
+        }
+
+        /**
+         * The encoded words, trimmed to the written bits.
+         */
+        long[] toArray() {
+            return Arrays.copyOf(words, (position + Long.SIZE - 1) >>> 6);
+        }
+
+        private void write(final long value, final int bits) {
+            final int word = position >>> 6;
+            final int shift = position & 63;
+            if (word + 1 >= words.length) {
+                words = Arrays.copyOf(words, words.length * 2);
+            }
+            words[word] = words[word] | (value << shift);
+            if (shift + bits > Long.SIZE) {
+                words[word + 1] = words[word + 1] | (value >>> (Long.SIZE - shift));
+            }
+            position = position + bits;
+        }
+    }
+
+    static final class Decoder {
+        private long[] words;
+        private int position;
+        private boolean first;
+        private long previous;
+        private int leading;
+        private int trailing;
+
+        void reset(final long[] encoded) {
+            words = encoded;
+            position = 0;
+            first = true;
+        }
+
+        long next() {
+            if (first) {
+                first = false;
+                previous = read(Long.SIZE);
+                return previous;
+            }
+            if (read(1) == 0) {
+                return previous;
+            }
+            if (read(1) == 1) {
+                leading = (int) read(6);
+                trailing = Long.SIZE - leading - ((int) read(6) + 1);
+            }
+            previous = previous ^ (read(Long.SIZE - leading - trailing) << trailing);
+            return previous;
+        }
+
+        private long read(final int bits) {
+            final int word = position >>> 6;
+            final int shift = position & 63;
+            long value = words[word] >>> shift;
+            if (shift + bits > Long.SIZE) {
+                value = value | (words[word + 1] << (Long.SIZE - shift));
+            }
+            position = position + bits;
+            return bits == Long.SIZE ? value : value & ((1L << bits) - 1);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package pkg.collections;
+
+/**
+ * Java 17 version of the chunk reductions. Uses the Vector API kernels when the jdk.incubator.vector
+ * module is resolved (--add-modules jdk.incubator.vector) and the scalar kernels otherwise.
+ * The Vector API can be switched off with -Dpkg.collections.vectorize=false.
+ */
+final class ChunkKernels {
+    private static final boolean VECTORIZE = isVectorApiAvailable();
+
+    private ChunkKernels() {
+    }
+
+    private static boolean isVectorApiAvailable() {
+        if (!Boolean.parseBoolean(System.getProperty("pkg.collections.vectorize", "true"))) {
+            return false;
+        }
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    static double sum(final double[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.sum(chunk, length) : ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static double max(final double[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.max(chunk, length) : ScalarChunkKernels.max(chunk, length);
+    }
+
+    static double min(final double[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.min(chunk, length) : ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final float[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.sum(chunk, length) : ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static float max(final float[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.max(chunk, length) : ScalarChunkKernels.max(chunk, length);
+    }
+
+    static float min(final float[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.min(chunk, length) : ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final long[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.sum(chunk, length) : ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static long max(final long[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.max(chunk, length) : ScalarChunkKernels.max(chunk, length);
+    }
+
+    static long min(final long[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.min(chunk, length) : ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final int[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.sum(chunk, length) : ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static int max(final int[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.max(chunk, length) : ScalarChunkKernels.max(chunk, length);
+    }
+
+    static int min(final int[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.min(chunk, length) : ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final short[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.sum(chunk, length) : ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static short max(final short[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.max(chunk, length) : ScalarChunkKernels.max(chunk, length);
+    }
+
+    static short min(final short[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.min(chunk, length) : ScalarChunkKernels.min(chunk, length);
+    }
+
+    static double sum(final byte[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.sum(chunk, length) : ScalarChunkKernels.sum(chunk, length);
+    }
+
+    static byte max(final byte[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.max(chunk, length) : ScalarChunkKernels.max(chunk, length);
+    }
+
+    static byte min(final byte[] chunk, final int length) {
+        return VECTORIZE ? VectorChunkKernels.min(chunk, length) : ScalarChunkKernels.min(chunk, length);
+    }
+}
@@ -0,0 +1,383 @@
+package pkg.collections;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API reductions. Full vectors are processed in lanes, the tail of the chunk is handled by scalar code.
+ * Sums are accumulated in double lanes, the same as the scalar kernels. Floating point max and min compare
+ * lane by lane with the scalar {@code >} and {@code <} rules, so NaN handling matches the scalar kernels.
+ */
+final class VectorChunkKernels {
+    private static final VectorSpecies<Double> DOUBLE = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOAT = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Short> SHORT = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTE = ByteVector.SPECIES_PREFERRED;
+
+    private VectorChunkKernels() {
+    }
+
+    static double sum(final double[] chunk, final int length) {
+        DoubleVector sums = DoubleVector.zero(DOUBLE);
+        final int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += DOUBLE.length()) {
+            sums = sums.add(DoubleVector.fromArray(DOUBLE, chunk, i));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static double max(final double[] chunk, final int length) {
+        double max = chunk[0];
+        final int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            DoubleVector maxs = DoubleVector.broadcast(DOUBLE, max);
+            for (; i < bound; i += DOUBLE.length()) {
+                final DoubleVector vector = DoubleVector.fromArray(DOUBLE, chunk, i);
+                maxs = maxs.blend(vector, vector.compare(VectorOperators.GT, maxs));
+            }
+            for (int lane = 0; lane < DOUBLE.length(); lane++) {
+                final double v = maxs.lane(lane);
+                if (v > max) {
+                    max = v;
+                }
+            }
+        }
+        for (; i < length; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static double min(final double[] chunk, final int length) {
+        double min = chunk[0];
+        final int bound = DOUBLE.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            DoubleVector mins = DoubleVector.broadcast(DOUBLE, min);
+            for (; i < bound; i += DOUBLE.length()) {
+                final DoubleVector vector = DoubleVector.fromArray(DOUBLE, chunk, i);
+                mins = mins.blend(vector, vector.compare(VectorOperators.LT, mins));
+            }
+            for (int lane = 0; lane < DOUBLE.length(); lane++) {
+                final double v = mins.lane(lane);
+                if (v < min) {
+                    min = v;
+                }
+            }
+        }
+        for (; i < length; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final float[] chunk, final int length) {
+        final int parts = FLOAT.length() / DOUBLE.length();
+        DoubleVector sums = DoubleVector.zero(DOUBLE);
+        final int bound = FLOAT.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += FLOAT.length()) {
+            final FloatVector vector = FloatVector.fromArray(FLOAT, chunk, i);
+            for (int part = 0; part < parts; part++) {
+                sums = sums.add((DoubleVector) vector.convertShape(VectorOperators.F2D, DOUBLE, part));
+            }
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static float max(final float[] chunk, final int length) {
+        float max = chunk[0];
+        final int bound = FLOAT.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            FloatVector maxs = FloatVector.broadcast(FLOAT, max);
+            for (; i < bound; i += FLOAT.length()) {
+                final FloatVector vector = FloatVector.fromArray(FLOAT, chunk, i);
+                maxs = maxs.blend(vector, vector.compare(VectorOperators.GT, maxs));
+            }
+            for (int lane = 0; lane < FLOAT.length(); lane++) {
+                final float v = maxs.lane(lane);
+                if (v > max) {
+                    max = v;
+                }
+            }
+        }
+        for (; i < length; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static float min(final float[] chunk, final int length) {
+        float min = chunk[0];
+        final int bound = FLOAT.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            FloatVector mins = FloatVector.broadcast(FLOAT, min);
+            for (; i < bound; i += FLOAT.length()) {
+                final FloatVector vector = FloatVector.fromArray(FLOAT, chunk, i);
+                mins = mins.blend(vector, vector.compare(VectorOperators.LT, mins));
+            }
+            for (int lane = 0; lane < FLOAT.length(); lane++) {
+                final float v = mins.lane(lane);
+                if (v < min) {
+                    min = v;
+                }
+            }
+        }
+        for (; i < length; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final long[] chunk, final int length) {
+        final int parts = LONG.length() / DOUBLE.length();
+        DoubleVector sums = DoubleVector.zero(DOUBLE);
+        final int bound = LONG.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LONG.length()) {
+            final LongVector vector = LongVector.fromArray(LONG, chunk, i);
+            for (int part = 0; part < parts; part++) {
+                sums = sums.add((DoubleVector) vector.convertShape(VectorOperators.L2D, DOUBLE, part));
+            }
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static long max(final long[] chunk, final int length) {
+        long max = chunk[0];
+        final int bound = LONG.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            LongVector maxs = LongVector.broadcast(LONG, max);
+            for (; i < bound; i += LONG.length()) {
+                maxs = maxs.lanewise(VectorOperators.MAX, LongVector.fromArray(LONG, chunk, i));
+            }
+            max = maxs.reduceLanes(VectorOperators.MAX);
+        }
+        for (; i < length; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static long min(final long[] chunk, final int length) {
+        long min = chunk[0];
+        final int bound = LONG.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            LongVector mins = LongVector.broadcast(LONG, min);
+            for (; i < bound; i += LONG.length()) {
+                mins = mins.lanewise(VectorOperators.MIN, LongVector.fromArray(LONG, chunk, i));
+            }
+            min = mins.reduceLanes(VectorOperators.MIN);
+        }
+        for (; i < length; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final int[] chunk, final int length) {
+        final int parts = INT.length() / DOUBLE.length();
+        DoubleVector sums = DoubleVector.zero(DOUBLE);
+        final int bound = INT.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += INT.length()) {
+            final IntVector vector = IntVector.fromArray(INT, chunk, i);
+            for (int part = 0; part < parts; part++) {
+                sums = sums.add((DoubleVector) vector.convertShape(VectorOperators.I2D, DOUBLE, part));
+            }
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static int max(final int[] chunk, final int length) {
+        int max = chunk[0];
+        final int bound = INT.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            IntVector maxs = IntVector.broadcast(INT, max);
+            for (; i < bound; i += INT.length()) {
+                maxs = maxs.lanewise(VectorOperators.MAX, IntVector.fromArray(INT, chunk, i));
+            }
+            max = maxs.reduceLanes(VectorOperators.MAX);
+        }
+        for (; i < length; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static int min(final int[] chunk, final int length) {
+        int min = chunk[0];
+        final int bound = INT.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            IntVector mins = IntVector.broadcast(INT, min);
+            for (; i < bound; i += INT.length()) {
+                mins = mins.lanewise(VectorOperators.MIN, IntVector.fromArray(INT, chunk, i));
+            }
+            min = mins.reduceLanes(VectorOperators.MIN);
+        }
+        for (; i < length; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final short[] chunk, final int length) {
+        final int parts = SHORT.length() / DOUBLE.length();
+        DoubleVector sums = DoubleVector.zero(DOUBLE);
+        final int bound = SHORT.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SHORT.length()) {
+            final ShortVector vector = ShortVector.fromArray(SHORT, chunk, i);
+            for (int part = 0; part < parts; part++) {
+                sums = sums.add((DoubleVector) vector.convertShape(VectorOperators.S2D, DOUBLE, part));
+            }
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static short max(final short[] chunk, final int length) {
+        short max = chunk[0];
+        final int bound = SHORT.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            ShortVector maxs = ShortVector.broadcast(SHORT, max);
+            for (; i < bound; i += SHORT.length()) {
+                maxs = maxs.lanewise(VectorOperators.MAX, ShortVector.fromArray(SHORT, chunk, i));
+            }
+            max = maxs.reduceLanes(VectorOperators.MAX);
+        }
+        for (; i < length; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static short min(final short[] chunk, final int length) {
+        short min = chunk[0];
+        final int bound = SHORT.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            ShortVector mins = ShortVector.broadcast(SHORT, min);
+            for (; i < bound; i += SHORT.length()) {
+                mins = mins.lanewise(VectorOperators.MIN, ShortVector.fromArray(SHORT, chunk, i));
+            }
+            min = mins.reduceLanes(VectorOperators.MIN);
+        }
+        for (; i < length; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+
+    static double sum(final byte[] chunk, final int length) {
+        final int parts = BYTE.length() / DOUBLE.length();
+        DoubleVector sums = DoubleVector.zero(DOUBLE);
+        final int bound = BYTE.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += BYTE.length()) {
+            final ByteVector vector = ByteVector.fromArray(BYTE, chunk, i);
+            for (int part = 0; part < parts; part++) {
+                sums = sums.add((DoubleVector) vector.convertShape(VectorOperators.B2D, DOUBLE, part));
+            }
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum = sum + chunk[i];
+        }
+        return sum;
+    }
+
+    static byte max(final byte[] chunk, final int length) {
+        byte max = chunk[0];
+        final int bound = BYTE.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            ByteVector maxs = ByteVector.broadcast(BYTE, max);
+            for (; i < bound; i += BYTE.length()) {
+                maxs = maxs.lanewise(VectorOperators.MAX, ByteVector.fromArray(BYTE, chunk, i));
+            }
+            max = maxs.reduceLanes(VectorOperators.MAX);
+        }
+        for (; i < length; i++) {
+            if (chunk[i] > max) {
+                max = chunk[i];
+            }
+        }
+        return max;
+    }
+
+    static byte min(final byte[] chunk, final int length) {
+        byte min = chunk[0];
+        final int bound = BYTE.loopBound(length);
+        int i = 0;
+        if (bound > 0) {
+            ByteVector mins = ByteVector.broadcast(BYTE, min);
+            for (; i < bound; i += BYTE.length()) {
+                mins = mins.lanewise(VectorOperators.MIN, ByteVector.fromArray(BYTE, chunk, i));
+            }
+            min = mins.reduceLanes(VectorOperators.MIN);
+        }
+        for (; i < length; i++) {
+            if (chunk[i] < min) {
+                min = chunk[i];
+            }
+        }
+        return min;
+    }
+}
@@ -0,0 +1,74 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+class ChunkSortingTest {
+    private static final int[] LENGTHS = new int[]{0, 1, 63, 64, 500, 1024};
+
+    @Test
+    void sortLong() {
+        final Random random = new Random(1);
+        for (final int length : LENGTHS) {
+            final long[] random64 = new long[1024];
+            final long[] small = new long[1024];
+            final long[] negative = new long[1024];
+            for (int i = 0; i < 1024; i++) {
+                random64[i] = random.nextLong();
+                small[i] = random.nextInt(100);
+                negative[i] = -random.nextInt(1000) + (i % 5 == 0 ? Long.MIN_VALUE : 0);
+            }
+            for (final long[] values : new long[][]{random64, small, negative}) {
+                final long[] expected = values.clone();
+                Arrays.sort(expected, 0, length);
+                ChunkSorting.sort(values, length, new long[1024]);
+                Assertions.assertArrayEquals(expected, values);
+            }
+        }
+    }
+
+    @Test
+    void sortInt() {
+        final Random random = new Random(2);
+        for (final int length : LENGTHS) {
+            final int[] random32 = new int[1024];
+            final int[] small = new int[1024];
+            final int[] negative = new int[1024];
+            for (int i = 0; i < 1024; i++) {
+                random32[i] = random.nextInt();
+                small[i] = random.nextInt(100);
+                negative[i] = -random.nextInt(1000) + (i % 5 == 0 ? Integer.MIN_VALUE : 0);
+            }
+            for (final int[] values : new int[][]{random32, small, negative}) {
+                final int[] expected = values.clone();
+                Arrays.sort(expected, 0, length);
+                ChunkSorting.sort(values, length, new int[1024]);
+                Assertions.assertArrayEquals(expected, values);
+            }
+        }
+    }
+
+    @Test
+    void sortShort() {
+        final Random random = new Random(3);
+        for (final int length : LENGTHS) {
+            final short[] random16 = new short[1024];
+            final short[] small = new short[1024];
+            final short[] negative = new short[1024];
+            for (int i = 0; i < 1024; i++) {
+                random16[i] = (short) random.nextInt();
+                small[i] = (short) random.nextInt(100);
+                negative[i] = (short) (-random.nextInt(1000) + (i % 5 == 0 ? Short.MIN_VALUE : 0));
+            }
+            for (final short[] values : new short[][]{random16, small, negative}) {
+                final short[] expected = values.clone();
+                Arrays.sort(expected, 0, length);
+                ChunkSorting.sort(values, length, new short[1024]);
+                Assertions.assertArrayEquals(expected, values);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class HashingTest {
+
+    @Test
+    void floatingPointKeys() {
+        Assertions.assertTrue(Hashing.equal(Double.NaN, Double.longBitsToDouble(0x7ff8000000000001L)));
+        Assertions.assertFalse(Hashing.equal(0.0, -0.0));
+        Assertions.assertTrue(Hashing.equal(Float.NaN, Float.intBitsToFloat(0x7fc00001)));
+        Assertions.assertFalse(Hashing.equal(0.0f, -0.0f));
+        Assertions.assertEquals(Hashing.hash(Double.NaN), Hashing.hash(Double.longBitsToDouble(0x7ff8000000000001L)));
+
+        final PrimitiveDoubleSet set = new PrimitiveDoubleSet();
+        Assertions.assertTrue(set.add(0.0));
+        Assertions.assertTrue(set.add(-0.0));
+        Assertions.assertTrue(set.add(Double.NaN));
+        Assertions.assertFalse(set.add(Double.NaN));
+        Assertions.assertEquals(3, set.getSize());
+        Assertions.assertTrue(set.remove(-0.0));
+        Assertions.assertTrue(set.contains(0.0));
+    }
+
+    @Test
+    void tableSize() {
+        Assertions.assertEquals(2, Hashing.tableSize(0, 0.75f));
+        Assertions.assertEquals(16, Hashing.tableSize(11, 0.75f));
+        Assertions.assertEquals(32, Hashing.tableSize(12, 0.75f));
+        Assertions.assertEquals(1, Hashing.maxFill(2, 0.75f));
+        Assertions.assertEquals(12, Hashing.maxFill(16, 0.75f));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Hashing.tableSize(-1, 0.75f));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Hashing.tableSize(Integer.MAX_VALUE, 0.75f));
+    }
+
+    @Test
+    void lowBitsSpread() {
+        // Consecutive and strided keys must not pile up in a few slots of a small table
+        final int[] buckets = new int[64];
+        for (int i = 0; i < 64 * 16; i++) {
+            buckets[Hashing.hash((long) i << 20) & 63]++;
+        }
+        for (final int bucket : buckets) {
+            Assertions.assertTrue(bucket > 4 && bucket < 40);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+class PrimitiveByteByteMapTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void putGetRemove() {
+        final PrimitiveByteByteMap map = new PrimitiveByteByteMap(0);
+        final Map<Byte, Byte> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final byte key = (byte) (random.nextInt(100) - 50);
+            final byte value = (byte) random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.put(key, value);
+                map.put(key, value);
+            }
+            Assertions.assertEquals(expected.size(), map.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            final byte key = (byte) i;
+            Assertions.assertEquals(expected.containsKey(key), map.containsKey(key));
+            if (expected.containsKey(key)) {
+                Assertions.assertEquals(expected.get(key), map.get(key));
+                Assertions.assertEquals(expected.get(key), map.getOrDefault(key, (byte) -1));
+            } else {
+                Assertions.assertThrows(NoSuchElementException.class, () -> map.get(key));
+                Assertions.assertEquals((byte) -1, map.getOrDefault(key, (byte) -1));
+            }
+        }
+    }
+
+    @Test
+    void addTo() {
+        final PrimitiveByteByteMap map = new PrimitiveByteByteMap();
+        for (int i = 0; i < 1000; i++) {
+            map.addTo((byte) (i % 10), (byte) 1);
+        }
+        Assertions.assertEquals(10, map.getSize());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals((byte) 100, map.get((byte) i));
+        }
+        Assertions.assertEquals((byte) 105, map.addTo((byte) 0, (byte) 5));
+        Assertions.assertEquals((byte) 3, map.addTo((byte) 42, (byte) 3));
+    }
+
+    @Test
+    void putAll() {
+        final PrimitiveByteCollection keys = new PrimitiveByteCollection();
+        final PrimitiveByteCollection values = new PrimitiveByteCollection();
+        for (int i = 0; i < iterations; i++) {
+            keys.add((byte) (i % 100 - 50));
+            values.add((byte) (i % 7));
+        }
+        final PrimitiveByteByteMap map = new PrimitiveByteByteMap();
+        map.putAll(keys, values);
+        Assertions.assertEquals(100, map.getSize());
+        for (int i = iterations - 100; i < iterations; i++) {
+            Assertions.assertEquals((byte) (i % 7), map.get((byte) (i % 100 - 50)));
+        }
+        values.add((byte) 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.putAll(keys, values));
+    }
+
+    @Test
+    void cursor() {
+        final PrimitiveByteByteMap map = new PrimitiveByteByteMap();
+        final PrimitiveByteByteMap.Cursor empty = map.cursor();
+        Assertions.assertFalse(empty.next());
+        Assertions.assertThrows(NoSuchElementException.class, () -> empty.key());
+        for (int i = 0; i < 100; i++) {
+            map.put((byte) (i - 50), (byte) (i % 10));
+        }
+        final Map<Byte, Byte> visited = new HashMap<>();
+        final PrimitiveByteByteMap.Cursor cursor = map.cursor();
+        Assertions.assertThrows(NoSuchElementException.class, () -> cursor.value());
+        while (cursor.next()) {
+            Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+        }
+        Assertions.assertFalse(cursor.next());
+        Assertions.assertEquals(100, visited.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((byte) (i % 10), visited.get((byte) (i - 50)));
+        }
+
+        final PrimitiveByteByteMap.Cursor stale = map.cursor();
+        map.remove((byte) 1);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> stale.next());
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveByteByteMap map = new PrimitiveByteByteMap();
+        for (int i = 0; i < 100; i++) {
+            map.put((byte) (i - 50), (byte) 1);
+        }
+        map.clean();
+        Assertions.assertEquals(0, map.getSize());
+        Assertions.assertFalse(map.containsKey((byte) 0));
+        Assertions.assertFalse(map.containsKey((byte) 1));
+        Assertions.assertFalse(map.cursor().next());
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveByteByteMap(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveByteByteMap(16, 1.5f));
+        final PrimitiveByteByteMap dense = new PrimitiveByteByteMap(0, 0.99f);
+        for (int i = 0; i < 100; i++) {
+            dense.put((byte) (i - 50), (byte) i);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((byte) i, dense.get((byte) (i - 50)));
+        }
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveByteByteMap map = new PrimitiveByteByteMap();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> map.clone());
+    }
+}
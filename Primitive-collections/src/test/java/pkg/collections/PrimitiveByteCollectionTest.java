@@ -2,8 +2,24 @@ package pkg.collections;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteOrder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 
 class PrimitiveByteCollectionTest {
 
@@ -76,6 +92,244 @@ class PrimitiveByteCollectionTest {
         Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
     }
 
+    @Test
+    void addAllArray() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        final PrimitiveByteCollection expected = new PrimitiveByteCollection();
+        final byte[] source = new byte[iterations];
+        for (int i = 0; i < iterations; i++) {
+            source[i] = (byte) i;
+        }
+        collection.addAll(source, 0, 0);
+        Assertions.assertEquals(0, collection.getSize());
+
+        collection.add((byte) -1);
+        expected.add((byte) -1);
+        collection.addAll(source, 3, 1500);
+        for (int i = 3; i < 1503; i++) {
+            expected.add((byte) i);
+        }
+        collection.addAll(source);
+        for (int i = 0; i < iterations; i++) {
+            expected.add((byte) i);
+        }
+        Assertions.assertEquals(expected.getSize(), collection.getSize());
+        Assertions.assertEquals(expected, collection);
+
+        Assertions.assertThrows(NullPointerException.class, () -> collection.addAll((byte[]) null));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.addAll(source, -1, 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.addAll(source, 1, iterations));
+        Assertions.assertEquals(expected, collection);
+    }
+
+    @Test
+    void addAllCollection() {
+        final PrimitiveByteCollection source = new PrimitiveByteCollection();
+        for (int i = 0; i < iterations; i++) {
+            source.add((byte) i);
+        }
+
+        final PrimitiveByteCollection aligned = new PrimitiveByteCollection();
+        aligned.addAll(source);
+        Assertions.assertEquals(source, aligned);
+
+        final PrimitiveByteCollection unaligned = new PrimitiveByteCollection();
+        unaligned.add((byte) -1);
+        unaligned.addAll(source);
+        Assertions.assertEquals(iterations + 1, unaligned.getSize());
+        Assertions.assertEquals((byte) -1, unaligned.get(0));
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(source.get(i), unaligned.get(i + 1));
+        }
+
+        unaligned.addAll(new PrimitiveByteCollection());
+        Assertions.assertEquals(iterations + 1, unaligned.getSize());
+
+        source.addAll(source);
+        Assertions.assertEquals(iterations * 2, source.getSize());
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals((byte) i, source.get(i));
+            Assertions.assertEquals((byte) i, source.get(i + iterations));
+        }
+    }
+
+    @Test
+    void adoptChunk() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final PrimitiveByteCollection expected = new PrimitiveByteCollection();
+        for (int c = 0; c < 3; c++) {
+            final byte[] chunk = new byte[1024];
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = (byte) (c + i % 100);
+            }
+            collection.adoptChunk(chunk);
+            expected.addAll(chunk);
+            // Not copied: a write through the chunk shows up in the collection
+            chunk[5] = (byte) 42;
+            Assertions.assertEquals((byte) 42, collection.get((c << 10) + 5));
+            chunk[5] = (byte) (c + 5);
+        }
+        collection.add((byte) 7);
+        expected.add((byte) 7);
+        final byte[] unaligned = new byte[1024];
+        unaligned[1023] = (byte) 9;
+        collection.adoptChunk(unaligned);
+        expected.addAll(unaligned);
+        collection.adoptChunk(new byte[]{(byte) 1, (byte) 2});
+        expected.addAll(new byte[]{(byte) 1, (byte) 2});
+
+        Assertions.assertEquals(expected, collection);
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.max(), collection.max());
+        Assertions.assertEquals(expected.min(), collection.min());
+        Assertions.assertEquals(expected.rangeSum(100, 3100), collection.rangeSum(100, 3100));
+    }
+
+    @Test
+    void toArray() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        Assertions.assertEquals(0, collection.toArray().length);
+        final byte[] expected = new byte[iterations];
+        for (int i = 0; i < iterations; i++) {
+            expected[i] = (byte) i;
+            collection.add((byte) i);
+        }
+        Assertions.assertArrayEquals(expected, collection.toArray());
+    }
+
+    @Test
+    void copyToArray() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) i);
+        }
+        final byte[] destination = new byte[iterations];
+        collection.copyTo(1000, destination, 5, 3000);
+        for (int i = 0; i < destination.length; i++) {
+            if (i >= 5 && i < 3005) {
+                Assertions.assertEquals(collection.get(i + 995), destination[i]);
+            } else {
+                Assertions.assertEquals((byte) 0, destination[i]);
+            }
+        }
+        collection.copyTo(iterations, destination, 0, 0);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(-1, destination, 0, 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(iterations - 1, destination, 0, 2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(0, destination, 1, iterations));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(0, destination, 0, -1));
+        Assertions.assertThrows(NullPointerException.class, () -> collection.copyTo(0, (byte[]) null, 0, 1));
+    }
+
+    @Test
+    void copyToBuffer() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) i);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(iterations);
+        buffer.put((byte) -1);
+        collection.copyTo(2000, buffer, 4000);
+        Assertions.assertEquals(4001, buffer.position());
+        buffer.flip();
+        Assertions.assertEquals((byte) -1, buffer.get());
+        for (int i = 2000; i < 6000; i++) {
+            Assertions.assertEquals(collection.get(i), buffer.get());
+        }
+        final ByteBuffer small = ByteBuffer.allocate(10);
+        Assertions.assertThrows(BufferOverflowException.class, () -> collection.copyTo(0, small, 11));
+        Assertions.assertEquals(0, small.position());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(iterations - 5, small, 10));
+    }
+
+    @Test
+    void writeAndRead() throws IOException {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) i);
+        }
+        for (final ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (final boolean checksum : new boolean[]{false, true}) {
+                final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                collection.writeTo(Channels.newChannel(output), order, checksum);
+                final PrimitiveByteCollection result = PrimitiveByteCollection.readFrom(
+                        Channels.newChannel(new ByteArrayInputStream(output.toByteArray())));
+                Assertions.assertEquals(iterations, result.getSize());
+                Assertions.assertEquals(collection, result);
+                result.add((byte) 1);
+                Assertions.assertEquals((byte) 1, result.get(iterations));
+            }
+        }
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new PrimitiveByteCollection().writeTo(Channels.newChannel(output));
+        Assertions.assertEquals(BinaryFormat.HEADER_SIZE, output.size());
+        Assertions.assertEquals(0, PrimitiveByteCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(output.toByteArray()))).getSize());
+    }
+
+    @Test
+    void readCorrupted() throws IOException {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) i);
+        }
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        collection.writeTo(Channels.newChannel(output), ByteOrder.nativeOrder(), true);
+        final byte[] bytes = output.toByteArray();
+
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        Assertions.assertThrows(IOException.class, () -> PrimitiveByteCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(truncated))));
+
+        final byte[] flipped = bytes.clone();
+        flipped[bytes.length / 2] = (byte) ~flipped[bytes.length / 2];
+        Assertions.assertThrows(IOException.class, () -> PrimitiveByteCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(flipped))));
+
+        final byte[] magic = bytes.clone();
+        magic[0] = 0;
+        Assertions.assertThrows(IOException.class, () -> PrimitiveByteCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(magic))));
+    }
+
+    @Test
+    void ensureCapacity() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> collection.ensureCapacity(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> collection.ensureCapacity(Integer.MAX_VALUE + 1L));
+        collection.ensureCapacity(iterations);
+        Assertions.assertEquals(0, collection.getSize());
+        final PrimitiveByteCollection expected = new PrimitiveByteCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) i);
+            expected.add((byte) i);
+            Assertions.assertEquals((byte) i, collection.get(i));
+        }
+        Assertions.assertEquals(iterations, collection.getSize());
+        Assertions.assertEquals(expected, collection);
+        Assertions.assertEquals(expected.hashCode(), collection.hashCode());
+        Assertions.assertEquals(expected.toString(), collection.toString());
+    }
+
+    @Test
+    void trimToSize() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        collection.trimToSize();
+        collection.ensureCapacity(iterations * 2L);
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) i);
+        }
+        collection.trimToSize();
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals((byte) i, collection.get(i));
+        }
+        collection.add((byte) iterations);
+        Assertions.assertEquals(iterations + 1, collection.getSize());
+        Assertions.assertEquals((byte) iterations, collection.get(iterations));
+    }
+
     @Test
     void sum() {
         int sum = 0;
@@ -130,6 +384,341 @@ class PrimitiveByteCollectionTest {
         }
     }
 
+    @Test
+    void reductionsAcrossChunks() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) (i % 100));
+            sum = sum + i % 100;
+        }
+        Assertions.assertEquals(sum, collection.sum());
+        Assertions.assertEquals(sum / (iterations * 1.0), collection.average());
+        Assertions.assertEquals((byte) 99, collection.max());
+        Assertions.assertEquals((byte) 0, collection.min());
+
+        collection.set(iterations / 2, (byte) 101);
+        collection.set(iterations / 3, (byte) -1);
+        Assertions.assertEquals((byte) 101, collection.max());
+        Assertions.assertEquals((byte) -1, collection.min());
+
+        collection.set(iterations - 1, (byte) 102);
+        collection.set(iterations - 2, (byte) -2);
+        Assertions.assertEquals((byte) 102, collection.max());
+        Assertions.assertEquals((byte) -2, collection.min());
+    }
+
+    @Test
+    void parallelReductions() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.parallelSum());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.parallelMax());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.parallelMin());
+        Assertions.assertEquals(0, collection.parallelReduce(0, (a, b) -> a + b));
+
+        final int count = iterations * 50;
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            collection.add((byte) (i % 100));
+            sum = sum + i % 100;
+        }
+        collection.set(count / 3, (byte) 101);
+        collection.set(count - 1, (byte) -1);
+        sum = sum - (count / 3) % 100 + 101 - (count - 1) % 100 - 1;
+
+        Assertions.assertEquals(sum, collection.parallelSum());
+        Assertions.assertEquals(collection.max(), collection.parallelMax());
+        Assertions.assertEquals((byte) 101, collection.parallelMax());
+        Assertions.assertEquals(collection.min(), collection.parallelMin());
+        Assertions.assertEquals((byte) -1, collection.parallelMin());
+        Assertions.assertEquals(sum, collection.parallelReduce(0, (a, b) -> a + b));
+
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Assertions.assertEquals(sum, collection.parallelSum(pool));
+            Assertions.assertEquals((byte) 101, collection.parallelMax(pool));
+            Assertions.assertEquals((byte) -1, collection.parallelMin(pool));
+            Assertions.assertEquals(sum, collection.parallelReduce(0, (a, b) -> a + b, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void statistics() {
+        final Random random = new Random(3);
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        final PrimitiveByteCollection expected = new PrimitiveByteCollection();
+        Assertions.assertFalse(collection.isStatisticsEnabled());
+        collection.add((byte) 7);
+        expected.add((byte) 7);
+        collection.enableStatistics();
+        Assertions.assertTrue(collection.isStatisticsEnabled());
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.max(), collection.max());
+        for (int i = 0; i < iterations; i++) {
+            final byte value = (byte) random.nextInt(100);
+            collection.add(value);
+            expected.add(value);
+            if (i % 1000 == 0) {
+                Assertions.assertEquals(expected.sum(), collection.sum());
+                Assertions.assertEquals(expected.min(), collection.min());
+                Assertions.assertEquals(expected.max(), collection.max());
+            }
+        }
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.average(), collection.average());
+        Assertions.assertEquals(expected.parallelSum(), collection.parallelSum());
+
+        collection.set(5, (byte) 120);
+        expected.set(5, (byte) 120);
+        collection.set(iterations - 1, (byte) -3);
+        expected.set(iterations - 1, (byte) -3);
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals((byte) 120, collection.max());
+        Assertions.assertEquals((byte) -3, collection.min());
+        Assertions.assertEquals((byte) 120, collection.parallelMax());
+
+        final byte[] source = new byte[3000];
+        Arrays.fill(source, (byte) 110);
+        collection.addAll(source);
+        expected.addAll(source);
+        collection.add((byte) -5);
+        expected.add((byte) -5);
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.min(), collection.min());
+        Assertions.assertEquals(expected.max(), collection.max());
+
+        collection.trimToSize();
+        collection.add((byte) 1);
+        expected.add((byte) 1);
+        Assertions.assertEquals(expected.sum(), collection.sum());
+
+        collection.clean();
+        Assertions.assertTrue(collection.isStatisticsEnabled());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+        collection.add((byte) 4);
+        Assertions.assertEquals(4, collection.sum());
+        Assertions.assertEquals((byte) 4, collection.min());
+
+        collection.disableStatistics();
+        Assertions.assertFalse(collection.isStatisticsEnabled());
+        collection.add((byte) 2);
+        Assertions.assertEquals(6, collection.sum());
+    }
+
+    @Test
+    void rangeQueries() {
+        final Random random = new Random(4);
+        for (final boolean statistics : new boolean[]{false, true}) {
+            final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+            if (statistics) {
+                collection.enableStatistics();
+            }
+            for (int i = 0; i < iterations; i++) {
+                final byte value = (byte) random.nextInt(100);
+                collection.add(value);
+            }
+            collection.set(7000, (byte) 120);
+            collection.set(7500, (byte) -20);
+            for (int n = 0; n < 200; n++) {
+                final int from = random.nextInt(iterations);
+                final int to = from + random.nextInt(iterations - from) + 1;
+                long sum = 0;
+                byte max = collection.get(from);
+                byte min = collection.get(from);
+                for (int i = from; i < to; i++) {
+                    sum = sum + (long) collection.get(i);
+                    max = collection.get(i) > max ? collection.get(i) : max;
+                    min = collection.get(i) < min ? collection.get(i) : min;
+                }
+                Assertions.assertEquals(sum, collection.rangeSum(from, to));
+                Assertions.assertEquals(sum / ((to - from) * 1.0), collection.rangeAverage(from, to), 1e-9);
+                Assertions.assertEquals(max, collection.rangeMax(from, to));
+                Assertions.assertEquals(min, collection.rangeMin(from, to));
+            }
+            Assertions.assertEquals(collection.sum(), collection.rangeSum(0, iterations));
+            Assertions.assertEquals(0, collection.rangeSum(5, 5));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> collection.rangeMax(5, 5));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> collection.rangeAverage(5, 5));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.rangeSum(5, 4));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.rangeMin(0, iterations + 1));
+
+            Assertions.assertEquals(7000, collection.findFirstGreaterThan((byte) 100));
+            Assertions.assertEquals(7000, collection.findFirstGreaterThan(7000, (byte) 100));
+            Assertions.assertEquals(-1, collection.findFirstGreaterThan(7001, (byte) 100));
+            Assertions.assertEquals(-1, collection.findFirstGreaterThan((byte) 120));
+            Assertions.assertEquals(7500, collection.findFirstLessThan((byte) 0));
+            Assertions.assertEquals(-1, collection.findFirstLessThan(7501, (byte) 0));
+            Assertions.assertEquals(-1, collection.findFirstLessThan(iterations, (byte) 50));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.findFirstLessThan(iterations + 1, (byte) 50));
+            final int first = collection.findFirstLessThan(3, (byte) 50);
+            Assertions.assertTrue(collection.get(first) < 50 && first >= 3);
+            for (int i = 3; i < first; i++) {
+                Assertions.assertTrue(collection.get(i) >= 50);
+            }
+        }
+    }
+
+    @Test
+    void prefixSums() {
+        final Random random = new Random(5);
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        final long[] values = new long[iterations * 2];
+        for (int i = 0; i < 1500; i++) {
+            values[i] = random.nextInt(100);
+            collection.add((byte) values[i]);
+        }
+        Assertions.assertFalse(collection.isPrefixSumsEnabled());
+        Assertions.assertEquals(collection.rangeSum(0, 1000), collection.prefixSum(1000));
+        collection.enablePrefixSums();
+        Assertions.assertTrue(collection.isPrefixSumsEnabled());
+        for (int i = 1500; i < iterations; i++) {
+            values[i] = random.nextInt(100);
+            collection.add((byte) values[i]);
+        }
+        final byte[] source = new byte[3000];
+        for (int i = 0; i < source.length; i++) {
+            values[iterations + i] = random.nextInt(100);
+            source[i] = (byte) values[iterations + i];
+        }
+        collection.addAll(source);
+        final int size = iterations + source.length;
+        for (int n = 0; n < 1000; n++) {
+            final int index = random.nextInt(size);
+            final byte value = (byte) random.nextInt(100);
+            collection.set(index, value);
+            values[index] = (long) value;
+        }
+        final long[] prefix = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            prefix[i + 1] = prefix[i] + values[i];
+        }
+        for (int i = 0; i <= size; i++) {
+            Assertions.assertEquals(prefix[i], collection.prefixSum(i));
+        }
+        for (int n = 0; n < 200; n++) {
+            final int from = random.nextInt(size);
+            final int to = from + random.nextInt(size - from + 1);
+            Assertions.assertEquals(prefix[to] - prefix[from], collection.rangeSum(from, to));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.prefixSum(size + 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.prefixSum(-1));
+
+        collection.clean();
+        Assertions.assertTrue(collection.isPrefixSumsEnabled());
+        Assertions.assertEquals(0, collection.prefixSum(0));
+        collection.add((byte) 3);
+        collection.add((byte) 4);
+        Assertions.assertEquals(7, collection.prefixSum(2));
+        collection.disablePrefixSums();
+        Assertions.assertEquals(3, collection.prefixSum(1));
+    }
+
+    @Test
+    void stream() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        Assertions.assertEquals(0, collection.stream().count());
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) (i % 100));
+            sum = sum + i % 100;
+        }
+        Assertions.assertEquals(iterations, collection.stream().count());
+        Assertions.assertEquals(sum, collection.stream().sum());
+        Assertions.assertEquals(sum, collection.parallelStream().sum());
+        Assertions.assertEquals(collection.max(), collection.parallelStream().max().getAsInt());
+        final int[] values = collection.parallelStream().toArray();
+        Assertions.assertEquals(iterations, values.length);
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(collection.get(i), values[i]);
+        }
+    }
+
+    @Test
+    void spliterator() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) i);
+        }
+        final Spliterator.OfInt suffix = collection.spliterator();
+        Assertions.assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Assertions.assertEquals(iterations, suffix.getExactSizeIfKnown());
+
+        final Spliterator.OfInt prefix = suffix.trySplit();
+        Assertions.assertNotNull(prefix);
+        Assertions.assertEquals(0, prefix.estimateSize() % 1024);
+        Assertions.assertEquals(iterations, prefix.estimateSize() + suffix.estimateSize());
+
+        final int[] index = new int[]{0};
+        Assertions.assertTrue(prefix.tryAdvance((IntConsumer) v -> Assertions.assertEquals(collection.get(0), v)));
+        index[0]++;
+        prefix.forEachRemaining((IntConsumer) v -> Assertions.assertEquals(collection.get(index[0]++), v));
+        suffix.forEachRemaining((IntConsumer) v -> Assertions.assertEquals(collection.get(index[0]++), v));
+        Assertions.assertFalse(suffix.tryAdvance((IntConsumer) v -> Assertions.fail("Value = " + v)));
+        Assertions.assertEquals(iterations, index[0]);
+
+        final PrimitiveByteCollection small = new PrimitiveByteCollection();
+        small.add((byte) 1);
+        Assertions.assertNull(small.spliterator().trySplit());
+    }
+
+    @Test
+    void forEach() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        collection.forEach(v -> Assertions.fail("Value = " + v));
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) i);
+        }
+        final int[] index = new int[]{0};
+        collection.forEach(v -> Assertions.assertEquals(collection.get(index[0]++), v));
+        Assertions.assertEquals(iterations, index[0]);
+
+        Assertions.assertThrows(NullPointerException.class, () -> collection.forEach(null));
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> collection.forEach(v -> collection.add(v)));
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> collection.forEach(v -> collection.clean()));
+    }
+
+    @Test
+    void cursor() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        final PrimitiveByteCollection.Cursor cursor = collection.cursor();
+        Assertions.assertFalse(cursor.hasNext());
+        Assertions.assertThrows(NoSuchElementException.class, () -> cursor.next());
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) i);
+        }
+        for (int pass = 0; pass < 2; pass++) {
+            cursor.reset();
+            int i = 0;
+            while (cursor.hasNext()) {
+                Assertions.assertEquals(collection.get(i), cursor.next());
+                i++;
+            }
+            Assertions.assertEquals(iterations, i);
+            Assertions.assertThrows(NoSuchElementException.class, () -> cursor.next());
+        }
+
+        cursor.reset();
+        cursor.next();
+        collection.add((byte) 1);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> {
+            while (cursor.hasNext()) {
+                cursor.next();
+            }
+        });
+
+        cursor.reset();
+        collection.clean();
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> {
+            while (cursor.hasNext()) {
+                cursor.next();
+            }
+        });
+        cursor.reset();
+        Assertions.assertFalse(cursor.hasNext());
+    }
+
     @Test
     void testHashCode() {
         final PrimitiveByteCollection collection1 = new PrimitiveByteCollection();
@@ -190,6 +779,522 @@ class PrimitiveByteCollectionTest {
         Assertions.assertThrows(IllegalArgumentException.class, () -> collection1.equals("123"));
     }
 
+    @Test
+    void snapshot() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        final PrimitiveByteCollection empty = collection.snapshot();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) (i % 100));
+        }
+        Assertions.assertEquals(0, empty.getSize());
+        final byte[] expected = collection.toArray();
+        final PrimitiveByteCollection snapshot = collection.snapshot();
+        Assertions.assertTrue(snapshot.isReadOnly());
+        Assertions.assertFalse(collection.isReadOnly());
+        Assertions.assertSame(snapshot, snapshot.snapshot());
+
+        // Appends go past the snapshot, set() copies the shared chunk first
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) 1);
+        }
+        for (int i = 0; i < iterations; i = i + 7) {
+            collection.set(i, (byte) 42);
+        }
+        Assertions.assertEquals(iterations, snapshot.getSize());
+        Assertions.assertArrayEquals(expected, snapshot.toArray());
+        Assertions.assertEquals((byte) 42, collection.get(9996));
+        Assertions.assertEquals((byte) 1, collection.get(iterations));
+
+        // A later snapshot shares the copied chunks again
+        final PrimitiveByteCollection second = collection.snapshot();
+        collection.set(0, (byte) 7);
+        Assertions.assertEquals((byte) 42, second.get(0));
+        Assertions.assertEquals((byte) 7, collection.get(0));
+
+        snapshot.enableStatistics();
+        snapshot.enablePrefixSums();
+        final PrimitiveByteCollection copy = new PrimitiveByteCollection();
+        copy.addAll(expected);
+        Assertions.assertEquals(copy.sum(), snapshot.sum());
+        Assertions.assertEquals(copy.max(), snapshot.max());
+        Assertions.assertEquals(copy.rangeSum(10, 5000), snapshot.rangeSum(10, 5000));
+        Assertions.assertEquals(copy, snapshot);
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.add((byte) 1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.addAll(expected));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.addAll(copy));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, (byte) 1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.ensureCapacity(1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.clean());
+
+        collection.clean();
+        Assertions.assertArrayEquals(expected, snapshot.toArray());
+    }
+
+    @Test
+    void removeAndInsert() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final List<Byte> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            collection.add((byte) (i % 100));
+            expected.add((byte) (i % 100));
+        }
+        final Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            final int index = random.nextInt(expected.size());
+            if (random.nextBoolean()) {
+                Assertions.assertEquals(expected.remove(index), collection.remove(index));
+            } else {
+                final byte value = (byte) random.nextInt(100);
+                expected.add(index, value);
+                collection.insert(index, value);
+            }
+        }
+        collection.insert(collection.getSize(), (byte) 5);
+        expected.add((byte) 5);
+        assertSameValues(expected, collection);
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.remove(collection.getSize()));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.insert(-1, (byte) 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.insert(collection.getSize() + 1, (byte) 1));
+    }
+
+    @Test
+    void removeRange() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final List<Byte> expected = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) (i % 100));
+            expected.add((byte) (i % 100));
+        }
+        collection.removeRange(10, 10);
+        collection.removeRange(100, 3000);
+        expected.subList(100, 3000).clear();
+        assertSameValues(expected, collection);
+        collection.removeRange(1024, 2048);
+        expected.subList(1024, 2048).clear();
+        assertSameValues(expected, collection);
+        collection.removeRange(500, collection.getSize());
+        expected.subList(500, expected.size()).clear();
+        assertSameValues(expected, collection);
+
+        // Appends reuse the released chunks
+        for (int i = 0; i < 2000; i++) {
+            collection.add((byte) (i % 7));
+            expected.add((byte) (i % 7));
+        }
+        assertSameValues(expected, collection);
+        collection.removeRange(0, collection.getSize());
+        Assertions.assertEquals(0, collection.getSize());
+        collection.add((byte) 1);
+        Assertions.assertEquals((byte) 1, collection.get(0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.removeRange(1, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.removeRange(0, 2));
+    }
+
+    @Test
+    void sparseInsertRemove() throws IOException {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection(6);
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final List<Byte> expected = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            collection.add((byte) (i % 100));
+            expected.add((byte) (i % 100));
+        }
+        final Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            final int index = random.nextInt(expected.size());
+            final int operation = random.nextInt(8);
+            if (operation == 0) {
+                Assertions.assertEquals(expected.remove(index), collection.remove(index));
+            } else if (operation == 1) {
+                final int to = Math.min(expected.size(), index + random.nextInt(16));
+                expected.subList(index, to).clear();
+                collection.removeRange(index, to);
+            } else {
+                final byte value = (byte) random.nextInt(100);
+                expected.add(index, value);
+                collection.insert(index, value);
+            }
+            if (i % 100 == 0) {
+                Assertions.assertEquals(expected.get(index % expected.size()), collection.get(index % expected.size()));
+                final PrimitiveByteCollection dense = new PrimitiveByteCollection();
+                for (final byte value : expected) {
+                    dense.add(value);
+                }
+                final int from = random.nextInt(expected.size());
+                final int to = expected.size();
+                Assertions.assertEquals(dense.rangeSum(from, to), collection.rangeSum(from, to), 1e-6);
+                Assertions.assertEquals(dense.rangeMax(from, to), collection.rangeMax(from, to));
+                Assertions.assertEquals(dense.findFirstGreaterThan(from, (byte) 98),
+                        collection.findFirstGreaterThan(from, (byte) 98));
+            }
+        }
+        assertSameValues(expected, collection);
+        final byte[] values = new byte[expected.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = expected.get(i);
+        }
+        Assertions.assertArrayEquals(values, collection.toArray());
+        final PrimitiveByteCollection dense = new PrimitiveByteCollection();
+        dense.addAll(values);
+        Assertions.assertArrayEquals(dense.stream().toArray(), collection.stream().toArray());
+        Assertions.assertArrayEquals(dense.stream().toArray(), collection.parallelStream().toArray());
+        final Spliterator.OfInt suffix = collection.spliterator();
+        final Spliterator.OfInt prefix = suffix.trySplit();
+        Assertions.assertNotNull(prefix);
+        Assertions.assertEquals(values.length, prefix.estimateSize() + suffix.estimateSize());
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        collection.writeTo(Channels.newChannel(output));
+        Assertions.assertEquals(collection, PrimitiveByteCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(output.toByteArray()))));
+    }
+
+    @Test
+    void sparseSnapshotAndCompact() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection(6);
+        final List<Byte> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            collection.add((byte) (i % 100));
+            expected.add((byte) (i % 100));
+        }
+        final PrimitiveByteCollection snapshot = collection.snapshot();
+        final List<Byte> snapshotExpected = new ArrayList<>(expected);
+        for (int i = 0; i < 200; i++) {
+            collection.insert(i * 3, (byte) 7);
+            expected.add(i * 3, (byte) 7);
+        }
+        collection.removeRange(10, 100);
+        expected.subList(10, 100).clear();
+        collection.remove(0);
+        expected.remove(0);
+        for (int i = 0; i < 100; i++) {
+            collection.add((byte) 1);
+            expected.add((byte) 1);
+        }
+        assertSameValues(expected, collection);
+        assertSameValues(snapshotExpected, snapshot);
+
+        final PrimitiveByteCollection sparseSnapshot = collection.snapshot();
+        final List<Byte> sparseExpected = new ArrayList<>(expected);
+        collection.set(5, (byte) 3);
+        expected.set(5, (byte) 3);
+        collection.compact();
+        assertSameValues(expected, collection);
+        assertSameValues(sparseExpected, sparseSnapshot);
+
+        // Removing most values compacts by itself, the sorted collection is dense again
+        collection.insert(1, (byte) 2);
+        expected.add(1, (byte) 2);
+        collection.removeRange(2, collection.getSize() - 10);
+        expected.subList(2, expected.size() - 10).clear();
+        assertSameValues(expected, collection);
+        collection.removeRange(0, collection.getSize());
+        Assertions.assertEquals(0, collection.getSize());
+        Assertions.assertEquals("[]", collection.toString());
+        collection.add((byte) 4);
+        Assertions.assertEquals((byte) 4, collection.get(0));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> sparseSnapshot.compact());
+
+        final PrimitiveByteCollection sorted = new PrimitiveByteCollection(6);
+        for (int i = 0; i < 500; i++) {
+            sorted.add((byte) (i / 10));
+        }
+        sorted.insert(5, (byte) 0);
+        Assertions.assertEquals((byte) 30, sorted.get(sorted.binarySearch((byte) 30)));
+        Assertions.assertEquals(-sorted.getSize() - 1, sorted.binarySearch((byte) 60));
+    }
+
+    @Test
+    void removeIf() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final List<Byte> expected = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) (i % 100));
+            if (i % 100 < 90) {
+                expected.add((byte) (i % 100));
+            }
+        }
+        Assertions.assertFalse(collection.removeIf(value -> value > 100));
+        Assertions.assertEquals(iterations, collection.getSize());
+        Assertions.assertTrue(collection.removeIf(value -> value >= 90));
+        assertSameValues(expected, collection);
+
+        // A failing filter keeps the values it did not see
+        final int[] calls = new int[1];
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.removeIf(value -> {
+            calls[0]++;
+            if (calls[0] > 2000) {
+                throw new IllegalStateException();
+            }
+            return value == (byte) 0;
+        }));
+        for (int i = 1999; i >= 0; i--) {
+            if (expected.get(i) == (byte) 0) {
+                expected.remove(i);
+            }
+        }
+        assertSameValues(expected, collection);
+
+        Assertions.assertTrue(collection.removeIf(value -> true));
+        Assertions.assertEquals(0, collection.getSize());
+    }
+
+    @Test
+    void removeKeepsSnapshot() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        for (int i = 0; i < 3000; i++) {
+            collection.add((byte) (i % 100));
+        }
+        final byte[] values = collection.toArray();
+        final PrimitiveByteCollection snapshot = collection.snapshot();
+        collection.removeRange(2500, 3000);
+        collection.add((byte) 42);
+        collection.remove(0);
+        collection.insert(1500, (byte) 43);
+        collection.removeIf(value -> value == (byte) 1);
+        Assertions.assertArrayEquals(values, snapshot.toArray());
+    }
+
+    private static void assertSameValues(final List<Byte> expected, final PrimitiveByteCollection collection) {
+        final PrimitiveByteCollection copy = new PrimitiveByteCollection();
+        for (final byte value : expected) {
+            copy.add(value);
+        }
+        Assertions.assertEquals(copy, collection);
+        Assertions.assertEquals(copy.sum(), collection.sum());
+        Assertions.assertEquals(copy.max(), collection.max());
+        Assertions.assertEquals(copy.min(), collection.min());
+        Assertions.assertEquals(copy.prefixSum(copy.getSize()), collection.prefixSum(collection.getSize()));
+        Assertions.assertEquals(copy.rangeSum(1, copy.getSize() - 1), collection.rangeSum(1, collection.getSize() - 1));
+    }
+
+    @Test
+    void sort() {
+        final Random random = new Random(11);
+        for (final int length : new int[]{0, 1, 63, 1024, 5000, 3 * 1024, 9 * 1024 + 17}) {
+            final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+            collection.enableStatistics();
+            collection.enablePrefixSums();
+            final byte[] values = new byte[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = i % 3 == 0 ? (byte) random.nextInt(10) : (byte) random.nextInt();
+            }
+            collection.addAll(values);
+            Arrays.sort(values);
+            collection.sort();
+            assertSorted(values, collection);
+        }
+    }
+
+    @Test
+    void parallelSort() {
+        final Random random = new Random(12);
+        final byte[] values = new byte[100_000 + 123];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 3 == 0 ? (byte) random.nextInt(10) : (byte) random.nextInt();
+        }
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        collection.addAll(values);
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final PrimitiveByteCollection snapshot = collection.snapshot();
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            collection.parallelSort(pool);
+        } finally {
+            pool.shutdown();
+        }
+        Assertions.assertArrayEquals(values, snapshot.toArray());
+        Arrays.sort(values);
+        assertSorted(values, collection);
+
+        final PrimitiveByteCollection reversed = new PrimitiveByteCollection();
+        for (int i = values.length - 1; i >= 0; i--) {
+            reversed.add(values[i]);
+        }
+        reversed.parallelSort();
+        Assertions.assertArrayEquals(values, reversed.toArray());
+        Assertions.assertThrows(UnsupportedOperationException.class, snapshot::sort);
+    }
+
+    private static void assertSorted(final byte[] expected, final PrimitiveByteCollection collection) {
+        Assertions.assertArrayEquals(expected, collection.toArray());
+        if (expected.length > 0) {
+            final PrimitiveByteCollection copy = new PrimitiveByteCollection();
+            copy.addAll(expected);
+            Assertions.assertEquals(expected[0], collection.min());
+            Assertions.assertEquals(expected[expected.length - 1], collection.max());
+            Assertions.assertEquals(copy.sum(), collection.sum());
+            Assertions.assertEquals(copy.rangeSum(1, copy.getSize()), collection.rangeSum(1, collection.getSize()));
+        }
+    }
+
+    @Test
+    void binarySearch() {
+        final Random random = new Random(13);
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        Assertions.assertEquals(-1, collection.binarySearch((byte) 1));
+        for (int i = 0; i < 5000; i++) {
+            collection.add((byte) random.nextInt());
+        }
+        collection.sort();
+        final byte[] values = collection.toArray();
+        for (int i = 0; i < 2000; i++) {
+            final byte value = i % 2 == 0 ? values[random.nextInt(values.length)] : (byte) random.nextInt();
+            final int expected = Arrays.binarySearch(values, value);
+            final int found = collection.binarySearch(value);
+            if (expected >= 0) {
+                Assertions.assertEquals(value, values[found]);
+            } else {
+                Assertions.assertEquals(expected, found);
+            }
+        }
+        Assertions.assertEquals(values[0], values[collection.binarySearch(values[0])]);
+        Assertions.assertEquals(values[values.length - 1], values[collection.binarySearch(values[values.length - 1])]);
+    }
+
+    @Test
+    void chunkShift() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveByteCollection(5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveByteCollection(21));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveByteCollection(8, 7));
+        Assertions.assertEquals(1024, new PrimitiveByteCollection().getChunkSize());
+
+        final PrimitiveByteCollection expected = new PrimitiveByteCollection();
+        for (int i = 0; i < 5000; i++) {
+            expected.add((byte) (i % 100));
+        }
+        for (final int shift : new int[]{6, 9, 12}) {
+            final PrimitiveByteCollection collection = new PrimitiveByteCollection(shift);
+            collection.enableStatistics();
+            collection.enablePrefixSums();
+            for (int i = 0; i < 5000; i++) {
+                collection.add((byte) (i % 100));
+            }
+            Assertions.assertEquals(1 << shift, collection.getChunkSize());
+            Assertions.assertEquals((byte) 57, collection.get(4957));
+            Assertions.assertEquals(expected, collection);
+            Assertions.assertEquals(collection, expected);
+            Assertions.assertEquals(expected.hashCode(), collection.hashCode());
+            Assertions.assertEquals(expected.sum(), collection.sum());
+            Assertions.assertEquals(expected.rangeSum(70, 4900), collection.rangeSum(70, 4900));
+            Assertions.assertEquals(expected.sum(), collection.stream().sum());
+            Assertions.assertEquals(expected.sum(), collection.parallelStream().sum());
+
+            final PrimitiveByteCollection copy = new PrimitiveByteCollection();
+            copy.addAll(collection);
+            Assertions.assertEquals(expected, copy);
+            collection.removeRange(100, 4000);
+            collection.sort();
+            Assertions.assertEquals(1100, collection.getSize());
+            Assertions.assertEquals((byte) 99, collection.get(1099));
+        }
+    }
+
+    @Test
+    void adaptiveChunks() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection(6, 10);
+        final PrimitiveByteCollection expected = new PrimitiveByteCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        Assertions.assertEquals(64, collection.getChunkSize());
+        PrimitiveByteCollection snapshot = null;
+        byte[] snapshotValues = null;
+        for (int i = 0; i < 300_000; i++) {
+            collection.add((byte) (i % 100));
+            expected.add((byte) (i % 100));
+            if (i == 10_000) {
+                Assertions.assertEquals(128, collection.getChunkSize());
+                snapshot = collection.snapshot();
+                snapshotValues = snapshot.toArray();
+            }
+        }
+        Assertions.assertEquals(1024, collection.getChunkSize());
+        Assertions.assertArrayEquals(snapshotValues, snapshot.toArray());
+        Assertions.assertEquals(expected, collection);
+        Assertions.assertEquals(expected.hashCode(), collection.hashCode());
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.max(), collection.max());
+        Assertions.assertEquals(expected.prefixSum(123_457), collection.prefixSum(123_457));
+        Assertions.assertEquals(expected.rangeSum(5, 299_000), collection.rangeSum(5, 299_000));
+
+        // Joins while appending its own values
+        final PrimitiveByteCollection byted = new PrimitiveByteCollection(6, 8);
+        byted.enablePrefixSums();
+        for (int i = 0; i < 3000; i++) {
+            byted.add((byte) (i % 100));
+        }
+        byted.addAll(byted);
+        byted.addAll(byted);
+        Assertions.assertEquals(128, byted.getChunkSize());
+        Assertions.assertEquals(12_000, byted.getSize());
+        for (int i = 0; i < 12_000; i++) {
+            Assertions.assertEquals((byte) ((i % 3000) % 100), byted.get(i));
+        }
+        Assertions.assertEquals(expected.prefixSum(3000) * 4, byted.prefixSum(12_000));
+    }
+
+    @Test
+    void compactFirstChunk() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        final PrimitiveByteCollection empty = collection.snapshot();
+        for (int i = 0; i < 10; i++) {
+            collection.add((byte) i);
+        }
+        final PrimitiveByteCollection snapshot = collection.snapshot();
+        collection.trimToSize();
+        collection.set(0, (byte) 42);
+        collection.add((byte) 10);
+        Assertions.assertEquals(0, empty.getSize());
+        Assertions.assertEquals(10, snapshot.getSize());
+        Assertions.assertEquals((byte) 0, snapshot.get(0));
+        Assertions.assertEquals((byte) 42, collection.get(0));
+        Assertions.assertEquals((byte) 10, collection.get(10));
+
+        final byte[] values = new byte[3000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (byte) (i % 100);
+        }
+        collection.addAll(values, 0, 5);
+        collection.addAll(values);
+        Assertions.assertEquals(3016, collection.getSize());
+        for (int i = 0; i < values.length; i++) {
+            Assertions.assertEquals(values[i], collection.get(16 + i));
+        }
+
+        collection.clean();
+        collection.trimToSize();
+        collection.ensureCapacity(7);
+        collection.add((byte) 1);
+        collection.insert(0, (byte) 2);
+        Assertions.assertArrayEquals(new byte[]{(byte) 2, (byte) 1}, collection.toArray());
+    }
+
+    @Test
+    void compactFootprint() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        final long empty = GraphLayout.parseInstance(collection).totalSize();
+        Assertions.assertTrue(empty < 256, "Empty collection takes " + empty + " bytes");
+        for (int i = 0; i < 20; i++) {
+            collection.add((byte) i);
+        }
+        // The flat first chunk has room for at most twice its values
+        final long small = GraphLayout.parseInstance(collection).totalSize();
+        Assertions.assertTrue(small <= empty + 2 * 20 * Byte.BYTES + 24, "20 values take " + small + " bytes");
+        collection.trimToSize();
+        final long trimmed = GraphLayout.parseInstance(collection).totalSize();
+        Assertions.assertTrue(trimmed <= empty + 20 * Byte.BYTES + 24, "Trimmed 20 values take " + trimmed + " bytes");
+    }
+
     @Test
     void testClone() {
         final PrimitiveByteCollection collection = new PrimitiveByteCollection();
@@ -205,4 +1310,18 @@ class PrimitiveByteCollectionTest {
         }
         Assertions.assertNotNull(collection.toString());
     }
+
+    @Test
+    void snapshotToString() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        Assertions.assertEquals("[]", collection.toString());
+        collection.add((byte) 1);
+        collection.add((byte) 2);
+        collection.add((byte) 3);
+        final PrimitiveByteCollection snapshot = collection.snapshot();
+        collection.add((byte) 4);
+        Assertions.assertEquals("[" + Arrays.toString(new byte[]{(byte) 1, (byte) 2, (byte) 3}) + "]",
+                snapshot.toString());
+        Assertions.assertEquals("[" + Arrays.toString(collection.toArray()) + "]", collection.toString());
+    }
 }
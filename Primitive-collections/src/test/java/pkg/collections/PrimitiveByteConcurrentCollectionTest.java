@@ -0,0 +1,160 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class PrimitiveByteConcurrentCollectionTest {
+
+    private final int iterations = 10_000;
+    private final int threads = 4;
+
+    @Test
+    void addAndGet() {
+        final PrimitiveByteConcurrentCollection collection = new PrimitiveByteConcurrentCollection();
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(i, collection.getSize());
+            collection.add((byte) i);
+        }
+        Assertions.assertEquals(iterations, collection.getSize());
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals((byte) i, collection.get(i));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(-1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(iterations));
+    }
+
+    @Test
+    void addAll() {
+        final PrimitiveByteConcurrentCollection collection = new PrimitiveByteConcurrentCollection();
+        final byte[] source = new byte[3000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (byte) i;
+        }
+        collection.add((byte) -1);
+        collection.addAll(source, 10, 2500);
+        collection.addAll(source, 0, 0);
+        Assertions.assertEquals(2501, collection.getSize());
+        Assertions.assertEquals((byte) -1, collection.get(0));
+        for (int i = 0; i < 2500; i++) {
+            Assertions.assertEquals(source[i + 10], collection.get(i + 1));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.addAll(source, 2000, 1001));
+    }
+
+    @Test
+    void sizeWithUncommittedSlot() throws ReflectiveOperationException {
+        final PrimitiveByteConcurrentCollection collection = new PrimitiveByteConcurrentCollection();
+        collection.add((byte) 1);
+        Assertions.assertEquals(1, collection.getSize());
+        // Claims slot 1 like a producer that has not written its value yet
+        final Field tail = PrimitiveByteConcurrentCollection.class.getDeclaredField("tail");
+        tail.setAccessible(true);
+        ((AtomicInteger) tail.get(collection)).incrementAndGet();
+        Assertions.assertEquals(1, collection.getSize());
+        Assertions.assertEquals((byte) 1, collection.get(0));
+        collection.add((byte) 2);
+        Assertions.assertEquals(1, collection.getSize());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(1));
+    }
+
+    @Test
+    void concurrentAdd() throws InterruptedException {
+        final PrimitiveByteConcurrentCollection collection = new PrimitiveByteConcurrentCollection();
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final boolean bulk = t % 2 == 0;
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    final byte[] source = new byte[100];
+                    for (int i = 0; i < iterations; i = i + source.length) {
+                        for (int j = 0; j < source.length; j++) {
+                            source[j] = (byte) ((i + j) % 100);
+                        }
+                        if (bulk) {
+                            collection.addAll(source);
+                        } else {
+                            for (final byte value : source) {
+                                collection.add(value);
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+        final Thread reader = new Thread(() -> {
+            try {
+                start.await();
+                int size = 0;
+                while (size < threads * iterations) {
+                    size = collection.getSize();
+                    if (size > 0) {
+                        final byte value = collection.get(size - 1);
+                        Assertions.assertTrue(value >= 0 && value < 100);
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writers.forEach(Thread::start);
+        reader.start();
+        start.countDown();
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+        reader.join();
+        Assertions.assertNull(failure.get());
+
+        Assertions.assertEquals(threads * iterations, collection.getSize());
+        Assertions.assertEquals(threads * (iterations / 100) * 4950, collection.sum());
+        Assertions.assertEquals((byte) 99, collection.max());
+        Assertions.assertEquals((byte) 0, collection.min());
+        final long[] counts = new long[100];
+        collection.forEach(value -> counts[(int) value]++);
+        for (final long count : counts) {
+            Assertions.assertEquals(threads * iterations / 100, count);
+        }
+    }
+
+    @Test
+    void reductions() {
+        final PrimitiveByteConcurrentCollection collection = new PrimitiveByteConcurrentCollection();
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.max());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.min());
+        final PrimitiveByteCollection expected = new PrimitiveByteCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((byte) (i % 100 - 50));
+            expected.add((byte) (i % 100 - 50));
+        }
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.max(), collection.max());
+        Assertions.assertEquals(expected.min(), collection.min());
+        Assertions.assertEquals(expected, collection.toCollection());
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveByteConcurrentCollection collection = new PrimitiveByteConcurrentCollection();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> collection.clone());
+    }
+
+    @Test
+    void testToString() {
+        final PrimitiveByteConcurrentCollection collection = new PrimitiveByteConcurrentCollection();
+        collection.add((byte) 1);
+        Assertions.assertNotNull(collection.toString());
+    }
+}
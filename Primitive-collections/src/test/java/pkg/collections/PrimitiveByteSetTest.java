@@ -0,0 +1,124 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class PrimitiveByteSetTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void addContainsRemove() {
+        final PrimitiveByteSet set = new PrimitiveByteSet(0);
+        final Set<Byte> expected = new HashSet<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final byte value = (byte) (random.nextInt(100) - 50);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                Assertions.assertEquals(expected.add(value), set.add(value));
+            }
+            Assertions.assertEquals(expected.size(), set.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            Assertions.assertEquals(expected.contains((byte) i), set.contains((byte) i));
+        }
+    }
+
+    @Test
+    void zero() {
+        final PrimitiveByteSet set = new PrimitiveByteSet();
+        Assertions.assertFalse(set.contains((byte) 0));
+        Assertions.assertTrue(set.add((byte) 0));
+        Assertions.assertFalse(set.add((byte) 0));
+        Assertions.assertTrue(set.contains((byte) 0));
+        Assertions.assertEquals(1, set.getSize());
+        Assertions.assertArrayEquals(new byte[]{(byte) 0}, set.toArray());
+        Assertions.assertTrue(set.remove((byte) 0));
+        Assertions.assertFalse(set.remove((byte) 0));
+        Assertions.assertEquals(0, set.getSize());
+    }
+
+    @Test
+    void addAll() {
+        final PrimitiveByteCollection collection = new PrimitiveByteCollection();
+        final byte[] values = new byte[iterations];
+        for (int i = 0; i < iterations; i++) {
+            values[i] = (byte) (i % 100 - 50);
+            collection.add(values[i]);
+        }
+        final PrimitiveByteSet fromCollection = new PrimitiveByteSet();
+        fromCollection.addAll(collection);
+        final PrimitiveByteSet fromArray = new PrimitiveByteSet();
+        fromArray.addAll(values);
+        Assertions.assertEquals(100, fromCollection.getSize());
+        Assertions.assertEquals(100, fromArray.getSize());
+
+        final byte[] expected = new byte[100];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = (byte) (i - 50);
+        }
+        final byte[] actual = fromCollection.toArray();
+        Arrays.sort(actual);
+        Assertions.assertArrayEquals(expected, actual);
+        final PrimitiveByteCollection visited = new PrimitiveByteCollection();
+        fromArray.forEach(visited::add);
+        final byte[] visitedValues = visited.toArray();
+        Arrays.sort(visitedValues);
+        Assertions.assertArrayEquals(expected, visitedValues);
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveByteSet set = new PrimitiveByteSet();
+        for (int i = 0; i < 100; i++) {
+            set.add((byte) (i - 50));
+        }
+        set.clean();
+        Assertions.assertEquals(0, set.getSize());
+        Assertions.assertEquals(0, set.toArray().length);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertFalse(set.contains((byte) (i - 50)));
+        }
+        Assertions.assertTrue(set.add((byte) 3));
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveByteSet(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveByteSet(16, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveByteSet(16, Float.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveByteSet(-1));
+        final PrimitiveByteSet dense = new PrimitiveByteSet(0, 0.99f);
+        final PrimitiveByteSet sparse = new PrimitiveByteSet(0, 0.1f);
+        for (int i = 0; i < 100; i++) {
+            dense.add((byte) (i - 50));
+            sparse.add((byte) (i - 50));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(dense.contains((byte) (i - 50)));
+            Assertions.assertTrue(sparse.contains((byte) (i - 50)));
+        }
+    }
+
+    @Test
+    void forEachFailFast() {
+        final PrimitiveByteSet set = new PrimitiveByteSet();
+        set.add((byte) 1);
+        set.add((byte) 2);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> set.forEach(value -> set.add((byte) 3)));
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveByteSet set = new PrimitiveByteSet();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> set.clone());
+    }
+}
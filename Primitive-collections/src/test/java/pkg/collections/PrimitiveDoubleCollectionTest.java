@@ -2,8 +2,26 @@ package pkg.collections;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+// Start widen
+import java.util.function.DoubleConsumer;
+// Stop widen
 
 class PrimitiveDoubleCollectionTest {
 
@@ -76,6 +94,244 @@ class PrimitiveDoubleCollectionTest {
         Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
     }
 
+    @Test
+    void addAllArray() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        final PrimitiveDoubleCollection expected = new PrimitiveDoubleCollection();
+        final double[] source = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            source[i] = (double) i;
+        }
+        collection.addAll(source, 0, 0);
+        Assertions.assertEquals(0, collection.getSize());
+
+        collection.add((double) -1);
+        expected.add((double) -1);
+        collection.addAll(source, 3, 1500);
+        for (int i = 3; i < 1503; i++) {
+            expected.add((double) i);
+        }
+        collection.addAll(source);
+        for (int i = 0; i < iterations; i++) {
+            expected.add((double) i);
+        }
+        Assertions.assertEquals(expected.getSize(), collection.getSize());
+        Assertions.assertEquals(expected, collection);
+
+        Assertions.assertThrows(NullPointerException.class, () -> collection.addAll((double[]) null));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.addAll(source, -1, 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.addAll(source, 1, iterations));
+        Assertions.assertEquals(expected, collection);
+    }
+
+    @Test
+    void addAllCollection() {
+        final PrimitiveDoubleCollection source = new PrimitiveDoubleCollection();
+        for (int i = 0; i < iterations; i++) {
+            source.add((double) i);
+        }
+
+        final PrimitiveDoubleCollection aligned = new PrimitiveDoubleCollection();
+        aligned.addAll(source);
+        Assertions.assertEquals(source, aligned);
+
+        final PrimitiveDoubleCollection unaligned = new PrimitiveDoubleCollection();
+        unaligned.add((double) -1);
+        unaligned.addAll(source);
+        Assertions.assertEquals(iterations + 1, unaligned.getSize());
+        Assertions.assertEquals((double) -1, unaligned.get(0));
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(source.get(i), unaligned.get(i + 1));
+        }
+
+        unaligned.addAll(new PrimitiveDoubleCollection());
+        Assertions.assertEquals(iterations + 1, unaligned.getSize());
+
+        source.addAll(source);
+        Assertions.assertEquals(iterations * 2, source.getSize());
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals((double) i, source.get(i));
+            Assertions.assertEquals((double) i, source.get(i + iterations));
+        }
+    }
+
+    @Test
+    void adoptChunk() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final PrimitiveDoubleCollection expected = new PrimitiveDoubleCollection();
+        for (int c = 0; c < 3; c++) {
+            final double[] chunk = new double[1024];
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = (double) (c + i % 100);
+            }
+            collection.adoptChunk(chunk);
+            expected.addAll(chunk);
+            // Not copied: a write through the chunk shows up in the collection
+            chunk[5] = (double) 42;
+            Assertions.assertEquals((double) 42, collection.get((c << 10) + 5));
+            chunk[5] = (double) (c + 5);
+        }
+        collection.add((double) 7);
+        expected.add((double) 7);
+        final double[] unaligned = new double[1024];
+        unaligned[1023] = (double) 9;
+        collection.adoptChunk(unaligned);
+        expected.addAll(unaligned);
+        collection.adoptChunk(new double[]{(double) 1, (double) 2});
+        expected.addAll(new double[]{(double) 1, (double) 2});
+
+        Assertions.assertEquals(expected, collection);
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.max(), collection.max());
+        Assertions.assertEquals(expected.min(), collection.min());
+        Assertions.assertEquals(expected.rangeSum(100, 3100), collection.rangeSum(100, 3100));
+    }
+
+    @Test
+    void toArray() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        Assertions.assertEquals(0, collection.toArray().length);
+        final double[] expected = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            expected[i] = (double) i;
+            collection.add((double) i);
+        }
+        Assertions.assertArrayEquals(expected, collection.toArray());
+    }
+
+    @Test
+    void copyToArray() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) i);
+        }
+        final double[] destination = new double[iterations];
+        collection.copyTo(1000, destination, 5, 3000);
+        for (int i = 0; i < destination.length; i++) {
+            if (i >= 5 && i < 3005) {
+                Assertions.assertEquals(collection.get(i + 995), destination[i]);
+            } else {
+                Assertions.assertEquals((double) 0, destination[i]);
+            }
+        }
+        collection.copyTo(iterations, destination, 0, 0);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(-1, destination, 0, 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(iterations - 1, destination, 0, 2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(0, destination, 1, iterations));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(0, destination, 0, -1));
+        Assertions.assertThrows(NullPointerException.class, () -> collection.copyTo(0, (double[]) null, 0, 1));
+    }
+
+    @Test
+    void copyToBuffer() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) i);
+        }
+        final DoubleBuffer buffer = DoubleBuffer.allocate(iterations);
+        buffer.put((double) -1);
+        collection.copyTo(2000, buffer, 4000);
+        Assertions.assertEquals(4001, buffer.position());
+        buffer.flip();
+        Assertions.assertEquals((double) -1, buffer.get());
+        for (int i = 2000; i < 6000; i++) {
+            Assertions.assertEquals(collection.get(i), buffer.get());
+        }
+        final DoubleBuffer small = DoubleBuffer.allocate(10);
+        Assertions.assertThrows(BufferOverflowException.class, () -> collection.copyTo(0, small, 11));
+        Assertions.assertEquals(0, small.position());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.copyTo(iterations - 5, small, 10));
+    }
+
+    @Test
+    void writeAndRead() throws IOException {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) i);
+        }
+        for (final ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            for (final boolean checksum : new boolean[]{false, true}) {
+                final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                collection.writeTo(Channels.newChannel(output), order, checksum);
+                final PrimitiveDoubleCollection result = PrimitiveDoubleCollection.readFrom(
+                        Channels.newChannel(new ByteArrayInputStream(output.toByteArray())));
+                Assertions.assertEquals(iterations, result.getSize());
+                Assertions.assertEquals(collection, result);
+                result.add((double) 1);
+                Assertions.assertEquals((double) 1, result.get(iterations));
+            }
+        }
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new PrimitiveDoubleCollection().writeTo(Channels.newChannel(output));
+        Assertions.assertEquals(BinaryFormat.HEADER_SIZE, output.size());
+        Assertions.assertEquals(0, PrimitiveDoubleCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(output.toByteArray()))).getSize());
+    }
+
+    @Test
+    void readCorrupted() throws IOException {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) i);
+        }
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        collection.writeTo(Channels.newChannel(output), ByteOrder.nativeOrder(), true);
+        final byte[] bytes = output.toByteArray();
+
+        final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        Assertions.assertThrows(IOException.class, () -> PrimitiveDoubleCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(truncated))));
+
+        final byte[] flipped = bytes.clone();
+        flipped[bytes.length / 2] = (byte) ~flipped[bytes.length / 2];
+        Assertions.assertThrows(IOException.class, () -> PrimitiveDoubleCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(flipped))));
+
+        final byte[] magic = bytes.clone();
+        magic[0] = 0;
+        Assertions.assertThrows(IOException.class, () -> PrimitiveDoubleCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(magic))));
+    }
+
+    @Test
+    void ensureCapacity() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> collection.ensureCapacity(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> collection.ensureCapacity(Integer.MAX_VALUE + 1L));
+        collection.ensureCapacity(iterations);
+        Assertions.assertEquals(0, collection.getSize());
+        final PrimitiveDoubleCollection expected = new PrimitiveDoubleCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) i);
+            expected.add((double) i);
+            Assertions.assertEquals((double) i, collection.get(i));
+        }
+        Assertions.assertEquals(iterations, collection.getSize());
+        Assertions.assertEquals(expected, collection);
+        Assertions.assertEquals(expected.hashCode(), collection.hashCode());
+        Assertions.assertEquals(expected.toString(), collection.toString());
+    }
+
+    @Test
+    void trimToSize() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        collection.trimToSize();
+        collection.ensureCapacity(iterations * 2L);
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) i);
+        }
+        collection.trimToSize();
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals((double) i, collection.get(i));
+        }
+        collection.add((double) iterations);
+        Assertions.assertEquals(iterations + 1, collection.getSize());
+        Assertions.assertEquals((double) iterations, collection.get(iterations));
+    }
+
     @Test
     void sum() {
         int sum = 0;
@@ -130,6 +386,351 @@ class PrimitiveDoubleCollectionTest {
         }
     }
 
+    @Test
+    void reductionsAcrossChunks() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) (i % 100));
+            sum = sum + i % 100;
+        }
+        Assertions.assertEquals(sum, collection.sum());
+        Assertions.assertEquals(sum / (iterations * 1.0), collection.average());
+        Assertions.assertEquals((double) 99, collection.max());
+        Assertions.assertEquals((double) 0, collection.min());
+
+        collection.set(iterations / 2, (double) 101);
+        collection.set(iterations / 3, (double) -1);
+        Assertions.assertEquals((double) 101, collection.max());
+        Assertions.assertEquals((double) -1, collection.min());
+
+        collection.set(iterations - 1, (double) 102);
+        collection.set(iterations - 2, (double) -2);
+        Assertions.assertEquals((double) 102, collection.max());
+        Assertions.assertEquals((double) -2, collection.min());
+    }
+
+    @Test
+    void parallelReductions() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.parallelSum());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.parallelMax());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.parallelMin());
+        Assertions.assertEquals(0, collection.parallelReduce(0, (a, b) -> a + b));
+
+        final int count = iterations * 50;
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            collection.add((double) (i % 100));
+            sum = sum + i % 100;
+        }
+        collection.set(count / 3, (double) 101);
+        collection.set(count - 1, (double) -1);
+        sum = sum - (count / 3) % 100 + 101 - (count - 1) % 100 - 1;
+
+        Assertions.assertEquals(sum, collection.parallelSum());
+        Assertions.assertEquals(collection.max(), collection.parallelMax());
+        Assertions.assertEquals((double) 101, collection.parallelMax());
+        Assertions.assertEquals(collection.min(), collection.parallelMin());
+        Assertions.assertEquals((double) -1, collection.parallelMin());
+        Assertions.assertEquals(sum, collection.parallelReduce(0, (a, b) -> a + b));
+
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Assertions.assertEquals(sum, collection.parallelSum(pool));
+            Assertions.assertEquals((double) 101, collection.parallelMax(pool));
+            Assertions.assertEquals((double) -1, collection.parallelMin(pool));
+            Assertions.assertEquals(sum, collection.parallelReduce(0, (a, b) -> a + b, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void statistics() {
+        final Random random = new Random(3);
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        final PrimitiveDoubleCollection expected = new PrimitiveDoubleCollection();
+        Assertions.assertFalse(collection.isStatisticsEnabled());
+        collection.add((double) 7);
+        expected.add((double) 7);
+        collection.enableStatistics();
+        Assertions.assertTrue(collection.isStatisticsEnabled());
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.max(), collection.max());
+        for (int i = 0; i < iterations; i++) {
+            final double value = (double) random.nextInt(100);
+            collection.add(value);
+            expected.add(value);
+            if (i % 1000 == 0) {
+                Assertions.assertEquals(expected.sum(), collection.sum());
+                Assertions.assertEquals(expected.min(), collection.min());
+                Assertions.assertEquals(expected.max(), collection.max());
+            }
+        }
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.average(), collection.average());
+        Assertions.assertEquals(expected.parallelSum(), collection.parallelSum());
+
+        collection.set(5, (double) 120);
+        expected.set(5, (double) 120);
+        collection.set(iterations - 1, (double) -3);
+        expected.set(iterations - 1, (double) -3);
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals((double) 120, collection.max());
+        Assertions.assertEquals((double) -3, collection.min());
+        Assertions.assertEquals((double) 120, collection.parallelMax());
+
+        final double[] source = new double[3000];
+        Arrays.fill(source, (double) 110);
+        collection.addAll(source);
+        expected.addAll(source);
+        collection.add((double) -5);
+        expected.add((double) -5);
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.min(), collection.min());
+        Assertions.assertEquals(expected.max(), collection.max());
+
+        collection.trimToSize();
+        collection.add((double) 1);
+        expected.add((double) 1);
+        Assertions.assertEquals(expected.sum(), collection.sum());
+
+        collection.clean();
+        Assertions.assertTrue(collection.isStatisticsEnabled());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+        collection.add((double) 4);
+        Assertions.assertEquals(4, collection.sum());
+        Assertions.assertEquals((double) 4, collection.min());
+
+        collection.disableStatistics();
+        Assertions.assertFalse(collection.isStatisticsEnabled());
+        collection.add((double) 2);
+        Assertions.assertEquals(6, collection.sum());
+    }
+
+    @Test
+    void rangeQueries() {
+        final Random random = new Random(4);
+        for (final boolean statistics : new boolean[]{false, true}) {
+            final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+            if (statistics) {
+                collection.enableStatistics();
+            }
+            for (int i = 0; i < iterations; i++) {
+                final double value = (double) random.nextInt(100);
+                collection.add(value);
+            }
+            collection.set(7000, (double) 120);
+            collection.set(7500, (double) -20);
+            for (int n = 0; n < 200; n++) {
+                final int from = random.nextInt(iterations);
+                final int to = from + random.nextInt(iterations - from) + 1;
+                long sum = 0;
+                double max = collection.get(from);
+                double min = collection.get(from);
+                for (int i = from; i < to; i++) {
+                    sum = sum + (long) collection.get(i);
+                    max = collection.get(i) > max ? collection.get(i) : max;
+                    min = collection.get(i) < min ? collection.get(i) : min;
+                }
+                Assertions.assertEquals(sum, collection.rangeSum(from, to));
+                Assertions.assertEquals(sum / ((to - from) * 1.0), collection.rangeAverage(from, to), 1e-9);
+                Assertions.assertEquals(max, collection.rangeMax(from, to));
+                Assertions.assertEquals(min, collection.rangeMin(from, to));
+            }
+            Assertions.assertEquals(collection.sum(), collection.rangeSum(0, iterations));
+            Assertions.assertEquals(0, collection.rangeSum(5, 5));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> collection.rangeMax(5, 5));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> collection.rangeAverage(5, 5));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.rangeSum(5, 4));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.rangeMin(0, iterations + 1));
+
+            Assertions.assertEquals(7000, collection.findFirstGreaterThan((double) 100));
+            Assertions.assertEquals(7000, collection.findFirstGreaterThan(7000, (double) 100));
+            Assertions.assertEquals(-1, collection.findFirstGreaterThan(7001, (double) 100));
+            Assertions.assertEquals(-1, collection.findFirstGreaterThan((double) 120));
+            Assertions.assertEquals(7500, collection.findFirstLessThan((double) 0));
+            Assertions.assertEquals(-1, collection.findFirstLessThan(7501, (double) 0));
+            Assertions.assertEquals(-1, collection.findFirstLessThan(iterations, (double) 50));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.findFirstLessThan(iterations + 1, (double) 50));
+            final int first = collection.findFirstLessThan(3, (double) 50);
+            Assertions.assertTrue(collection.get(first) < 50 && first >= 3);
+            for (int i = 3; i < first; i++) {
+                Assertions.assertTrue(collection.get(i) >= 50);
+            }
+        }
+    }
+
+    @Test
+    void prefixSums() {
+        final Random random = new Random(5);
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        final long[] values = new long[iterations * 2];
+        for (int i = 0; i < 1500; i++) {
+            values[i] = random.nextInt(100);
+            collection.add((double) values[i]);
+        }
+        Assertions.assertFalse(collection.isPrefixSumsEnabled());
+        Assertions.assertEquals(collection.rangeSum(0, 1000), collection.prefixSum(1000));
+        collection.enablePrefixSums();
+        Assertions.assertTrue(collection.isPrefixSumsEnabled());
+        for (int i = 1500; i < iterations; i++) {
+            values[i] = random.nextInt(100);
+            collection.add((double) values[i]);
+        }
+        final double[] source = new double[3000];
+        for (int i = 0; i < source.length; i++) {
+            values[iterations + i] = random.nextInt(100);
+            source[i] = (double) values[iterations + i];
+        }
+        collection.addAll(source);
+        final int size = iterations + source.length;
+        for (int n = 0; n < 1000; n++) {
+            final int index = random.nextInt(size);
+            final double value = (double) random.nextInt(100);
+            collection.set(index, value);
+            values[index] = (long) value;
+        }
+        final long[] prefix = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            prefix[i + 1] = prefix[i] + values[i];
+        }
+        for (int i = 0; i <= size; i++) {
+            Assertions.assertEquals(prefix[i], collection.prefixSum(i));
+        }
+        for (int n = 0; n < 200; n++) {
+            final int from = random.nextInt(size);
+            final int to = from + random.nextInt(size - from + 1);
+            Assertions.assertEquals(prefix[to] - prefix[from], collection.rangeSum(from, to));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.prefixSum(size + 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.prefixSum(-1));
+
+        collection.clean();
+        Assertions.assertTrue(collection.isPrefixSumsEnabled());
+        Assertions.assertEquals(0, collection.prefixSum(0));
+        collection.add((double) 3);
+        collection.add((double) 4);
+        Assertions.assertEquals(7, collection.prefixSum(2));
+        collection.disablePrefixSums();
+        Assertions.assertEquals(3, collection.prefixSum(1));
+    }
+
+    @Test
+    void stream() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        Assertions.assertEquals(0, collection.stream().count());
+        long sum = 0;
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) (i % 100));
+            sum = sum + i % 100;
+        }
+        Assertions.assertEquals(iterations, collection.stream().count());
+        Assertions.assertEquals(sum, collection.stream().sum());
+        Assertions.assertEquals(sum, collection.parallelStream().sum());
+        // Start widen
+        Assertions.assertEquals(collection.max(), collection.parallelStream().max().getAsDouble());
+        // Stop widen
+        // Start widen
+        final double[] values = collection.parallelStream().toArray();
+        // Stop widen
+        Assertions.assertEquals(iterations, values.length);
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(collection.get(i), values[i]);
+        }
+    }
+
+    @Test
+    void spliterator() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) i);
+        }
+        // Start widen
+        final Spliterator.OfDouble suffix = collection.spliterator();
+        // Stop widen
+        Assertions.assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Assertions.assertEquals(iterations, suffix.getExactSizeIfKnown());
+
+        // Start widen
+        final Spliterator.OfDouble prefix = suffix.trySplit();
+        // Stop widen
+        Assertions.assertNotNull(prefix);
+        Assertions.assertEquals(0, prefix.estimateSize() % 1024);
+        Assertions.assertEquals(iterations, prefix.estimateSize() + suffix.estimateSize());
+
+        final int[] index = new int[]{0};
+        // Start widen
+        Assertions.assertTrue(prefix.tryAdvance((DoubleConsumer) v -> Assertions.assertEquals(collection.get(0), v)));
+        index[0]++;
+        prefix.forEachRemaining((DoubleConsumer) v -> Assertions.assertEquals(collection.get(index[0]++), v));
+        suffix.forEachRemaining((DoubleConsumer) v -> Assertions.assertEquals(collection.get(index[0]++), v));
+        Assertions.assertFalse(suffix.tryAdvance((DoubleConsumer) v -> Assertions.fail("Value = " + v)));
+        // Stop widen
+        Assertions.assertEquals(iterations, index[0]);
+
+        final PrimitiveDoubleCollection small = new PrimitiveDoubleCollection();
+        small.add((double) 1);
+        Assertions.assertNull(small.spliterator().trySplit());
+    }
+
+    @Test
+    void forEach() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        collection.forEach(v -> Assertions.fail("Value = " + v));
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) i);
+        }
+        final int[] index = new int[]{0};
+        collection.forEach(v -> Assertions.assertEquals(collection.get(index[0]++), v));
+        Assertions.assertEquals(iterations, index[0]);
+
+        Assertions.assertThrows(NullPointerException.class, () -> collection.forEach(null));
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> collection.forEach(v -> collection.add(v)));
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> collection.forEach(v -> collection.clean()));
+    }
+
+    @Test
+    void cursor() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        final PrimitiveDoubleCollection.Cursor cursor = collection.cursor();
+        Assertions.assertFalse(cursor.hasNext());
+        Assertions.assertThrows(NoSuchElementException.class, () -> cursor.next());
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) i);
+        }
+        for (int pass = 0; pass < 2; pass++) {
+            cursor.reset();
+            int i = 0;
+            while (cursor.hasNext()) {
+                Assertions.assertEquals(collection.get(i), cursor.next());
+                i++;
+            }
+            Assertions.assertEquals(iterations, i);
+            Assertions.assertThrows(NoSuchElementException.class, () -> cursor.next());
+        }
+
+        cursor.reset();
+        cursor.next();
+        collection.add((double) 1);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> {
+            while (cursor.hasNext()) {
+                cursor.next();
+            }
+        });
+
+        cursor.reset();
+        collection.clean();
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> {
+            while (cursor.hasNext()) {
+                cursor.next();
+            }
+        });
+        cursor.reset();
+        Assertions.assertFalse(cursor.hasNext());
+    }
+
     @Test
     void testHashCode() {
         final PrimitiveDoubleCollection collection1 = new PrimitiveDoubleCollection();
@@ -190,6 +791,524 @@ class PrimitiveDoubleCollectionTest {
         Assertions.assertThrows(IllegalArgumentException.class, () -> collection1.equals("123"));
     }
 
+    @Test
+    void snapshot() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        final PrimitiveDoubleCollection empty = collection.snapshot();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) (i % 100));
+        }
+        Assertions.assertEquals(0, empty.getSize());
+        final double[] expected = collection.toArray();
+        final PrimitiveDoubleCollection snapshot = collection.snapshot();
+        Assertions.assertTrue(snapshot.isReadOnly());
+        Assertions.assertFalse(collection.isReadOnly());
+        Assertions.assertSame(snapshot, snapshot.snapshot());
+
+        // Appends go past the snapshot, set() copies the shared chunk first
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) 1);
+        }
+        for (int i = 0; i < iterations; i = i + 7) {
+            collection.set(i, (double) 42);
+        }
+        Assertions.assertEquals(iterations, snapshot.getSize());
+        Assertions.assertArrayEquals(expected, snapshot.toArray());
+        Assertions.assertEquals((double) 42, collection.get(9996));
+        Assertions.assertEquals((double) 1, collection.get(iterations));
+
+        // A later snapshot shares the copied chunks again
+        final PrimitiveDoubleCollection second = collection.snapshot();
+        collection.set(0, (double) 7);
+        Assertions.assertEquals((double) 42, second.get(0));
+        Assertions.assertEquals((double) 7, collection.get(0));
+
+        snapshot.enableStatistics();
+        snapshot.enablePrefixSums();
+        final PrimitiveDoubleCollection copy = new PrimitiveDoubleCollection();
+        copy.addAll(expected);
+        Assertions.assertEquals(copy.sum(), snapshot.sum());
+        Assertions.assertEquals(copy.max(), snapshot.max());
+        Assertions.assertEquals(copy.rangeSum(10, 5000), snapshot.rangeSum(10, 5000));
+        Assertions.assertEquals(copy, snapshot);
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.add((double) 1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.addAll(expected));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.addAll(copy));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, (double) 1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.ensureCapacity(1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.clean());
+
+        collection.clean();
+        Assertions.assertArrayEquals(expected, snapshot.toArray());
+    }
+
+    @Test
+    void removeAndInsert() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final List<Double> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            collection.add((double) (i % 100));
+            expected.add((double) (i % 100));
+        }
+        final Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            final int index = random.nextInt(expected.size());
+            if (random.nextBoolean()) {
+                Assertions.assertEquals(expected.remove(index), collection.remove(index));
+            } else {
+                final double value = (double) random.nextInt(100);
+                expected.add(index, value);
+                collection.insert(index, value);
+            }
+        }
+        collection.insert(collection.getSize(), (double) 5);
+        expected.add((double) 5);
+        assertSameValues(expected, collection);
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.remove(collection.getSize()));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.insert(-1, (double) 1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.insert(collection.getSize() + 1, (double) 1));
+    }
+
+    @Test
+    void removeRange() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final List<Double> expected = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) (i % 100));
+            expected.add((double) (i % 100));
+        }
+        collection.removeRange(10, 10);
+        collection.removeRange(100, 3000);
+        expected.subList(100, 3000).clear();
+        assertSameValues(expected, collection);
+        collection.removeRange(1024, 2048);
+        expected.subList(1024, 2048).clear();
+        assertSameValues(expected, collection);
+        collection.removeRange(500, collection.getSize());
+        expected.subList(500, expected.size()).clear();
+        assertSameValues(expected, collection);
+
+        // Appends reuse the released chunks
+        for (int i = 0; i < 2000; i++) {
+            collection.add((double) (i % 7));
+            expected.add((double) (i % 7));
+        }
+        assertSameValues(expected, collection);
+        collection.removeRange(0, collection.getSize());
+        Assertions.assertEquals(0, collection.getSize());
+        collection.add((double) 1);
+        Assertions.assertEquals((double) 1, collection.get(0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.removeRange(1, 0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.removeRange(0, 2));
+    }
+
+    @Test
+    void sparseInsertRemove() throws IOException {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection(6);
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final List<Double> expected = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            collection.add((double) (i % 100));
+            expected.add((double) (i % 100));
+        }
+        final Random random = new Random(7);
+        for (int i = 0; i < 3000; i++) {
+            final int index = random.nextInt(expected.size());
+            final int operation = random.nextInt(8);
+            if (operation == 0) {
+                Assertions.assertEquals(expected.remove(index), collection.remove(index));
+            } else if (operation == 1) {
+                final int to = Math.min(expected.size(), index + random.nextInt(16));
+                expected.subList(index, to).clear();
+                collection.removeRange(index, to);
+            } else {
+                final double value = (double) random.nextInt(100);
+                expected.add(index, value);
+                collection.insert(index, value);
+            }
+            if (i % 100 == 0) {
+                Assertions.assertEquals(expected.get(index % expected.size()), collection.get(index % expected.size()));
+                final PrimitiveDoubleCollection dense = new PrimitiveDoubleCollection();
+                for (final double value : expected) {
+                    dense.add(value);
+                }
+                final int from = random.nextInt(expected.size());
+                final int to = expected.size();
+                Assertions.assertEquals(dense.rangeSum(from, to), collection.rangeSum(from, to), 1e-6);
+                Assertions.assertEquals(dense.rangeMax(from, to), collection.rangeMax(from, to));
+                Assertions.assertEquals(dense.findFirstGreaterThan(from, (double) 98),
+                        collection.findFirstGreaterThan(from, (double) 98));
+            }
+        }
+        assertSameValues(expected, collection);
+        final double[] values = new double[expected.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = expected.get(i);
+        }
+        Assertions.assertArrayEquals(values, collection.toArray());
+        final PrimitiveDoubleCollection dense = new PrimitiveDoubleCollection();
+        dense.addAll(values);
+        Assertions.assertArrayEquals(dense.stream().toArray(), collection.stream().toArray());
+        Assertions.assertArrayEquals(dense.stream().toArray(), collection.parallelStream().toArray());
+        // Start widen
+        final Spliterator.OfDouble suffix = collection.spliterator();
+        final Spliterator.OfDouble prefix = suffix.trySplit();
+        // Stop widen
+        Assertions.assertNotNull(prefix);
+        Assertions.assertEquals(values.length, prefix.estimateSize() + suffix.estimateSize());
+
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        collection.writeTo(Channels.newChannel(output));
+        Assertions.assertEquals(collection, PrimitiveDoubleCollection.readFrom(
+                Channels.newChannel(new ByteArrayInputStream(output.toByteArray()))));
+    }
+
+    @Test
+    void sparseSnapshotAndCompact() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection(6);
+        final List<Double> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            collection.add((double) (i % 100));
+            expected.add((double) (i % 100));
+        }
+        final PrimitiveDoubleCollection snapshot = collection.snapshot();
+        final List<Double> snapshotExpected = new ArrayList<>(expected);
+        for (int i = 0; i < 200; i++) {
+            collection.insert(i * 3, (double) 7);
+            expected.add(i * 3, (double) 7);
+        }
+        collection.removeRange(10, 100);
+        expected.subList(10, 100).clear();
+        collection.remove(0);
+        expected.remove(0);
+        for (int i = 0; i < 100; i++) {
+            collection.add((double) 1);
+            expected.add((double) 1);
+        }
+        assertSameValues(expected, collection);
+        assertSameValues(snapshotExpected, snapshot);
+
+        final PrimitiveDoubleCollection sparseSnapshot = collection.snapshot();
+        final List<Double> sparseExpected = new ArrayList<>(expected);
+        collection.set(5, (double) 3);
+        expected.set(5, (double) 3);
+        collection.compact();
+        assertSameValues(expected, collection);
+        assertSameValues(sparseExpected, sparseSnapshot);
+
+        // Removing most values compacts by itself, the sorted collection is dense again
+        collection.insert(1, (double) 2);
+        expected.add(1, (double) 2);
+        collection.removeRange(2, collection.getSize() - 10);
+        expected.subList(2, expected.size() - 10).clear();
+        assertSameValues(expected, collection);
+        collection.removeRange(0, collection.getSize());
+        Assertions.assertEquals(0, collection.getSize());
+        Assertions.assertEquals("[]", collection.toString());
+        collection.add((double) 4);
+        Assertions.assertEquals((double) 4, collection.get(0));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> sparseSnapshot.compact());
+
+        final PrimitiveDoubleCollection sorted = new PrimitiveDoubleCollection(6);
+        for (int i = 0; i < 500; i++) {
+            sorted.add((double) (i / 10));
+        }
+        sorted.insert(5, (double) 0);
+        Assertions.assertEquals((double) 30, sorted.get(sorted.binarySearch((double) 30)));
+        Assertions.assertEquals(-sorted.getSize() - 1, sorted.binarySearch((double) 60));
+    }
+
+    @Test
+    void removeIf() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final List<Double> expected = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) (i % 100));
+            if (i % 100 < 90) {
+                expected.add((double) (i % 100));
+            }
+        }
+        Assertions.assertFalse(collection.removeIf(value -> value > 100));
+        Assertions.assertEquals(iterations, collection.getSize());
+        Assertions.assertTrue(collection.removeIf(value -> value >= 90));
+        assertSameValues(expected, collection);
+
+        // A failing filter keeps the values it did not see
+        final int[] calls = new int[1];
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.removeIf(value -> {
+            calls[0]++;
+            if (calls[0] > 2000) {
+                throw new IllegalStateException();
+            }
+            return value == (double) 0;
+        }));
+        for (int i = 1999; i >= 0; i--) {
+            if (expected.get(i) == (double) 0) {
+                expected.remove(i);
+            }
+        }
+        assertSameValues(expected, collection);
+
+        Assertions.assertTrue(collection.removeIf(value -> true));
+        Assertions.assertEquals(0, collection.getSize());
+    }
+
+    @Test
+    void removeKeepsSnapshot() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        for (int i = 0; i < 3000; i++) {
+            collection.add((double) (i % 100));
+        }
+        final double[] values = collection.toArray();
+        final PrimitiveDoubleCollection snapshot = collection.snapshot();
+        collection.removeRange(2500, 3000);
+        collection.add((double) 42);
+        collection.remove(0);
+        collection.insert(1500, (double) 43);
+        collection.removeIf(value -> value == (double) 1);
+        Assertions.assertArrayEquals(values, snapshot.toArray());
+    }
+
+    private static void assertSameValues(final List<Double> expected, final PrimitiveDoubleCollection collection) {
+        final PrimitiveDoubleCollection copy = new PrimitiveDoubleCollection();
+        for (final double value : expected) {
+            copy.add(value);
+        }
+        Assertions.assertEquals(copy, collection);
+        Assertions.assertEquals(copy.sum(), collection.sum());
+        Assertions.assertEquals(copy.max(), collection.max());
+        Assertions.assertEquals(copy.min(), collection.min());
+        Assertions.assertEquals(copy.prefixSum(copy.getSize()), collection.prefixSum(collection.getSize()));
+        Assertions.assertEquals(copy.rangeSum(1, copy.getSize() - 1), collection.rangeSum(1, collection.getSize() - 1));
+    }
+
+    @Test
+    void sort() {
+        final Random random = new Random(11);
+        for (final int length : new int[]{0, 1, 63, 1024, 5000, 3 * 1024, 9 * 1024 + 17}) {
+            final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+            collection.enableStatistics();
+            collection.enablePrefixSums();
+            final double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = i % 3 == 0 ? (double) random.nextInt(10) : (double) random.nextInt();
+            }
+            collection.addAll(values);
+            Arrays.sort(values);
+            collection.sort();
+            assertSorted(values, collection);
+        }
+    }
+
+    @Test
+    void parallelSort() {
+        final Random random = new Random(12);
+        final double[] values = new double[100_000 + 123];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 3 == 0 ? (double) random.nextInt(10) : (double) random.nextInt();
+        }
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        collection.addAll(values);
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        final PrimitiveDoubleCollection snapshot = collection.snapshot();
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            collection.parallelSort(pool);
+        } finally {
+            pool.shutdown();
+        }
+        Assertions.assertArrayEquals(values, snapshot.toArray());
+        Arrays.sort(values);
+        assertSorted(values, collection);
+
+        final PrimitiveDoubleCollection reversed = new PrimitiveDoubleCollection();
+        for (int i = values.length - 1; i >= 0; i--) {
+            reversed.add(values[i]);
+        }
+        reversed.parallelSort();
+        Assertions.assertArrayEquals(values, reversed.toArray());
+        Assertions.assertThrows(UnsupportedOperationException.class, snapshot::sort);
+    }
+
+    private static void assertSorted(final double[] expected, final PrimitiveDoubleCollection collection) {
+        Assertions.assertArrayEquals(expected, collection.toArray());
+        if (expected.length > 0) {
+            final PrimitiveDoubleCollection copy = new PrimitiveDoubleCollection();
+            copy.addAll(expected);
+            Assertions.assertEquals(expected[0], collection.min());
+            Assertions.assertEquals(expected[expected.length - 1], collection.max());
+            Assertions.assertEquals(copy.sum(), collection.sum());
+            Assertions.assertEquals(copy.rangeSum(1, copy.getSize()), collection.rangeSum(1, collection.getSize()));
+        }
+    }
+
+    @Test
+    void binarySearch() {
+        final Random random = new Random(13);
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        Assertions.assertEquals(-1, collection.binarySearch((double) 1));
+        for (int i = 0; i < 5000; i++) {
+            collection.add((double) random.nextInt());
+        }
+        collection.sort();
+        final double[] values = collection.toArray();
+        for (int i = 0; i < 2000; i++) {
+            final double value = i % 2 == 0 ? values[random.nextInt(values.length)] : (double) random.nextInt();
+            final int expected = Arrays.binarySearch(values, value);
+            final int found = collection.binarySearch(value);
+            if (expected >= 0) {
+                Assertions.assertEquals(value, values[found]);
+            } else {
+                Assertions.assertEquals(expected, found);
+            }
+        }
+        Assertions.assertEquals(values[0], values[collection.binarySearch(values[0])]);
+        Assertions.assertEquals(values[values.length - 1], values[collection.binarySearch(values[values.length - 1])]);
+    }
+
+    @Test
+    void chunkShift() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveDoubleCollection(5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveDoubleCollection(21));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveDoubleCollection(8, 7));
+        Assertions.assertEquals(1024, new PrimitiveDoubleCollection().getChunkSize());
+
+        final PrimitiveDoubleCollection expected = new PrimitiveDoubleCollection();
+        for (int i = 0; i < 5000; i++) {
+            expected.add((double) (i % 100));
+        }
+        for (final int shift : new int[]{6, 9, 12}) {
+            final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection(shift);
+            collection.enableStatistics();
+            collection.enablePrefixSums();
+            for (int i = 0; i < 5000; i++) {
+                collection.add((double) (i % 100));
+            }
+            Assertions.assertEquals(1 << shift, collection.getChunkSize());
+            Assertions.assertEquals((double) 57, collection.get(4957));
+            Assertions.assertEquals(expected, collection);
+            Assertions.assertEquals(collection, expected);
+            Assertions.assertEquals(expected.hashCode(), collection.hashCode());
+            Assertions.assertEquals(expected.sum(), collection.sum());
+            Assertions.assertEquals(expected.rangeSum(70, 4900), collection.rangeSum(70, 4900));
+            Assertions.assertEquals(expected.sum(), collection.stream().sum());
+            Assertions.assertEquals(expected.sum(), collection.parallelStream().sum());
+
+            final PrimitiveDoubleCollection copy = new PrimitiveDoubleCollection();
+            copy.addAll(collection);
+            Assertions.assertEquals(expected, copy);
+            collection.removeRange(100, 4000);
+            collection.sort();
+            Assertions.assertEquals(1100, collection.getSize());
+            Assertions.assertEquals((double) 99, collection.get(1099));
+        }
+    }
+
+    @Test
+    void adaptiveChunks() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection(6, 10);
+        final PrimitiveDoubleCollection expected = new PrimitiveDoubleCollection();
+        collection.enableStatistics();
+        collection.enablePrefixSums();
+        Assertions.assertEquals(64, collection.getChunkSize());
+        PrimitiveDoubleCollection snapshot = null;
+        double[] snapshotValues = null;
+        for (int i = 0; i < 300_000; i++) {
+            collection.add((double) (i % 100));
+            expected.add((double) (i % 100));
+            if (i == 10_000) {
+                Assertions.assertEquals(128, collection.getChunkSize());
+                snapshot = collection.snapshot();
+                snapshotValues = snapshot.toArray();
+            }
+        }
+        Assertions.assertEquals(1024, collection.getChunkSize());
+        Assertions.assertArrayEquals(snapshotValues, snapshot.toArray());
+        Assertions.assertEquals(expected, collection);
+        Assertions.assertEquals(expected.hashCode(), collection.hashCode());
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.max(), collection.max());
+        Assertions.assertEquals(expected.prefixSum(123_457), collection.prefixSum(123_457));
+        Assertions.assertEquals(expected.rangeSum(5, 299_000), collection.rangeSum(5, 299_000));
+
+        // Joins while appending its own values
+        final PrimitiveDoubleCollection doubled = new PrimitiveDoubleCollection(6, 8);
+        doubled.enablePrefixSums();
+        for (int i = 0; i < 3000; i++) {
+            doubled.add((double) (i % 100));
+        }
+        doubled.addAll(doubled);
+        doubled.addAll(doubled);
+        Assertions.assertEquals(128, doubled.getChunkSize());
+        Assertions.assertEquals(12_000, doubled.getSize());
+        for (int i = 0; i < 12_000; i++) {
+            Assertions.assertEquals((double) ((i % 3000) % 100), doubled.get(i));
+        }
+        Assertions.assertEquals(expected.prefixSum(3000) * 4, doubled.prefixSum(12_000));
+    }
+
+    @Test
+    void compactFirstChunk() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        final PrimitiveDoubleCollection empty = collection.snapshot();
+        for (int i = 0; i < 10; i++) {
+            collection.add((double) i);
+        }
+        final PrimitiveDoubleCollection snapshot = collection.snapshot();
+        collection.trimToSize();
+        collection.set(0, (double) 42);
+        collection.add((double) 10);
+        Assertions.assertEquals(0, empty.getSize());
+        Assertions.assertEquals(10, snapshot.getSize());
+        Assertions.assertEquals((double) 0, snapshot.get(0));
+        Assertions.assertEquals((double) 42, collection.get(0));
+        Assertions.assertEquals((double) 10, collection.get(10));
+
+        final double[] values = new double[3000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (double) (i % 100);
+        }
+        collection.addAll(values, 0, 5);
+        collection.addAll(values);
+        Assertions.assertEquals(3016, collection.getSize());
+        for (int i = 0; i < values.length; i++) {
+            Assertions.assertEquals(values[i], collection.get(16 + i));
+        }
+
+        collection.clean();
+        collection.trimToSize();
+        collection.ensureCapacity(7);
+        collection.add((double) 1);
+        collection.insert(0, (double) 2);
+        Assertions.assertArrayEquals(new double[]{(double) 2, (double) 1}, collection.toArray());
+    }
+
+    @Test
+    void compactFootprint() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        final long empty = GraphLayout.parseInstance(collection).totalSize();
+        Assertions.assertTrue(empty < 256, "Empty collection takes " + empty + " bytes");
+        for (int i = 0; i < 20; i++) {
+            collection.add((double) i);
+        }
+        // The flat first chunk has room for at most twice its values
+        final long small = GraphLayout.parseInstance(collection).totalSize();
+        Assertions.assertTrue(small <= empty + 2 * 20 * Double.BYTES + 24, "20 values take " + small + " bytes");
+        collection.trimToSize();
+        final long trimmed = GraphLayout.parseInstance(collection).totalSize();
+        Assertions.assertTrue(trimmed <= empty + 20 * Double.BYTES + 24, "Trimmed 20 values take " + trimmed + " bytes");
+    }
+
     @Test
     void testClone() {
         final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
@@ -205,4 +1324,18 @@ class PrimitiveDoubleCollectionTest {
         }
         Assertions.assertNotNull(collection.toString());
     }
+
+    @Test
+    void snapshotToString() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        Assertions.assertEquals("[]", collection.toString());
+        collection.add((double) 1);
+        collection.add((double) 2);
+        collection.add((double) 3);
+        final PrimitiveDoubleCollection snapshot = collection.snapshot();
+        collection.add((double) 4);
+        Assertions.assertEquals("[" + Arrays.toString(new double[]{(double) 1, (double) 2, (double) 3}) + "]",
+                snapshot.toString());
+        Assertions.assertEquals("[" + Arrays.toString(collection.toArray()) + "]", collection.toString());
+    }
 }
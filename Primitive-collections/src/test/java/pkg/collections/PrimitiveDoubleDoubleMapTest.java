@@ -0,0 +1,134 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+class PrimitiveDoubleDoubleMapTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void putGetRemove() {
+        final PrimitiveDoubleDoubleMap map = new PrimitiveDoubleDoubleMap(0);
+        final Map<Double, Double> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final double key = (double) (random.nextInt(100) - 50);
+            final double value = (double) random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.put(key, value);
+                map.put(key, value);
+            }
+            Assertions.assertEquals(expected.size(), map.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            final double key = (double) i;
+            Assertions.assertEquals(expected.containsKey(key), map.containsKey(key));
+            if (expected.containsKey(key)) {
+                Assertions.assertEquals(expected.get(key), map.get(key));
+                Assertions.assertEquals(expected.get(key), map.getOrDefault(key, (double) -1));
+            } else {
+                Assertions.assertThrows(NoSuchElementException.class, () -> map.get(key));
+                Assertions.assertEquals((double) -1, map.getOrDefault(key, (double) -1));
+            }
+        }
+    }
+
+    @Test
+    void addTo() {
+        final PrimitiveDoubleDoubleMap map = new PrimitiveDoubleDoubleMap();
+        for (int i = 0; i < 1000; i++) {
+            map.addTo((double) (i % 10), (double) 1);
+        }
+        Assertions.assertEquals(10, map.getSize());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals((double) 100, map.get((double) i));
+        }
+        Assertions.assertEquals((double) 105, map.addTo((double) 0, (double) 5));
+        Assertions.assertEquals((double) 3, map.addTo((double) 42, (double) 3));
+    }
+
+    @Test
+    void putAll() {
+        final PrimitiveDoubleCollection keys = new PrimitiveDoubleCollection();
+        final PrimitiveDoubleCollection values = new PrimitiveDoubleCollection();
+        for (int i = 0; i < iterations; i++) {
+            keys.add((double) (i % 100 - 50));
+            values.add((double) (i % 7));
+        }
+        final PrimitiveDoubleDoubleMap map = new PrimitiveDoubleDoubleMap();
+        map.putAll(keys, values);
+        Assertions.assertEquals(100, map.getSize());
+        for (int i = iterations - 100; i < iterations; i++) {
+            Assertions.assertEquals((double) (i % 7), map.get((double) (i % 100 - 50)));
+        }
+        values.add((double) 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.putAll(keys, values));
+    }
+
+    @Test
+    void cursor() {
+        final PrimitiveDoubleDoubleMap map = new PrimitiveDoubleDoubleMap();
+        final PrimitiveDoubleDoubleMap.Cursor empty = map.cursor();
+        Assertions.assertFalse(empty.next());
+        Assertions.assertThrows(NoSuchElementException.class, () -> empty.key());
+        for (int i = 0; i < 100; i++) {
+            map.put((double) (i - 50), (double) (i % 10));
+        }
+        final Map<Double, Double> visited = new HashMap<>();
+        final PrimitiveDoubleDoubleMap.Cursor cursor = map.cursor();
+        Assertions.assertThrows(NoSuchElementException.class, () -> cursor.value());
+        while (cursor.next()) {
+            Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+        }
+        Assertions.assertFalse(cursor.next());
+        Assertions.assertEquals(100, visited.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((double) (i % 10), visited.get((double) (i - 50)));
+        }
+
+        final PrimitiveDoubleDoubleMap.Cursor stale = map.cursor();
+        map.remove((double) 1);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> stale.next());
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveDoubleDoubleMap map = new PrimitiveDoubleDoubleMap();
+        for (int i = 0; i < 100; i++) {
+            map.put((double) (i - 50), (double) 1);
+        }
+        map.clean();
+        Assertions.assertEquals(0, map.getSize());
+        Assertions.assertFalse(map.containsKey((double) 0));
+        Assertions.assertFalse(map.containsKey((double) 1));
+        Assertions.assertFalse(map.cursor().next());
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveDoubleDoubleMap(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveDoubleDoubleMap(16, 1.5f));
+        final PrimitiveDoubleDoubleMap dense = new PrimitiveDoubleDoubleMap(0, 0.99f);
+        for (int i = 0; i < 100; i++) {
+            dense.put((double) (i - 50), (double) i);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((double) i, dense.get((double) (i - 50)));
+        }
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveDoubleDoubleMap map = new PrimitiveDoubleDoubleMap();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> map.clone());
+    }
+}
@@ -0,0 +1,179 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class PrimitiveDoubleMappedCollectionTest {
+
+    // Small chunks to cross several chunk boundaries
+    private final int shift = 10;
+    private final int iterations = 5_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void addAndGet() throws IOException {
+        try (PrimitiveDoubleMappedCollection collection = PrimitiveDoubleMappedCollection.create(directory.resolve("data"), shift)) {
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertEquals(i, collection.getSize());
+                collection.add(i * 0.5);
+            }
+            Assertions.assertEquals(iterations, collection.getSize());
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertEquals(i * 0.5, collection.get(i));
+            }
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(-1));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(iterations));
+        }
+    }
+
+    @Test
+    void set() throws IOException {
+        try (PrimitiveDoubleMappedCollection collection = PrimitiveDoubleMappedCollection.create(directory.resolve("data"), shift)) {
+            for (int i = 0; i < iterations; i++) {
+                collection.add(i);
+            }
+            for (int i = 0; i < iterations; i++) {
+                collection.set(i, -i);
+            }
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertEquals(-i, collection.get(i));
+            }
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.set(iterations, 1));
+        }
+    }
+
+    @Test
+    void reopen() throws IOException {
+        final Path path = directory.resolve("data");
+        try (PrimitiveDoubleMappedCollection collection = PrimitiveDoubleMappedCollection.create(path, shift)) {
+            for (int i = 0; i < iterations; i++) {
+                collection.add(i);
+            }
+        }
+        try (PrimitiveDoubleMappedCollection collection = PrimitiveDoubleMappedCollection.open(path)) {
+            Assertions.assertEquals(iterations, collection.getSize());
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertEquals(i, collection.get(i));
+            }
+            collection.add(-1);
+            collection.set(0, 42);
+        }
+        try (PrimitiveDoubleMappedCollection collection = PrimitiveDoubleMappedCollection.open(path, true)) {
+            Assertions.assertEquals(iterations + 1, collection.getSize());
+            Assertions.assertEquals(42, collection.get(0));
+            Assertions.assertEquals(-1, collection.get(iterations));
+        }
+    }
+
+    @Test
+    void force() throws IOException {
+        final Path path = directory.resolve("data");
+        try (PrimitiveDoubleMappedCollection writer = PrimitiveDoubleMappedCollection.create(path, shift)) {
+            for (int i = 0; i < iterations; i++) {
+                writer.add(i);
+            }
+            try (PrimitiveDoubleMappedCollection reader = PrimitiveDoubleMappedCollection.open(path, true)) {
+                Assertions.assertEquals(0, reader.getSize());
+            }
+            writer.force();
+            try (PrimitiveDoubleMappedCollection reader = PrimitiveDoubleMappedCollection.open(path, true)) {
+                Assertions.assertEquals(iterations, reader.getSize());
+                Assertions.assertEquals(iterations - 1, reader.get(iterations - 1));
+            }
+        }
+    }
+
+    @Test
+    void readOnly() throws IOException {
+        final Path path = directory.resolve("data");
+        PrimitiveDoubleMappedCollection.create(path, shift).close();
+        try (PrimitiveDoubleMappedCollection collection = PrimitiveDoubleMappedCollection.open(path, true)) {
+            Assertions.assertTrue(collection.isReadOnly());
+            Assertions.assertEquals(0, collection.getSize());
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> collection.add(1));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> collection.set(0, 1));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> collection.force());
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
+        }
+    }
+
+    @Test
+    void reductions() throws IOException {
+        try (PrimitiveDoubleMappedCollection collection = PrimitiveDoubleMappedCollection.create(directory.resolve("data"), shift)) {
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.average());
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.max());
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.min());
+            long sum = 0;
+            for (int i = 0; i < iterations; i++) {
+                collection.add(i % 100);
+                sum = sum + i % 100;
+            }
+            Assertions.assertEquals(sum, collection.sum());
+            Assertions.assertEquals(sum / (iterations * 1.0), collection.average());
+            Assertions.assertEquals(99, collection.max());
+            Assertions.assertEquals(0, collection.min());
+        }
+    }
+
+    @Test
+    void create() throws IOException {
+        final Path path = directory.resolve("data");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> PrimitiveDoubleMappedCollection.create(path, 5));
+        Assertions.assertFalse(Files.exists(path));
+        PrimitiveDoubleMappedCollection.create(path).close();
+        Assertions.assertThrows(FileAlreadyExistsException.class, () -> PrimitiveDoubleMappedCollection.create(path));
+    }
+
+    @Test
+    void header() throws IOException {
+        final Path path = directory.resolve("data");
+        Files.write(path, new byte[10]);
+        Assertions.assertThrows(IOException.class, () -> PrimitiveDoubleMappedCollection.open(path));
+
+        Files.write(path, new byte[PrimitiveDoubleMappedCollection.HEADER_SIZE]);
+        Assertions.assertThrows(IOException.class, () -> PrimitiveDoubleMappedCollection.open(path));
+
+        Files.delete(path);
+        PrimitiveDoubleMappedCollection.create(path, shift).close();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            // Element count beyond the end of the file
+            channel.write((ByteBuffer) ByteBuffer.allocate(8).putLong(0, 1_000_000).position(0), 16);
+        }
+        Assertions.assertThrows(IOException.class, () -> PrimitiveDoubleMappedCollection.open(path, true));
+    }
+
+    @Test
+    void close() throws IOException {
+        final PrimitiveDoubleMappedCollection collection = PrimitiveDoubleMappedCollection.create(directory.resolve("data"), shift);
+        collection.add(1);
+        Assertions.assertFalse(collection.isClosed());
+        collection.close();
+        Assertions.assertTrue(collection.isClosed());
+        collection.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.getSize());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.get(0));
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.add(1));
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.force());
+        Assertions.assertNotNull(collection.toString());
+    }
+
+    @Test
+    void testClone() throws IOException {
+        try (PrimitiveDoubleMappedCollection collection = PrimitiveDoubleMappedCollection.create(directory.resolve("data"), shift)) {
+            Assertions.assertThrows(CloneNotSupportedException.class, () -> collection.clone());
+        }
+    }
+}
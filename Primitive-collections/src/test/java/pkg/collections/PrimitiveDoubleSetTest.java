@@ -0,0 +1,124 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class PrimitiveDoubleSetTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void addContainsRemove() {
+        final PrimitiveDoubleSet set = new PrimitiveDoubleSet(0);
+        final Set<Double> expected = new HashSet<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final double value = (double) (random.nextInt(100) - 50);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                Assertions.assertEquals(expected.add(value), set.add(value));
+            }
+            Assertions.assertEquals(expected.size(), set.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            Assertions.assertEquals(expected.contains((double) i), set.contains((double) i));
+        }
+    }
+
+    @Test
+    void zero() {
+        final PrimitiveDoubleSet set = new PrimitiveDoubleSet();
+        Assertions.assertFalse(set.contains((double) 0));
+        Assertions.assertTrue(set.add((double) 0));
+        Assertions.assertFalse(set.add((double) 0));
+        Assertions.assertTrue(set.contains((double) 0));
+        Assertions.assertEquals(1, set.getSize());
+        Assertions.assertArrayEquals(new double[]{(double) 0}, set.toArray());
+        Assertions.assertTrue(set.remove((double) 0));
+        Assertions.assertFalse(set.remove((double) 0));
+        Assertions.assertEquals(0, set.getSize());
+    }
+
+    @Test
+    void addAll() {
+        final PrimitiveDoubleCollection collection = new PrimitiveDoubleCollection();
+        final double[] values = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            values[i] = (double) (i % 100 - 50);
+            collection.add(values[i]);
+        }
+        final PrimitiveDoubleSet fromCollection = new PrimitiveDoubleSet();
+        fromCollection.addAll(collection);
+        final PrimitiveDoubleSet fromArray = new PrimitiveDoubleSet();
+        fromArray.addAll(values);
+        Assertions.assertEquals(100, fromCollection.getSize());
+        Assertions.assertEquals(100, fromArray.getSize());
+
+        final double[] expected = new double[100];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = (double) (i - 50);
+        }
+        final double[] actual = fromCollection.toArray();
+        Arrays.sort(actual);
+        Assertions.assertArrayEquals(expected, actual);
+        final PrimitiveDoubleCollection visited = new PrimitiveDoubleCollection();
+        fromArray.forEach(visited::add);
+        final double[] visitedValues = visited.toArray();
+        Arrays.sort(visitedValues);
+        Assertions.assertArrayEquals(expected, visitedValues);
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveDoubleSet set = new PrimitiveDoubleSet();
+        for (int i = 0; i < 100; i++) {
+            set.add((double) (i - 50));
+        }
+        set.clean();
+        Assertions.assertEquals(0, set.getSize());
+        Assertions.assertEquals(0, set.toArray().length);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertFalse(set.contains((double) (i - 50)));
+        }
+        Assertions.assertTrue(set.add((double) 3));
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveDoubleSet(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveDoubleSet(16, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveDoubleSet(16, Float.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveDoubleSet(-1));
+        final PrimitiveDoubleSet dense = new PrimitiveDoubleSet(0, 0.99f);
+        final PrimitiveDoubleSet sparse = new PrimitiveDoubleSet(0, 0.1f);
+        for (int i = 0; i < 100; i++) {
+            dense.add((double) (i - 50));
+            sparse.add((double) (i - 50));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(dense.contains((double) (i - 50)));
+            Assertions.assertTrue(sparse.contains((double) (i - 50)));
+        }
+    }
+
+    @Test
+    void forEachFailFast() {
+        final PrimitiveDoubleSet set = new PrimitiveDoubleSet();
+        set.add((double) 1);
+        set.add((double) 2);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> set.forEach(value -> set.add((double) 3)));
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveDoubleSet set = new PrimitiveDoubleSet();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> set.clone());
+    }
+}
@@ -0,0 +1,132 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+class PrimitiveDoubleStampedCollectionTest {
+
+    private final int iterations = 10_000;
+    private final int readers = 4;
+
+    @Test
+    void addGetAndSet() {
+        final PrimitiveDoubleStampedCollection collection = new PrimitiveDoubleStampedCollection();
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(i, collection.getSize());
+            collection.add((double) i);
+            Assertions.assertEquals((double) i, collection.get(i));
+        }
+        for (int i = 0; i < iterations; i++) {
+            collection.set(i, (double) (i % 100));
+        }
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals((double) (i % 100), collection.get(i));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(-1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(iterations));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.set(iterations, (double) 1));
+
+        collection.clean();
+        Assertions.assertEquals(0, collection.getSize());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
+    }
+
+    @Test
+    void addAll() {
+        final PrimitiveDoubleStampedCollection collection = new PrimitiveDoubleStampedCollection();
+        final double[] source = new double[3000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (double) (i % 100);
+        }
+        collection.add((double) -1);
+        collection.addAll(source, 10, 2500);
+        collection.addAll(source);
+        Assertions.assertEquals(5501, collection.getSize());
+        Assertions.assertEquals((double) -1, collection.get(0));
+        for (int i = 0; i < 2500; i++) {
+            Assertions.assertEquals(source[i + 10], collection.get(i + 1));
+        }
+        for (int i = 0; i < source.length; i++) {
+            Assertions.assertEquals(source[i], collection.get(i + 2501));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.addAll(source, 2000, 1001));
+    }
+
+    @Test
+    void reductions() {
+        final PrimitiveDoubleStampedCollection collection = new PrimitiveDoubleStampedCollection();
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.average());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.max());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.min());
+        final PrimitiveDoubleCollection expected = new PrimitiveDoubleCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) (i % 100 - 50));
+            expected.add((double) (i % 100 - 50));
+        }
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.average(), collection.average());
+        Assertions.assertEquals(expected.max(), collection.max());
+        Assertions.assertEquals(expected.min(), collection.min());
+        final PrimitiveDoubleCollection copy = new PrimitiveDoubleCollection();
+        collection.forEach(copy::add);
+        Assertions.assertEquals(expected, copy);
+    }
+
+    @Test
+    void readersWithWriter() throws InterruptedException {
+        final PrimitiveDoubleStampedCollection collection = new PrimitiveDoubleStampedCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((double) 1);
+        }
+        collection.set(5, (double) 3);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < readers; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (!done.get()) {
+                        // The writer keeps a 3 at index 5 or 6 (or both) and appends 1s
+                        final double value = collection.get(5);
+                        Assertions.assertTrue(value == (double) 1 || value == (double) 3);
+                        Assertions.assertEquals((double) 3, collection.max());
+                        Assertions.assertEquals((double) 1, collection.min());
+                        Assertions.assertTrue(collection.sum() >= iterations + 2);
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (int i = 0; i < iterations; i++) {
+            collection.set(6, (double) 3);
+            collection.set(5, (double) 1);
+            collection.set(5, (double) 3);
+            collection.set(6, (double) 1);
+            collection.add((double) 1);
+        }
+        done.set(true);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertNull(failure.get());
+        Assertions.assertEquals(2 * iterations, collection.getSize());
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveDoubleStampedCollection collection = new PrimitiveDoubleStampedCollection();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> collection.clone());
+    }
+}
@@ -0,0 +1,155 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+class PrimitiveDoubleXorCollectionTest {
+
+    private final int iterations = 10_000;
+
+    // Slowly changing readings with two decimals
+    private double[] readings() {
+        final Random random = new Random(1);
+        final double[] values = new double[iterations];
+        double value = 20;
+        for (int i = 0; i < iterations; i++) {
+            if (random.nextInt(4) == 0) {
+                value = value + (double) (random.nextInt(21) - 10) / 100;
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+
+    private PrimitiveDoubleXorCollection collection(final double[] values) {
+        final PrimitiveDoubleXorCollection collection = new PrimitiveDoubleXorCollection();
+        for (final double value : values) {
+            collection.add(value);
+        }
+        return collection;
+    }
+
+    @Test
+    void addAndGet() {
+        final double[] values = readings();
+        final PrimitiveDoubleXorCollection collection = new PrimitiveDoubleXorCollection();
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(i, collection.getSize());
+            collection.add(values[i]);
+        }
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(values[i], collection.get(i));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(-1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(iterations));
+    }
+
+    @Test
+    void specialValues() {
+        final Random random = new Random(2);
+        final double[] values = new double[iterations];
+        final double[] special = {0, -(double) 0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (int i = 0; i < iterations; i++) {
+            values[i] = i % 3 == 0 ? special[random.nextInt(special.length)] : (double) random.nextInt();
+        }
+        final PrimitiveDoubleXorCollection collection = collection(values);
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(values[i], collection.get(i));
+        }
+    }
+
+    @Test
+    void set() {
+        final double[] values = readings();
+        final PrimitiveDoubleXorCollection collection = collection(values);
+        for (int i = 0; i < iterations; i = i + 7) {
+            collection.set(i, (double) -i);
+            values[i] = (double) -i;
+        }
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(values[i], collection.get(i));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.set(iterations, (double) 1));
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveDoubleXorCollection collection = collection(readings());
+        collection.clean();
+        Assertions.assertEquals(0, collection.getSize());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
+        collection.add((double) 5);
+        Assertions.assertEquals((double) 5, collection.get(0));
+    }
+
+    @Test
+    void reductions() {
+        final double[] values = readings();
+        final PrimitiveDoubleXorCollection collection = new PrimitiveDoubleXorCollection();
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.max());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.min());
+        final PrimitiveDoubleCollection expected = new PrimitiveDoubleCollection();
+        for (final double value : values) {
+            collection.add(value);
+            expected.add(value);
+        }
+        Assertions.assertEquals(expected.sum(), collection.sum(), Math.abs(expected.sum()) * 1e-9);
+        Assertions.assertEquals(expected.average(), collection.average(), Math.abs(expected.average()) * 1e-9);
+        Assertions.assertEquals(expected.max(), collection.max());
+        Assertions.assertEquals(expected.min(), collection.min());
+    }
+
+    @Test
+    void forEach() {
+        final double[] values = readings();
+        final PrimitiveDoubleXorCollection collection = collection(values);
+        final int[] index = new int[1];
+        collection.forEach(value -> {
+            Assertions.assertEquals(values[index[0]], value);
+            index[0]++;
+        });
+        Assertions.assertEquals(iterations, index[0]);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> collection.forEach(value -> collection.add(value)));
+    }
+
+    @Test
+    void cursor() {
+        final double[] values = readings();
+        final PrimitiveDoubleXorCollection collection = collection(values);
+        final PrimitiveDoubleXorCollection.Cursor cursor = collection.cursor();
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertTrue(cursor.hasNext());
+                Assertions.assertEquals(values[i], cursor.next());
+            }
+            Assertions.assertFalse(cursor.hasNext());
+            Assertions.assertThrows(NoSuchElementException.class, () -> cursor.next());
+            cursor.reset();
+        }
+        collection.add((double) 1);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> cursor.next());
+    }
+
+    @Test
+    void sizeInBytes() {
+        final PrimitiveDoubleXorCollection collection = collection(readings());
+        Assertions.assertTrue(collection.sizeInBytes() < (long) iterations * Double.BYTES / 2);
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveDoubleXorCollection collection = new PrimitiveDoubleXorCollection();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> collection.clone());
+    }
+
+    @Test
+    void testToString() {
+        Assertions.assertNotNull(collection(readings()).toString());
+    }
+}
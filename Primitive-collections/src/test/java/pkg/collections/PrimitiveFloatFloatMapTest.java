@@ -0,0 +1,134 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+class PrimitiveFloatFloatMapTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void putGetRemove() {
+        final PrimitiveFloatFloatMap map = new PrimitiveFloatFloatMap(0);
+        final Map<Float, Float> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final float key = (float) (random.nextInt(100) - 50);
+            final float value = (float) random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.put(key, value);
+                map.put(key, value);
+            }
+            Assertions.assertEquals(expected.size(), map.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            final float key = (float) i;
+            Assertions.assertEquals(expected.containsKey(key), map.containsKey(key));
+            if (expected.containsKey(key)) {
+                Assertions.assertEquals(expected.get(key), map.get(key));
+                Assertions.assertEquals(expected.get(key), map.getOrDefault(key, (float) -1));
+            } else {
+                Assertions.assertThrows(NoSuchElementException.class, () -> map.get(key));
+                Assertions.assertEquals((float) -1, map.getOrDefault(key, (float) -1));
+            }
+        }
+    }
+
+    @Test
+    void addTo() {
+        final PrimitiveFloatFloatMap map = new PrimitiveFloatFloatMap();
+        for (int i = 0; i < 1000; i++) {
+            map.addTo((float) (i % 10), (float) 1);
+        }
+        Assertions.assertEquals(10, map.getSize());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals((float) 100, map.get((float) i));
+        }
+        Assertions.assertEquals((float) 105, map.addTo((float) 0, (float) 5));
+        Assertions.assertEquals((float) 3, map.addTo((float) 42, (float) 3));
+    }
+
+    @Test
+    void putAll() {
+        final PrimitiveFloatCollection keys = new PrimitiveFloatCollection();
+        final PrimitiveFloatCollection values = new PrimitiveFloatCollection();
+        for (int i = 0; i < iterations; i++) {
+            keys.add((float) (i % 100 - 50));
+            values.add((float) (i % 7));
+        }
+        final PrimitiveFloatFloatMap map = new PrimitiveFloatFloatMap();
+        map.putAll(keys, values);
+        Assertions.assertEquals(100, map.getSize());
+        for (int i = iterations - 100; i < iterations; i++) {
+            Assertions.assertEquals((float) (i % 7), map.get((float) (i % 100 - 50)));
+        }
+        values.add((float) 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.putAll(keys, values));
+    }
+
+    @Test
+    void cursor() {
+        final PrimitiveFloatFloatMap map = new PrimitiveFloatFloatMap();
+        final PrimitiveFloatFloatMap.Cursor empty = map.cursor();
+        Assertions.assertFalse(empty.next());
+        Assertions.assertThrows(NoSuchElementException.class, () -> empty.key());
+        for (int i = 0; i < 100; i++) {
+            map.put((float) (i - 50), (float) (i % 10));
+        }
+        final Map<Float, Float> visited = new HashMap<>();
+        final PrimitiveFloatFloatMap.Cursor cursor = map.cursor();
+        Assertions.assertThrows(NoSuchElementException.class, () -> cursor.value());
+        while (cursor.next()) {
+            Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+        }
+        Assertions.assertFalse(cursor.next());
+        Assertions.assertEquals(100, visited.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((float) (i % 10), visited.get((float) (i - 50)));
+        }
+
+        final PrimitiveFloatFloatMap.Cursor stale = map.cursor();
+        map.remove((float) 1);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> stale.next());
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveFloatFloatMap map = new PrimitiveFloatFloatMap();
+        for (int i = 0; i < 100; i++) {
+            map.put((float) (i - 50), (float) 1);
+        }
+        map.clean();
+        Assertions.assertEquals(0, map.getSize());
+        Assertions.assertFalse(map.containsKey((float) 0));
+        Assertions.assertFalse(map.containsKey((float) 1));
+        Assertions.assertFalse(map.cursor().next());
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveFloatFloatMap(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveFloatFloatMap(16, 1.5f));
+        final PrimitiveFloatFloatMap dense = new PrimitiveFloatFloatMap(0, 0.99f);
+        for (int i = 0; i < 100; i++) {
+            dense.put((float) (i - 50), (float) i);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((float) i, dense.get((float) (i - 50)));
+        }
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveFloatFloatMap map = new PrimitiveFloatFloatMap();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> map.clone());
+    }
+}
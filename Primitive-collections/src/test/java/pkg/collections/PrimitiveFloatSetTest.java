@@ -0,0 +1,124 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class PrimitiveFloatSetTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void addContainsRemove() {
+        final PrimitiveFloatSet set = new PrimitiveFloatSet(0);
+        final Set<Float> expected = new HashSet<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final float value = (float) (random.nextInt(100) - 50);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                Assertions.assertEquals(expected.add(value), set.add(value));
+            }
+            Assertions.assertEquals(expected.size(), set.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            Assertions.assertEquals(expected.contains((float) i), set.contains((float) i));
+        }
+    }
+
+    @Test
+    void zero() {
+        final PrimitiveFloatSet set = new PrimitiveFloatSet();
+        Assertions.assertFalse(set.contains((float) 0));
+        Assertions.assertTrue(set.add((float) 0));
+        Assertions.assertFalse(set.add((float) 0));
+        Assertions.assertTrue(set.contains((float) 0));
+        Assertions.assertEquals(1, set.getSize());
+        Assertions.assertArrayEquals(new float[]{(float) 0}, set.toArray());
+        Assertions.assertTrue(set.remove((float) 0));
+        Assertions.assertFalse(set.remove((float) 0));
+        Assertions.assertEquals(0, set.getSize());
+    }
+
+    @Test
+    void addAll() {
+        final PrimitiveFloatCollection collection = new PrimitiveFloatCollection();
+        final float[] values = new float[iterations];
+        for (int i = 0; i < iterations; i++) {
+            values[i] = (float) (i % 100 - 50);
+            collection.add(values[i]);
+        }
+        final PrimitiveFloatSet fromCollection = new PrimitiveFloatSet();
+        fromCollection.addAll(collection);
+        final PrimitiveFloatSet fromArray = new PrimitiveFloatSet();
+        fromArray.addAll(values);
+        Assertions.assertEquals(100, fromCollection.getSize());
+        Assertions.assertEquals(100, fromArray.getSize());
+
+        final float[] expected = new float[100];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = (float) (i - 50);
+        }
+        final float[] actual = fromCollection.toArray();
+        Arrays.sort(actual);
+        Assertions.assertArrayEquals(expected, actual);
+        final PrimitiveFloatCollection visited = new PrimitiveFloatCollection();
+        fromArray.forEach(visited::add);
+        final float[] visitedValues = visited.toArray();
+        Arrays.sort(visitedValues);
+        Assertions.assertArrayEquals(expected, visitedValues);
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveFloatSet set = new PrimitiveFloatSet();
+        for (int i = 0; i < 100; i++) {
+            set.add((float) (i - 50));
+        }
+        set.clean();
+        Assertions.assertEquals(0, set.getSize());
+        Assertions.assertEquals(0, set.toArray().length);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertFalse(set.contains((float) (i - 50)));
+        }
+        Assertions.assertTrue(set.add((float) 3));
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveFloatSet(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveFloatSet(16, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveFloatSet(16, Float.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveFloatSet(-1));
+        final PrimitiveFloatSet dense = new PrimitiveFloatSet(0, 0.99f);
+        final PrimitiveFloatSet sparse = new PrimitiveFloatSet(0, 0.1f);
+        for (int i = 0; i < 100; i++) {
+            dense.add((float) (i - 50));
+            sparse.add((float) (i - 50));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(dense.contains((float) (i - 50)));
+            Assertions.assertTrue(sparse.contains((float) (i - 50)));
+        }
+    }
+
+    @Test
+    void forEachFailFast() {
+        final PrimitiveFloatSet set = new PrimitiveFloatSet();
+        set.add((float) 1);
+        set.add((float) 2);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> set.forEach(value -> set.add((float) 3)));
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveFloatSet set = new PrimitiveFloatSet();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> set.clone());
+    }
+}
@@ -0,0 +1,132 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+class PrimitiveFloatStampedCollectionTest {
+
+    private final int iterations = 10_000;
+    private final int readers = 4;
+
+    @Test
+    void addGetAndSet() {
+        final PrimitiveFloatStampedCollection collection = new PrimitiveFloatStampedCollection();
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(i, collection.getSize());
+            collection.add((float) i);
+            Assertions.assertEquals((float) i, collection.get(i));
+        }
+        for (int i = 0; i < iterations; i++) {
+            collection.set(i, (float) (i % 100));
+        }
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals((float) (i % 100), collection.get(i));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(-1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(iterations));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.set(iterations, (float) 1));
+
+        collection.clean();
+        Assertions.assertEquals(0, collection.getSize());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
+    }
+
+    @Test
+    void addAll() {
+        final PrimitiveFloatStampedCollection collection = new PrimitiveFloatStampedCollection();
+        final float[] source = new float[3000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (float) (i % 100);
+        }
+        collection.add((float) -1);
+        collection.addAll(source, 10, 2500);
+        collection.addAll(source);
+        Assertions.assertEquals(5501, collection.getSize());
+        Assertions.assertEquals((float) -1, collection.get(0));
+        for (int i = 0; i < 2500; i++) {
+            Assertions.assertEquals(source[i + 10], collection.get(i + 1));
+        }
+        for (int i = 0; i < source.length; i++) {
+            Assertions.assertEquals(source[i], collection.get(i + 2501));
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.addAll(source, 2000, 1001));
+    }
+
+    @Test
+    void reductions() {
+        final PrimitiveFloatStampedCollection collection = new PrimitiveFloatStampedCollection();
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.average());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.max());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.min());
+        final PrimitiveFloatCollection expected = new PrimitiveFloatCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((float) (i % 100 - 50));
+            expected.add((float) (i % 100 - 50));
+        }
+        Assertions.assertEquals(expected.sum(), collection.sum());
+        Assertions.assertEquals(expected.average(), collection.average());
+        Assertions.assertEquals(expected.max(), collection.max());
+        Assertions.assertEquals(expected.min(), collection.min());
+        final PrimitiveFloatCollection copy = new PrimitiveFloatCollection();
+        collection.forEach(copy::add);
+        Assertions.assertEquals(expected, copy);
+    }
+
+    @Test
+    void readersWithWriter() throws InterruptedException {
+        final PrimitiveFloatStampedCollection collection = new PrimitiveFloatStampedCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add((float) 1);
+        }
+        collection.set(5, (float) 3);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < readers; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (!done.get()) {
+                        // The writer keeps a 3 at index 5 or 6 (or both) and appends 1s
+                        final float value = collection.get(5);
+                        Assertions.assertTrue(value == (float) 1 || value == (float) 3);
+                        Assertions.assertEquals((float) 3, collection.max());
+                        Assertions.assertEquals((float) 1, collection.min());
+                        Assertions.assertTrue(collection.sum() >= iterations + 2);
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (int i = 0; i < iterations; i++) {
+            collection.set(6, (float) 3);
+            collection.set(5, (float) 1);
+            collection.set(5, (float) 3);
+            collection.set(6, (float) 1);
+            collection.add((float) 1);
+        }
+        done.set(true);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertNull(failure.get());
+        Assertions.assertEquals(2 * iterations, collection.getSize());
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveFloatStampedCollection collection = new PrimitiveFloatStampedCollection();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> collection.clone());
+    }
+}
@@ -0,0 +1,134 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+class PrimitiveIntIntMapTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void putGetRemove() {
+        final PrimitiveIntIntMap map = new PrimitiveIntIntMap(0);
+        final Map<Integer, Integer> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final int key = (int) (random.nextInt(100) - 50);
+            final int value = (int) random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.put(key, value);
+                map.put(key, value);
+            }
+            Assertions.assertEquals(expected.size(), map.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            final int key = (int) i;
+            Assertions.assertEquals(expected.containsKey(key), map.containsKey(key));
+            if (expected.containsKey(key)) {
+                Assertions.assertEquals(expected.get(key), map.get(key));
+                Assertions.assertEquals(expected.get(key), map.getOrDefault(key, (int) -1));
+            } else {
+                Assertions.assertThrows(NoSuchElementException.class, () -> map.get(key));
+                Assertions.assertEquals((int) -1, map.getOrDefault(key, (int) -1));
+            }
+        }
+    }
+
+    @Test
+    void addTo() {
+        final PrimitiveIntIntMap map = new PrimitiveIntIntMap();
+        for (int i = 0; i < 1000; i++) {
+            map.addTo((int) (i % 10), (int) 1);
+        }
+        Assertions.assertEquals(10, map.getSize());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals((int) 100, map.get((int) i));
+        }
+        Assertions.assertEquals((int) 105, map.addTo((int) 0, (int) 5));
+        Assertions.assertEquals((int) 3, map.addTo((int) 42, (int) 3));
+    }
+
+    @Test
+    void putAll() {
+        final PrimitiveIntCollection keys = new PrimitiveIntCollection();
+        final PrimitiveIntCollection values = new PrimitiveIntCollection();
+        for (int i = 0; i < iterations; i++) {
+            keys.add((int) (i % 100 - 50));
+            values.add((int) (i % 7));
+        }
+        final PrimitiveIntIntMap map = new PrimitiveIntIntMap();
+        map.putAll(keys, values);
+        Assertions.assertEquals(100, map.getSize());
+        for (int i = iterations - 100; i < iterations; i++) {
+            Assertions.assertEquals((int) (i % 7), map.get((int) (i % 100 - 50)));
+        }
+        values.add((int) 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.putAll(keys, values));
+    }
+
+    @Test
+    void cursor() {
+        final PrimitiveIntIntMap map = new PrimitiveIntIntMap();
+        final PrimitiveIntIntMap.Cursor empty = map.cursor();
+        Assertions.assertFalse(empty.next());
+        Assertions.assertThrows(NoSuchElementException.class, () -> empty.key());
+        for (int i = 0; i < 100; i++) {
+            map.put((int) (i - 50), (int) (i % 10));
+        }
+        final Map<Integer, Integer> visited = new HashMap<>();
+        final PrimitiveIntIntMap.Cursor cursor = map.cursor();
+        Assertions.assertThrows(NoSuchElementException.class, () -> cursor.value());
+        while (cursor.next()) {
+            Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+        }
+        Assertions.assertFalse(cursor.next());
+        Assertions.assertEquals(100, visited.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((int) (i % 10), visited.get((int) (i - 50)));
+        }
+
+        final PrimitiveIntIntMap.Cursor stale = map.cursor();
+        map.remove((int) 1);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> stale.next());
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveIntIntMap map = new PrimitiveIntIntMap();
+        for (int i = 0; i < 100; i++) {
+            map.put((int) (i - 50), (int) 1);
+        }
+        map.clean();
+        Assertions.assertEquals(0, map.getSize());
+        Assertions.assertFalse(map.containsKey((int) 0));
+        Assertions.assertFalse(map.containsKey((int) 1));
+        Assertions.assertFalse(map.cursor().next());
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveIntIntMap(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveIntIntMap(16, 1.5f));
+        final PrimitiveIntIntMap dense = new PrimitiveIntIntMap(0, 0.99f);
+        for (int i = 0; i < 100; i++) {
+            dense.put((int) (i - 50), (int) i);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((int) i, dense.get((int) (i - 50)));
+        }
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveIntIntMap map = new PrimitiveIntIntMap();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> map.clone());
+    }
+}
@@ -0,0 +1,124 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class PrimitiveIntSetTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void addContainsRemove() {
+        final PrimitiveIntSet set = new PrimitiveIntSet(0);
+        final Set<Integer> expected = new HashSet<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final int value = (int) (random.nextInt(100) - 50);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                Assertions.assertEquals(expected.add(value), set.add(value));
+            }
+            Assertions.assertEquals(expected.size(), set.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            Assertions.assertEquals(expected.contains((int) i), set.contains((int) i));
+        }
+    }
+
+    @Test
+    void zero() {
+        final PrimitiveIntSet set = new PrimitiveIntSet();
+        Assertions.assertFalse(set.contains((int) 0));
+        Assertions.assertTrue(set.add((int) 0));
+        Assertions.assertFalse(set.add((int) 0));
+        Assertions.assertTrue(set.contains((int) 0));
+        Assertions.assertEquals(1, set.getSize());
+        Assertions.assertArrayEquals(new int[]{(int) 0}, set.toArray());
+        Assertions.assertTrue(set.remove((int) 0));
+        Assertions.assertFalse(set.remove((int) 0));
+        Assertions.assertEquals(0, set.getSize());
+    }
+
+    @Test
+    void addAll() {
+        final PrimitiveIntCollection collection = new PrimitiveIntCollection();
+        final int[] values = new int[iterations];
+        for (int i = 0; i < iterations; i++) {
+            values[i] = (int) (i % 100 - 50);
+            collection.add(values[i]);
+        }
+        final PrimitiveIntSet fromCollection = new PrimitiveIntSet();
+        fromCollection.addAll(collection);
+        final PrimitiveIntSet fromArray = new PrimitiveIntSet();
+        fromArray.addAll(values);
+        Assertions.assertEquals(100, fromCollection.getSize());
+        Assertions.assertEquals(100, fromArray.getSize());
+
+        final int[] expected = new int[100];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = (int) (i - 50);
+        }
+        final int[] actual = fromCollection.toArray();
+        Arrays.sort(actual);
+        Assertions.assertArrayEquals(expected, actual);
+        final PrimitiveIntCollection visited = new PrimitiveIntCollection();
+        fromArray.forEach(visited::add);
+        final int[] visitedValues = visited.toArray();
+        Arrays.sort(visitedValues);
+        Assertions.assertArrayEquals(expected, visitedValues);
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveIntSet set = new PrimitiveIntSet();
+        for (int i = 0; i < 100; i++) {
+            set.add((int) (i - 50));
+        }
+        set.clean();
+        Assertions.assertEquals(0, set.getSize());
+        Assertions.assertEquals(0, set.toArray().length);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertFalse(set.contains((int) (i - 50)));
+        }
+        Assertions.assertTrue(set.add((int) 3));
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveIntSet(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveIntSet(16, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveIntSet(16, Float.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveIntSet(-1));
+        final PrimitiveIntSet dense = new PrimitiveIntSet(0, 0.99f);
+        final PrimitiveIntSet sparse = new PrimitiveIntSet(0, 0.1f);
+        for (int i = 0; i < 100; i++) {
+            dense.add((int) (i - 50));
+            sparse.add((int) (i - 50));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(dense.contains((int) (i - 50)));
+            Assertions.assertTrue(sparse.contains((int) (i - 50)));
+        }
+    }
+
+    @Test
+    void forEachFailFast() {
+        final PrimitiveIntSet set = new PrimitiveIntSet();
+        set.add((int) 1);
+        set.add((int) 2);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> set.forEach(value -> set.add((int) 3)));
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveIntSet set = new PrimitiveIntSet();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> set.clone());
+    }
+}
@@ -0,0 +1,164 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class PrimitiveLongCompressedCollectionTest {
+
+    private final int iterations = 10_000;
+
+    private static long[] timestamps(final int count) {
+        final Random random = new Random(1);
+        final long[] values = new long[count];
+        long time = 1_650_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            time = time + 1000 + random.nextInt(50);
+            values[i] = time;
+        }
+        return values;
+    }
+
+    private static long[] randoms(final int count) {
+        final Random random = new Random(2);
+        final long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextLong();
+        }
+        return values;
+    }
+
+    private static long[] extremes(final int count) {
+        final long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i % 2 == 0 ? Long.MIN_VALUE + i : Long.MAX_VALUE - i;
+        }
+        return values;
+    }
+
+    @Test
+    void addAndGet() {
+        for (final long[] values : new long[][]{timestamps(iterations), randoms(iterations), extremes(iterations)}) {
+            final PrimitiveLongCompressedCollection collection = new PrimitiveLongCompressedCollection();
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertEquals(i, collection.getSize());
+                collection.add(values[i]);
+            }
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertEquals(values[i], collection.get(i));
+            }
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(-1));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(iterations));
+        }
+    }
+
+    @Test
+    void set() {
+        final long[] values = timestamps(iterations);
+        final PrimitiveLongCompressedCollection collection = new PrimitiveLongCompressedCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add(values[i]);
+        }
+        // Fits the packed width, then needs a wider one
+        collection.set(5, values[5] + 1);
+        values[5] = values[5] + 1;
+        collection.set(1500, Long.MIN_VALUE);
+        values[1500] = Long.MIN_VALUE;
+        collection.set(iterations - 1, -3);
+        values[iterations - 1] = -3;
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(values[i], collection.get(i));
+        }
+        Assertions.assertEquals(Long.MIN_VALUE, collection.min());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.set(iterations, 1));
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveLongCompressedCollection collection = new PrimitiveLongCompressedCollection();
+        for (int i = 0; i < iterations; i++) {
+            collection.add(i);
+        }
+        collection.clean();
+        Assertions.assertEquals(0, collection.getSize());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
+        collection.add(5);
+        Assertions.assertEquals(5, collection.get(0));
+    }
+
+    @Test
+    void reductions() {
+        for (final long[] values : new long[][]{timestamps(iterations), randoms(iterations), extremes(iterations)}) {
+            final PrimitiveLongCompressedCollection collection = new PrimitiveLongCompressedCollection();
+            final PrimitiveLongCollection expected = new PrimitiveLongCollection();
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.max());
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.min());
+            for (int i = 0; i < iterations; i++) {
+                collection.add(values[i]);
+                expected.add(values[i]);
+            }
+            Assertions.assertEquals(expected.sum(), collection.sum(), Math.abs(expected.sum()) * 1e-12);
+            Assertions.assertEquals(expected.average(), collection.average(), Math.abs(expected.average()) * 1e-12);
+            Assertions.assertEquals(expected.max(), collection.max());
+            Assertions.assertEquals(expected.min(), collection.min());
+        }
+
+        // Full last chunk, nothing unsealed
+        final PrimitiveLongCompressedCollection collection = new PrimitiveLongCompressedCollection();
+        for (int i = 0; i < 2048; i++) {
+            collection.add(i);
+        }
+        Assertions.assertEquals(2047 * 2048 / 2, collection.sum());
+        Assertions.assertEquals(2047, collection.max());
+        Assertions.assertEquals(0, collection.min());
+    }
+
+    @Test
+    void forEachAndAddAll() {
+        final long[] values = timestamps(iterations);
+        final PrimitiveLongCollection source = new PrimitiveLongCollection();
+        source.addAll(values);
+        final PrimitiveLongCompressedCollection collection = new PrimitiveLongCompressedCollection();
+        collection.addAll(source);
+        Assertions.assertEquals(iterations, collection.getSize());
+        final int[] index = new int[1];
+        collection.forEach(value -> {
+            Assertions.assertEquals(values[index[0]], value);
+            index[0]++;
+        });
+        Assertions.assertEquals(iterations, index[0]);
+    }
+
+    @Test
+    void sizeInBytes() {
+        final int count = 100_000;
+        final PrimitiveLongCompressedCollection sequence = new PrimitiveLongCompressedCollection();
+        final PrimitiveLongCompressedCollection timestamps = new PrimitiveLongCompressedCollection();
+        final PrimitiveLongCompressedCollection randoms = new PrimitiveLongCompressedCollection();
+        final long[] times = timestamps(count);
+        final long[] random = randoms(count);
+        for (int i = 0; i < count; i++) {
+            sequence.add(i * 7L);
+            timestamps.add(times[i]);
+            randoms.add(random[i]);
+        }
+        final long raw = (long) count * Long.BYTES;
+        Assertions.assertTrue(sequence.sizeInBytes() < raw / 8);
+        Assertions.assertTrue(timestamps.sizeInBytes() < raw / 5);
+        Assertions.assertTrue(randoms.sizeInBytes() > raw);
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveLongCompressedCollection collection = new PrimitiveLongCompressedCollection();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> collection.clone());
+    }
+
+    @Test
+    void testToString() {
+        final PrimitiveLongCompressedCollection collection = new PrimitiveLongCompressedCollection();
+        Assertions.assertNotNull(collection.toString());
+    }
+}
@@ -0,0 +1,134 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+class PrimitiveLongLongMapTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void putGetRemove() {
+        final PrimitiveLongLongMap map = new PrimitiveLongLongMap(0);
+        final Map<Long, Long> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final long key = (long) (random.nextInt(100) - 50);
+            final long value = (long) random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.put(key, value);
+                map.put(key, value);
+            }
+            Assertions.assertEquals(expected.size(), map.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            final long key = (long) i;
+            Assertions.assertEquals(expected.containsKey(key), map.containsKey(key));
+            if (expected.containsKey(key)) {
+                Assertions.assertEquals(expected.get(key), map.get(key));
+                Assertions.assertEquals(expected.get(key), map.getOrDefault(key, (long) -1));
+            } else {
+                Assertions.assertThrows(NoSuchElementException.class, () -> map.get(key));
+                Assertions.assertEquals((long) -1, map.getOrDefault(key, (long) -1));
+            }
+        }
+    }
+
+    @Test
+    void addTo() {
+        final PrimitiveLongLongMap map = new PrimitiveLongLongMap();
+        for (int i = 0; i < 1000; i++) {
+            map.addTo((long) (i % 10), (long) 1);
+        }
+        Assertions.assertEquals(10, map.getSize());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals((long) 100, map.get((long) i));
+        }
+        Assertions.assertEquals((long) 105, map.addTo((long) 0, (long) 5));
+        Assertions.assertEquals((long) 3, map.addTo((long) 42, (long) 3));
+    }
+
+    @Test
+    void putAll() {
+        final PrimitiveLongCollection keys = new PrimitiveLongCollection();
+        final PrimitiveLongCollection values = new PrimitiveLongCollection();
+        for (int i = 0; i < iterations; i++) {
+            keys.add((long) (i % 100 - 50));
+            values.add((long) (i % 7));
+        }
+        final PrimitiveLongLongMap map = new PrimitiveLongLongMap();
+        map.putAll(keys, values);
+        Assertions.assertEquals(100, map.getSize());
+        for (int i = iterations - 100; i < iterations; i++) {
+            Assertions.assertEquals((long) (i % 7), map.get((long) (i % 100 - 50)));
+        }
+        values.add((long) 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.putAll(keys, values));
+    }
+
+    @Test
+    void cursor() {
+        final PrimitiveLongLongMap map = new PrimitiveLongLongMap();
+        final PrimitiveLongLongMap.Cursor empty = map.cursor();
+        Assertions.assertFalse(empty.next());
+        Assertions.assertThrows(NoSuchElementException.class, () -> empty.key());
+        for (int i = 0; i < 100; i++) {
+            map.put((long) (i - 50), (long) (i % 10));
+        }
+        final Map<Long, Long> visited = new HashMap<>();
+        final PrimitiveLongLongMap.Cursor cursor = map.cursor();
+        Assertions.assertThrows(NoSuchElementException.class, () -> cursor.value());
+        while (cursor.next()) {
+            Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+        }
+        Assertions.assertFalse(cursor.next());
+        Assertions.assertEquals(100, visited.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((long) (i % 10), visited.get((long) (i - 50)));
+        }
+
+        final PrimitiveLongLongMap.Cursor stale = map.cursor();
+        map.remove((long) 1);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> stale.next());
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveLongLongMap map = new PrimitiveLongLongMap();
+        for (int i = 0; i < 100; i++) {
+            map.put((long) (i - 50), (long) 1);
+        }
+        map.clean();
+        Assertions.assertEquals(0, map.getSize());
+        Assertions.assertFalse(map.containsKey((long) 0));
+        Assertions.assertFalse(map.containsKey((long) 1));
+        Assertions.assertFalse(map.cursor().next());
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveLongLongMap(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveLongLongMap(16, 1.5f));
+        final PrimitiveLongLongMap dense = new PrimitiveLongLongMap(0, 0.99f);
+        for (int i = 0; i < 100; i++) {
+            dense.put((long) (i - 50), (long) i);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((long) i, dense.get((long) (i - 50)));
+        }
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveLongLongMap map = new PrimitiveLongLongMap();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> map.clone());
+    }
+}
@@ -0,0 +1,105 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class PrimitiveLongOffHeapCollectionTest {
+
+    // More than two chunks
+    private final int iterations = 300_000;
+
+    @Test
+    void addAndGet() {
+        try (PrimitiveLongOffHeapCollection collection = new PrimitiveLongOffHeapCollection()) {
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertEquals(i, collection.getSize());
+                collection.add(i * 3L);
+            }
+            Assertions.assertEquals(iterations, collection.getSize());
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertEquals(i * 3L, collection.get(i));
+            }
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(-1));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(iterations));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void set() {
+        try (PrimitiveLongOffHeapCollection collection = new PrimitiveLongOffHeapCollection()) {
+            for (int i = 0; i < iterations; i++) {
+                collection.add(i);
+            }
+            for (int i = 0; i < iterations; i++) {
+                collection.set(i, -i);
+            }
+            for (int i = 0; i < iterations; i++) {
+                Assertions.assertEquals(-i, collection.get(i));
+            }
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.set(iterations, 1));
+        }
+    }
+
+    @Test
+    void clean() {
+        try (PrimitiveLongOffHeapCollection collection = new PrimitiveLongOffHeapCollection()) {
+            for (int i = 0; i < iterations; i++) {
+                collection.add(i);
+            }
+            collection.clean();
+            Assertions.assertEquals(0, collection.getSize());
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.get(0));
+            collection.add(5);
+            Assertions.assertEquals(5, collection.get(0));
+        }
+    }
+
+    @Test
+    void reductions() {
+        try (PrimitiveLongOffHeapCollection collection = new PrimitiveLongOffHeapCollection()) {
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.average());
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.max());
+            Assertions.assertThrows(IllegalStateException.class, () -> collection.min());
+            long sum = 0;
+            for (int i = 0; i < iterations; i++) {
+                collection.add(i % 1000);
+                sum = sum + i % 1000;
+            }
+            Assertions.assertEquals(sum, collection.sum());
+            Assertions.assertEquals(sum / (double) iterations, collection.average());
+            Assertions.assertEquals(999, collection.max());
+            Assertions.assertEquals(0, collection.min());
+
+            collection.set(iterations / 2, Long.MAX_VALUE);
+            collection.set(iterations - 1, -7);
+            Assertions.assertEquals(Long.MAX_VALUE, collection.max());
+            Assertions.assertEquals(-7, collection.min());
+        }
+    }
+
+    @Test
+    void close() {
+        final PrimitiveLongOffHeapCollection collection = new PrimitiveLongOffHeapCollection();
+        collection.add(1);
+        Assertions.assertFalse(collection.isClosed());
+        collection.close();
+        Assertions.assertTrue(collection.isClosed());
+        collection.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.getSize());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.get(0));
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.add(1));
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.set(0, 1));
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.sum());
+        Assertions.assertThrows(IllegalStateException.class, () -> collection.clean());
+        Assertions.assertNotNull(collection.toString());
+    }
+
+    @Test
+    void testClone() {
+        try (PrimitiveLongOffHeapCollection collection = new PrimitiveLongOffHeapCollection()) {
+            Assertions.assertThrows(CloneNotSupportedException.class, () -> collection.clone());
+        }
+    }
+}
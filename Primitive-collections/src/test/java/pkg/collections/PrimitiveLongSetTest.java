@@ -0,0 +1,124 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class PrimitiveLongSetTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void addContainsRemove() {
+        final PrimitiveLongSet set = new PrimitiveLongSet(0);
+        final Set<Long> expected = new HashSet<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final long value = (long) (random.nextInt(100) - 50);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                Assertions.assertEquals(expected.add(value), set.add(value));
+            }
+            Assertions.assertEquals(expected.size(), set.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            Assertions.assertEquals(expected.contains((long) i), set.contains((long) i));
+        }
+    }
+
+    @Test
+    void zero() {
+        final PrimitiveLongSet set = new PrimitiveLongSet();
+        Assertions.assertFalse(set.contains((long) 0));
+        Assertions.assertTrue(set.add((long) 0));
+        Assertions.assertFalse(set.add((long) 0));
+        Assertions.assertTrue(set.contains((long) 0));
+        Assertions.assertEquals(1, set.getSize());
+        Assertions.assertArrayEquals(new long[]{(long) 0}, set.toArray());
+        Assertions.assertTrue(set.remove((long) 0));
+        Assertions.assertFalse(set.remove((long) 0));
+        Assertions.assertEquals(0, set.getSize());
+    }
+
+    @Test
+    void addAll() {
+        final PrimitiveLongCollection collection = new PrimitiveLongCollection();
+        final long[] values = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            values[i] = (long) (i % 100 - 50);
+            collection.add(values[i]);
+        }
+        final PrimitiveLongSet fromCollection = new PrimitiveLongSet();
+        fromCollection.addAll(collection);
+        final PrimitiveLongSet fromArray = new PrimitiveLongSet();
+        fromArray.addAll(values);
+        Assertions.assertEquals(100, fromCollection.getSize());
+        Assertions.assertEquals(100, fromArray.getSize());
+
+        final long[] expected = new long[100];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = (long) (i - 50);
+        }
+        final long[] actual = fromCollection.toArray();
+        Arrays.sort(actual);
+        Assertions.assertArrayEquals(expected, actual);
+        final PrimitiveLongCollection visited = new PrimitiveLongCollection();
+        fromArray.forEach(visited::add);
+        final long[] visitedValues = visited.toArray();
+        Arrays.sort(visitedValues);
+        Assertions.assertArrayEquals(expected, visitedValues);
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveLongSet set = new PrimitiveLongSet();
+        for (int i = 0; i < 100; i++) {
+            set.add((long) (i - 50));
+        }
+        set.clean();
+        Assertions.assertEquals(0, set.getSize());
+        Assertions.assertEquals(0, set.toArray().length);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertFalse(set.contains((long) (i - 50)));
+        }
+        Assertions.assertTrue(set.add((long) 3));
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveLongSet(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveLongSet(16, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveLongSet(16, Float.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveLongSet(-1));
+        final PrimitiveLongSet dense = new PrimitiveLongSet(0, 0.99f);
+        final PrimitiveLongSet sparse = new PrimitiveLongSet(0, 0.1f);
+        for (int i = 0; i < 100; i++) {
+            dense.add((long) (i - 50));
+            sparse.add((long) (i - 50));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(dense.contains((long) (i - 50)));
+            Assertions.assertTrue(sparse.contains((long) (i - 50)));
+        }
+    }
+
+    @Test
+    void forEachFailFast() {
+        final PrimitiveLongSet set = new PrimitiveLongSet();
+        set.add((long) 1);
+        set.add((long) 2);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> set.forEach(value -> set.add((long) 3)));
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveLongSet set = new PrimitiveLongSet();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> set.clone());
+    }
+}
@@ -0,0 +1,148 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+class PrimitiveLongStripedCollectorTest {
+
+    private final int iterations = 10_000;
+    private final int threads = 4;
+
+    @Test
+    void flushAndDrain() {
+        final PrimitiveLongStripedCollector collector = new PrimitiveLongStripedCollector();
+        for (int i = 0; i < iterations; i++) {
+            collector.add(i);
+        }
+        // The last 784 values are not handed off yet
+        Assertions.assertEquals(9 * 1024, collector.snapshot().getSize());
+        collector.flush();
+        collector.flush();
+
+        final PrimitiveLongCollection snapshot = collector.snapshot();
+        Assertions.assertEquals(iterations, snapshot.getSize());
+        final PrimitiveLongCollection drained = collector.drain();
+        Assertions.assertEquals(snapshot, drained);
+        for (int i = 0; i < iterations; i++) {
+            Assertions.assertEquals(i, drained.get(i));
+        }
+
+        Assertions.assertEquals(0, collector.drain().getSize());
+        Assertions.assertEquals(0, collector.snapshot().getSize());
+    }
+
+    @Test
+    void drainKeepsThreadOrderAfterFlush() {
+        final PrimitiveLongStripedCollector collector = new PrimitiveLongStripedCollector();
+        for (int i = 0; i < 10; i++) {
+            collector.add(i);
+        }
+        collector.flush();
+        for (int i = 10; i < 10 + 2048; i++) {
+            collector.add(i);
+        }
+        final PrimitiveLongCollection drained = collector.drain();
+        Assertions.assertEquals(2058, drained.getSize());
+        for (int i = 0; i < drained.getSize(); i++) {
+            Assertions.assertEquals(i, drained.get(i));
+        }
+    }
+
+    @Test
+    void terminatedThreads() throws InterruptedException {
+        final PrimitiveLongStripedCollector collector = new PrimitiveLongStripedCollector();
+        for (int t = 0; t < threads; t++) {
+            final long offset = (long) t * iterations;
+            final Thread writer = new Thread(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    collector.add(offset + i);
+                }
+            });
+            writer.start();
+            writer.join();
+        }
+        Assertions.assertEquals("[stripes = " + threads + "]", collector.toString());
+        Assertions.assertEquals(threads * iterations, collector.snapshot().getSize());
+        final PrimitiveLongCollection drained = collector.drain();
+        Assertions.assertEquals(threads * iterations, drained.getSize());
+        Assertions.assertEquals((long) threads * iterations * (threads * iterations - 1) / 2, drained.sum());
+        Assertions.assertEquals("[stripes = 0]", collector.toString());
+    }
+
+    @Test
+    void drainTooMany() throws ReflectiveOperationException {
+        final PrimitiveLongStripedCollector collector = new PrimitiveLongStripedCollector();
+        collector.add(1);
+        collector.flush();
+        final Field stripes = PrimitiveLongStripedCollector.class.getDeclaredField("stripes");
+        stripes.setAccessible(true);
+        final Object stripe = ((Queue<?>) stripes.get(collector)).peek();
+        final Field handedOff = stripe.getClass().getDeclaredField("handedOff");
+        handedOff.setAccessible(true);
+        @SuppressWarnings("unchecked")
+        final Queue<long[]> chunks = (Queue<long[]>) handedOff.get(stripe);
+        final long[] chunk = new long[1024];
+        for (int i = 0; i < (Integer.MAX_VALUE >> 10) + 1; i++) {
+            chunks.add(chunk);
+        }
+        final IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, collector::drain);
+        Assertions.assertEquals("Collection is full", exception.getMessage());
+        Assertions.assertEquals((Integer.MAX_VALUE >> 10) + 2, chunks.size());
+    }
+
+    @Test
+    void concurrentAdd() throws InterruptedException {
+        final PrimitiveLongStripedCollector collector = new PrimitiveLongStripedCollector();
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final long offset = (long) t * iterations;
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        collector.add(offset + i);
+                    }
+                    collector.flush();
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+        final PrimitiveLongCollection collected = new PrimitiveLongCollection();
+        writers.forEach(Thread::start);
+        start.countDown();
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            collected.addAll(collector.drain());
+        }
+        collected.addAll(collector.drain());
+        Assertions.assertNull(failure.get());
+
+        Assertions.assertEquals(threads * iterations, collected.getSize());
+        final long[] last = new long[threads];
+        Arrays.fill(last, -1);
+        collected.forEach(value -> {
+            final int thread = (int) (value / iterations);
+            Assertions.assertEquals(last[thread] + 1, value % iterations);
+            last[thread] = value % iterations;
+        });
+        for (final long value : last) {
+            Assertions.assertEquals(iterations - 1, value);
+        }
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveLongStripedCollector collector = new PrimitiveLongStripedCollector();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> collector.clone());
+    }
+}
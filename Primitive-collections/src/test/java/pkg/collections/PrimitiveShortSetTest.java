@@ -0,0 +1,124 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+class PrimitiveShortSetTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void addContainsRemove() {
+        final PrimitiveShortSet set = new PrimitiveShortSet(0);
+        final Set<Short> expected = new HashSet<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final short value = (short) (random.nextInt(100) - 50);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                Assertions.assertEquals(expected.add(value), set.add(value));
+            }
+            Assertions.assertEquals(expected.size(), set.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            Assertions.assertEquals(expected.contains((short) i), set.contains((short) i));
+        }
+    }
+
+    @Test
+    void zero() {
+        final PrimitiveShortSet set = new PrimitiveShortSet();
+        Assertions.assertFalse(set.contains((short) 0));
+        Assertions.assertTrue(set.add((short) 0));
+        Assertions.assertFalse(set.add((short) 0));
+        Assertions.assertTrue(set.contains((short) 0));
+        Assertions.assertEquals(1, set.getSize());
+        Assertions.assertArrayEquals(new short[]{(short) 0}, set.toArray());
+        Assertions.assertTrue(set.remove((short) 0));
+        Assertions.assertFalse(set.remove((short) 0));
+        Assertions.assertEquals(0, set.getSize());
+    }
+
+    @Test
+    void addAll() {
+        final PrimitiveShortCollection collection = new PrimitiveShortCollection();
+        final short[] values = new short[iterations];
+        for (int i = 0; i < iterations; i++) {
+            values[i] = (short) (i % 100 - 50);
+            collection.add(values[i]);
+        }
+        final PrimitiveShortSet fromCollection = new PrimitiveShortSet();
+        fromCollection.addAll(collection);
+        final PrimitiveShortSet fromArray = new PrimitiveShortSet();
+        fromArray.addAll(values);
+        Assertions.assertEquals(100, fromCollection.getSize());
+        Assertions.assertEquals(100, fromArray.getSize());
+
+        final short[] expected = new short[100];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = (short) (i - 50);
+        }
+        final short[] actual = fromCollection.toArray();
+        Arrays.sort(actual);
+        Assertions.assertArrayEquals(expected, actual);
+        final PrimitiveShortCollection visited = new PrimitiveShortCollection();
+        fromArray.forEach(visited::add);
+        final short[] visitedValues = visited.toArray();
+        Arrays.sort(visitedValues);
+        Assertions.assertArrayEquals(expected, visitedValues);
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveShortSet set = new PrimitiveShortSet();
+        for (int i = 0; i < 100; i++) {
+            set.add((short) (i - 50));
+        }
+        set.clean();
+        Assertions.assertEquals(0, set.getSize());
+        Assertions.assertEquals(0, set.toArray().length);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertFalse(set.contains((short) (i - 50)));
+        }
+        Assertions.assertTrue(set.add((short) 3));
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveShortSet(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveShortSet(16, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveShortSet(16, Float.NaN));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveShortSet(-1));
+        final PrimitiveShortSet dense = new PrimitiveShortSet(0, 0.99f);
+        final PrimitiveShortSet sparse = new PrimitiveShortSet(0, 0.1f);
+        for (int i = 0; i < 100; i++) {
+            dense.add((short) (i - 50));
+            sparse.add((short) (i - 50));
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertTrue(dense.contains((short) (i - 50)));
+            Assertions.assertTrue(sparse.contains((short) (i - 50)));
+        }
+    }
+
+    @Test
+    void forEachFailFast() {
+        final PrimitiveShortSet set = new PrimitiveShortSet();
+        set.add((short) 1);
+        set.add((short) 2);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> set.forEach(value -> set.add((short) 3)));
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveShortSet set = new PrimitiveShortSet();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> set.clone());
+    }
+}
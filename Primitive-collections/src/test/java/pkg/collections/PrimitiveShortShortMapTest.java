@@ -0,0 +1,134 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+class PrimitiveShortShortMapTest {
+
+    private final int iterations = 10_000;
+
+    @Test
+    void putGetRemove() {
+        final PrimitiveShortShortMap map = new PrimitiveShortShortMap(0);
+        final Map<Short, Short> expected = new HashMap<>();
+        final Random random = new Random(42);
+        for (int i = 0; i < iterations; i++) {
+            final short key = (short) (random.nextInt(100) - 50);
+            final short value = (short) random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.put(key, value);
+                map.put(key, value);
+            }
+            Assertions.assertEquals(expected.size(), map.getSize());
+        }
+        for (int i = -60; i < 60; i++) {
+            final short key = (short) i;
+            Assertions.assertEquals(expected.containsKey(key), map.containsKey(key));
+            if (expected.containsKey(key)) {
+                Assertions.assertEquals(expected.get(key), map.get(key));
+                Assertions.assertEquals(expected.get(key), map.getOrDefault(key, (short) -1));
+            } else {
+                Assertions.assertThrows(NoSuchElementException.class, () -> map.get(key));
+                Assertions.assertEquals((short) -1, map.getOrDefault(key, (short) -1));
+            }
+        }
+    }
+
+    @Test
+    void addTo() {
+        final PrimitiveShortShortMap map = new PrimitiveShortShortMap();
+        for (int i = 0; i < 1000; i++) {
+            map.addTo((short) (i % 10), (short) 1);
+        }
+        Assertions.assertEquals(10, map.getSize());
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals((short) 100, map.get((short) i));
+        }
+        Assertions.assertEquals((short) 105, map.addTo((short) 0, (short) 5));
+        Assertions.assertEquals((short) 3, map.addTo((short) 42, (short) 3));
+    }
+
+    @Test
+    void putAll() {
+        final PrimitiveShortCollection keys = new PrimitiveShortCollection();
+        final PrimitiveShortCollection values = new PrimitiveShortCollection();
+        for (int i = 0; i < iterations; i++) {
+            keys.add((short) (i % 100 - 50));
+            values.add((short) (i % 7));
+        }
+        final PrimitiveShortShortMap map = new PrimitiveShortShortMap();
+        map.putAll(keys, values);
+        Assertions.assertEquals(100, map.getSize());
+        for (int i = iterations - 100; i < iterations; i++) {
+            Assertions.assertEquals((short) (i % 7), map.get((short) (i % 100 - 50)));
+        }
+        values.add((short) 1);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.putAll(keys, values));
+    }
+
+    @Test
+    void cursor() {
+        final PrimitiveShortShortMap map = new PrimitiveShortShortMap();
+        final PrimitiveShortShortMap.Cursor empty = map.cursor();
+        Assertions.assertFalse(empty.next());
+        Assertions.assertThrows(NoSuchElementException.class, () -> empty.key());
+        for (int i = 0; i < 100; i++) {
+            map.put((short) (i - 50), (short) (i % 10));
+        }
+        final Map<Short, Short> visited = new HashMap<>();
+        final PrimitiveShortShortMap.Cursor cursor = map.cursor();
+        Assertions.assertThrows(NoSuchElementException.class, () -> cursor.value());
+        while (cursor.next()) {
+            Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+        }
+        Assertions.assertFalse(cursor.next());
+        Assertions.assertEquals(100, visited.size());
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((short) (i % 10), visited.get((short) (i - 50)));
+        }
+
+        final PrimitiveShortShortMap.Cursor stale = map.cursor();
+        map.remove((short) 1);
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> stale.next());
+    }
+
+    @Test
+    void clean() {
+        final PrimitiveShortShortMap map = new PrimitiveShortShortMap();
+        for (int i = 0; i < 100; i++) {
+            map.put((short) (i - 50), (short) 1);
+        }
+        map.clean();
+        Assertions.assertEquals(0, map.getSize());
+        Assertions.assertFalse(map.containsKey((short) 0));
+        Assertions.assertFalse(map.containsKey((short) 1));
+        Assertions.assertFalse(map.cursor().next());
+    }
+
+    @Test
+    void loadFactor() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveShortShortMap(16, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PrimitiveShortShortMap(16, 1.5f));
+        final PrimitiveShortShortMap dense = new PrimitiveShortShortMap(0, 0.99f);
+        for (int i = 0; i < 100; i++) {
+            dense.put((short) (i - 50), (short) i);
+        }
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals((short) i, dense.get((short) (i - 50)));
+        }
+    }
+
+    @Test
+    void testClone() {
+        final PrimitiveShortShortMap map = new PrimitiveShortShortMap();
+        Assertions.assertThrows(CloneNotSupportedException.class, () -> map.clone());
+    }
+}
@@ -13,4 +13,36 @@ class RangeCheckTest {
         Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.check(0, 0));
         Assertions.assertDoesNotThrow(() -> RangeCheck.check(0, 1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void checkLong() {
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.check(-1L, 1L));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.check(0L, -1L));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.check(1L << 32, 1L << 32));
+        Assertions.assertDoesNotThrow(() -> RangeCheck.check((1L << 32) - 1, 1L << 32));
+    }
+
+    @Test
+    void checkFromIndexSize() {
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromIndexSize(-1, 1, 10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromIndexSize(0, -1, 10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromIndexSize(0, 1, -1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromIndexSize(5, 6, 10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromIndexSize(11, 0, 10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromIndexSize(1, Integer.MAX_VALUE, 10));
+        Assertions.assertDoesNotThrow(() -> RangeCheck.checkFromIndexSize(0, 0, 0));
+        Assertions.assertDoesNotThrow(() -> RangeCheck.checkFromIndexSize(10, 0, 10));
+        Assertions.assertDoesNotThrow(() -> RangeCheck.checkFromIndexSize(4, 6, 10));
+    }
+
+    @Test
+    void checkFromToIndex() {
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromToIndex(-1, 1, 10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromToIndex(5, 4, 10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromToIndex(0, 11, 10));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> RangeCheck.checkFromToIndex(0, 0, -1));
+        Assertions.assertDoesNotThrow(() -> RangeCheck.checkFromToIndex(0, 0, 0));
+        Assertions.assertDoesNotThrow(() -> RangeCheck.checkFromToIndex(10, 10, 10));
+        Assertions.assertDoesNotThrow(() -> RangeCheck.checkFromToIndex(4, 6, 10));
+    }
+}
@@ -0,0 +1,22 @@
+package pkg.collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class TypeTagTest {
+
+    @Test
+    void of() {
+        final Set<Byte> tags = new HashSet<>();
+        for (final Class<?> type : new Class<?>[]{double.class, float.class, long.class, int.class, short.class, byte.class}) {
+            Assertions.assertTrue(tags.add(TypeTag.of(type)));
+        }
+        Assertions.assertEquals(TypeTag.DOUBLE, TypeTag.of(double.class));
+        Assertions.assertEquals(TypeTag.BYTE, TypeTag.of(byte.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TypeTag.of(char.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> TypeTag.of(Double.class));
+    }
+}